@@ -0,0 +1,136 @@
+package com.ss.utopia.customer.benchmark;
+
+import com.ss.utopia.customer.client.AccountsHttpClientConfiguration;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Headers;
+import feign.RequestLine;
+import feign.httpclient.ApacheHttpClient;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency distribution, including p99, of an account creation call through Feign against a local
+ * stub accounts service, with and without connection reuse.
+ *
+ * <ul>
+ *   <li>{@code unpooled}: Apache HttpClient opening a new connection for every call.</li>
+ *   <li>{@code url-connection}: Feign's default client, {@code HttpURLConnection}, with only the
+ *   JDK's implicit keep-alive cache.</li>
+ *   <li>{@code pooled}: a pool as OpenFeign creates it from {@code feign.httpclient.*}, behind
+ *   the client built from {@link AccountsHttpClientConfiguration}.</li>
+ * </ul>
+ *
+ * <p>The stub is plain HTTP on loopback, so connection setup is only the TCP handshake. Over TLS
+ * to a remote instance every new connection also pays the handshake round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AccountsHttpClientBenchmark {
+
+  private static final String BODY = "{\"email\":\"eddy_grant@test.com\",\"password\":\"abCD1234!@\","
+      + "\"firstName\":\"Eddy\",\"lastName\":\"Grant\",\"phoneNumber\":\"420-420-6969\"}";
+
+  @Param({"unpooled", "url-connection", "pooled"})
+  public String client;
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private CloseableHttpClient httpClient;
+  private AccountsApi api;
+
+  /**
+   * Account creation endpoint of the accounts service.
+   */
+  interface AccountsApi {
+
+    @RequestLine("POST /api/v0.1/accounts")
+    @Headers("Content-Type: application/json")
+    String createNewAccount(String body);
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    // without it responses on reused connections wait out the delayed ACK of their headers
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 100);
+    serverExecutor = Executors.newFixedThreadPool(16);
+    server.setExecutor(serverExecutor);
+    server.createContext("/api/v0.1/accounts", exchange -> {
+      exchange.getRequestBody().readAllBytes();
+      var response = ("\"" + UUID.randomUUID() + "\"").getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(201, response.length);
+      exchange.getResponseBody().write(response);
+      exchange.close();
+    });
+    server.start();
+
+    Client feignClient;
+    switch (client) {
+      case "unpooled":
+        httpClient = HttpClients.custom()
+            .setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE)
+            .build();
+        feignClient = new ApacheHttpClient(httpClient);
+        break;
+      case "url-connection":
+        feignClient = new Client.Default(null, null);
+        break;
+      default:
+        var connectionManager = new PoolingHttpClientConnectionManager(15, TimeUnit.MINUTES);
+        connectionManager.setMaxTotal(200);
+        connectionManager.setDefaultMaxPerRoute(50);
+        httpClient = new AccountsHttpClientConfiguration().accountsHttpClientBuilder()
+            .setConnectionManager(connectionManager)
+            .build();
+        feignClient = new ApacheHttpClient(httpClient);
+    }
+    api = Feign.builder()
+        .client(feignClient)
+        .target(AccountsApi.class, "http://localhost:" + server.getAddress().getPort());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    if (httpClient != null) {
+      httpClient.close();
+    }
+    server.stop(0);
+    serverExecutor.shutdown();
+  }
+
+  @Benchmark
+  public String createNewAccount() {
+    return api.createNewAccount(BODY);
+  }
+}
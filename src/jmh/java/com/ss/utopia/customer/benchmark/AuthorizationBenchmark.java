@@ -0,0 +1,140 @@
+package com.ss.utopia.customer.benchmark;
+
+import com.ss.utopia.customer.controller.CustomerController;
+import com.ss.utopia.customer.security.JwtPrincipal;
+import com.ss.utopia.customer.security.PermissionMetadataSource;
+import com.ss.utopia.customer.security.PermissionVoter;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdviceVoter;
+import org.springframework.security.access.prepost.PrePostAnnotationSecurityMetadataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+/**
+ * Cost of the method security decision for {@code GET /customers/{customerId}} by the owning
+ * customer, the path that evaluates every part of the rule. Compares the compiled permission rule
+ * against the SpEL expression it replaced, both with their attributes already resolved as the
+ * method security infrastructure caches them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthorizationBenchmark {
+
+  private Authentication customer;
+  private Authentication employee;
+
+  private PermissionVoter compiledVoter;
+  private MethodInvocation compiledInvocation;
+  private Collection<ConfigAttribute> compiledAttributes;
+
+  private PreInvocationAuthorizationAdviceVoter spelVoter;
+  private MethodInvocation spelInvocation;
+  private Collection<ConfigAttribute> spelAttributes;
+
+  @Setup
+  public void setup() throws Exception {
+    var customerId = UUID.randomUUID();
+    customer = authentication(customerId, "ROLE_CUSTOMER");
+    employee = authentication(UUID.randomUUID(), "ROLE_EMPLOYEE");
+
+    Method compiledMethod = CustomerController.class.getMethod("getCustomerById", UUID.class);
+    compiledVoter = new PermissionVoter();
+    compiledAttributes = new PermissionMetadataSource()
+        .getAttributes(compiledMethod, CustomerController.class);
+    compiledInvocation = new SimpleMethodInvocation(null, compiledMethod, customerId);
+
+    var context = new GenericApplicationContext();
+    context.registerBean("customerAuthenticationManager", SpelCustomerMatcher.class);
+    context.refresh();
+    var expressionHandler = new DefaultMethodSecurityExpressionHandler();
+    expressionHandler.setApplicationContext(context);
+    var advice = new ExpressionBasedPreInvocationAdvice();
+    advice.setExpressionHandler(expressionHandler);
+
+    Method spelMethod = SpelEndpoints.class.getMethod("getCustomerById", UUID.class);
+    spelVoter = new PreInvocationAuthorizationAdviceVoter(advice);
+    spelAttributes = new PrePostAnnotationSecurityMetadataSource(
+        new ExpressionBasedAnnotationAttributeFactory(expressionHandler))
+        .getAttributes(spelMethod, SpelEndpoints.class);
+    spelInvocation = new SimpleMethodInvocation(new SpelEndpoints(), spelMethod, customerId);
+  }
+
+  private static Authentication authentication(UUID userId, String role) {
+    return new UsernamePasswordAuthenticationToken(new JwtPrincipal(userId, "user@test.com"),
+                                                   null,
+                                                   List.of(new SimpleGrantedAuthority(role)));
+  }
+
+  @Benchmark
+  public int compiledOwningCustomer() {
+    return compiledVoter.vote(customer, compiledInvocation, compiledAttributes);
+  }
+
+  @Benchmark
+  public int spelOwningCustomer() {
+    return spelVoter.vote(customer, spelInvocation, spelAttributes);
+  }
+
+  @Benchmark
+  public int compiledEmployee() {
+    return compiledVoter.vote(employee, compiledInvocation, compiledAttributes);
+  }
+
+  @Benchmark
+  public int spelEmployee() {
+    return spelVoter.vote(employee, spelInvocation, spelAttributes);
+  }
+
+  /**
+   * The rule as it was declared before being compiled.
+   */
+  public static class SpelEndpoints {
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAVEL_AGENT', 'EMPLOYEE')"
+        + " OR @customerAuthenticationManager.customerIdMatches(authentication, #customerId)")
+    public void getCustomerById(UUID customerId) {
+    }
+  }
+
+  /**
+   * The bean the SpEL rule called, with its cast-and-catch principal check.
+   */
+  public static class SpelCustomerMatcher {
+
+    public boolean customerIdMatches(Authentication authentication, UUID id) {
+      try {
+        var principal = (JwtPrincipal) authentication.getPrincipal();
+        return principal.getUserId().equals(id);
+      } catch (ClassCastException ex) {
+        return false;
+      }
+    }
+  }
+}
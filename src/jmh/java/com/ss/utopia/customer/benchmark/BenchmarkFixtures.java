@@ -0,0 +1,74 @@
+package com.ss.utopia.customer.benchmark;
+
+import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.UpdateCustomerDto;
+import com.ss.utopia.customer.entity.Address;
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.entity.PaymentMethod;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Representative records shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {
+  }
+
+  static CreateCustomerDto createCustomerDto(String email) {
+    return CreateCustomerDto.builder()
+        .firstName("Eddy")
+        .lastName("Grant")
+        .email(email)
+        .password("abCD1234!@")
+        .phoneNumber("420-420-6969")
+        .addrLine1("2 Electric Ave.")
+        .addrLine2("Suite HI-R")
+        .city("Las Vegas")
+        .state("NV")
+        .zipcode("69420")
+        .build();
+  }
+
+  static UpdateCustomerDto updateCustomerDto(String email) {
+    return UpdateCustomerDto.builder()
+        .firstName("Eddy")
+        .lastName("Grant")
+        .email(email)
+        .phoneNumber("420-420-6969")
+        .addrLine1("2 Electric Ave.")
+        .addrLine2("Suite HI-R")
+        .city("Las Vegas")
+        .state("NV")
+        .zipcode("69420")
+        .build();
+  }
+
+  static Customer customer(String email) {
+    var id = UUID.randomUUID();
+    var paymentMethods = new HashSet<PaymentMethod>();
+    paymentMethods.add(PaymentMethod.builder()
+                           .ownerId(id)
+                           .accountNum("123456789")
+                           .notes("primary")
+                           .build());
+    return Customer.builder()
+        .id(id)
+        .firstName("Eddy")
+        .lastName("Grant")
+        .email(email)
+        .phoneNumber("420-420-6969")
+        .addresses(new HashSet<>(Set.of(Address.builder()
+                                            .cardinality(1)
+                                            .line1("2 Electric Ave.")
+                                            .line2("Suite HI-R")
+                                            .city("Las Vegas")
+                                            .state("NV")
+                                            .zipcode("69420")
+                                            .build())))
+        .paymentMethods(paymentMethods)
+        .build();
+  }
+}
@@ -0,0 +1,48 @@
+package com.ss.utopia.customer.benchmark;
+
+import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.UpdateCustomerDto;
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.mapper.CustomerDtoMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CustomerDtoMapperBenchmark {
+
+  private CreateCustomerDto createDto;
+  private UpdateCustomerDto updateDto;
+  private Customer customer;
+
+  @Setup
+  public void setup() {
+    createDto = BenchmarkFixtures.createCustomerDto("eddy_grant@test.com");
+    updateDto = BenchmarkFixtures.updateCustomerDto("eddy_grant@test.com");
+    customer = BenchmarkFixtures.customer("eddy_grant@test.com");
+  }
+
+  @Benchmark
+  public Customer mapCreateDto() {
+    return CustomerDtoMapper.map(createDto);
+  }
+
+  @Benchmark
+  public boolean applyUpdateDto() {
+    return CustomerDtoMapper.updateProfile(customer, updateDto)
+        | CustomerDtoMapper.updateAddress(customer, updateDto);
+  }
+}
@@ -0,0 +1,115 @@
+package com.ss.utopia.customer.benchmark;
+
+import com.ss.utopia.customer.CustomerApplication;
+import com.ss.utopia.customer.cache.CustomerCache;
+import com.ss.utopia.customer.dto.CustomerPageDto;
+import com.ss.utopia.customer.dto.PaymentMethodDto;
+import com.ss.utopia.customer.dto.UpdateCustomerLoyaltyDto;
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.repository.CustomerRepository;
+import com.ss.utopia.customer.service.CustomerService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * {@link CustomerService} read and write paths through the full application context against the
+ * embedded H2 database configured for tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CustomerServiceBenchmark {
+
+  private static final int CUSTOMERS = 1_000;
+
+  private ConfigurableApplicationContext context;
+  private CustomerService service;
+  private CustomerCache customerCache;
+  private List<UUID> ids;
+
+  @Setup
+  public void setup() {
+    context = new SpringApplicationBuilder(CustomerApplication.class)
+        // security configuration requires the servlet context, on any free port
+        .properties("server.port=0", "spring.main.banner-mode=off")
+        .run();
+    service = context.getBean(CustomerService.class);
+    customerCache = context.getBean(CustomerCache.class);
+
+    var repository = context.getBean(CustomerRepository.class);
+    ids = new ArrayList<>(CUSTOMERS);
+    for (var i = 0; i < CUSTOMERS; i++) {
+      ids.add(repository.save(BenchmarkFixtures.customer("customer" + i + "@test.com")).getId());
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  private UUID randomId() {
+    return ids.get(ThreadLocalRandom.current().nextInt(CUSTOMERS));
+  }
+
+  @Benchmark
+  public Customer getCustomerByIdCached() {
+    return service.getCustomerById(ids.get(0));
+  }
+
+  @Benchmark
+  public Customer getCustomerByIdUncached() {
+    var id = randomId();
+    customerCache.evict(id);
+    return service.getCustomerById(id);
+  }
+
+  @Benchmark
+  public CustomerPageDto getCustomerPage() {
+    return service.getCustomerPage(null, 100);
+  }
+
+  @Benchmark
+  public Integer getCustomerLoyaltyPoints() {
+    var id = randomId();
+    customerCache.evict(id);
+    return service.getCustomerLoyaltyPoints(id);
+  }
+
+  @Benchmark
+  public Integer updateCustomerLoyaltyPoints() {
+    return service.updateCustomerLoyaltyPoints(randomId(), UpdateCustomerLoyaltyDto.builder()
+        .pointsToChange(1)
+        .increment(true)
+        .build());
+  }
+
+  @Benchmark
+  public Long addAndRemovePaymentMethod() {
+    var id = randomId();
+    var paymentId = service.addPaymentMethod(id, PaymentMethodDto.builder()
+        .accountNum("987654321")
+        .build());
+    service.removePaymentMethod(id, paymentId);
+    return paymentId;
+  }
+}
@@ -0,0 +1,88 @@
+package com.ss.utopia.customer.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.ss.utopia.customer.security.JwtAuthenticationCache;
+import com.ss.utopia.customer.security.JwtAuthenticationCacheConfiguration;
+import com.ss.utopia.customer.security.JwtAuthenticationVerificationFilter;
+import com.ss.utopia.customer.security.SecurityConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Cost of authenticating a request with a reused token through the filter, against verifying the
+ * token from scratch as every request did before verified tokens were cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtVerificationBenchmark {
+
+  private static final String SECRET = "benchmarkSecret";
+
+  private JwtAuthenticationVerificationFilter filter;
+  private String header;
+  private String token;
+
+  @Setup
+  public void setup() {
+    var securityConstants = new SecurityConstants();
+    securityConstants.setJwtSecret(SECRET);
+    securityConstants.setJwtHeaderName("Authorization");
+    securityConstants.setJwtHeaderPrefix("Bearer ");
+    securityConstants.setAuthorityClaimKey("Authorities");
+    securityConstants.setUserIdClaimKey("userId");
+
+    var cache = new JwtAuthenticationCache(new JwtAuthenticationCacheConfiguration(),
+                                           new SimpleMeterRegistry());
+    filter = new JwtAuthenticationVerificationFilter(authentication -> authentication,
+                                                     securityConstants,
+                                                     cache,
+                                                     new SimpleMeterRegistry());
+    token = JWT.create()
+        .withSubject("eddy_grant@test.com")
+        .withClaim("userId", UUID.randomUUID().toString())
+        .withClaim("Authorities", List.of("ROLE_CUSTOMER"))
+        .withExpiresAt(Date.from(Instant.now().plusSeconds(3600)))
+        .sign(Algorithm.HMAC512(SECRET));
+    header = "Bearer " + token;
+  }
+
+  @Benchmark
+  public Authentication filterReusedToken() throws Exception {
+    var request = new MockHttpServletRequest();
+    request.addHeader("Authorization", header);
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    var authentication = SecurityContextHolder.getContext().getAuthentication();
+    SecurityContextHolder.clearContext();
+    return authentication;
+  }
+
+  @Benchmark
+  public DecodedJWT verifyWithNewVerifier() {
+    return JWT.require(Algorithm.HMAC512(SECRET)).build().verify(token);
+  }
+}
@@ -0,0 +1,145 @@
+package com.ss.utopia.customer.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.ss.utopia.customer.logging.AccessLogConfiguration;
+import com.ss.utopia.customer.logging.AccessLogFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Time and allocation per request of the request logging, reported by the {@code gc} profiler as
+ * {@code gc.alloc.rate.norm}.
+ *
+ * <ul>
+ *   <li>{@code perRequestInfo}: a handler's concatenated INFO line written synchronously, as every
+ *   handler did before.</li>
+ *   <li>{@code parameterizedDebug}: the handler's parameterized DEBUG line with DEBUG off.</li>
+ *   <li>{@code sampledAccessLog}: a request through the {@link AccessLogFilter} at its default
+ *   sample rate, writing through an async appender.</li>
+ *   <li>{@code concatenatedFieldDebug} and {@code parameterizedFieldDebug}: the validation error
+ *   DEBUG line with DEBUG off, before and after.</li>
+ * </ul>
+ *
+ * <p>Events are formatted with Spring Boot's console pattern into a discarding stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoggingBenchmark {
+
+  private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %5p 1 --- [%15.15t] "
+      + "%-40.40logger{39} : %m%n";
+  private static final FilterChain HANDLER = (request, response) -> { };
+
+  private final UUID customerId = UUID.randomUUID();
+  private String field = "email";
+  private String message = "Invalid email.";
+
+  private Logger handlerLogger;
+  private Logger accessLogger;
+  private Appender<ILoggingEvent> syncAppender;
+  private AsyncAppender asyncAppender;
+  private AccessLogFilter accessLogFilter;
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+
+  @Setup
+  public void setup() {
+    var context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    syncAppender = discardingAppender(context);
+
+    var asyncTarget = discardingAppender(context);
+    asyncAppender = new AsyncAppender();
+    asyncAppender.setContext(context);
+    asyncAppender.setQueueSize(8192);
+    asyncAppender.setNeverBlock(true);
+    asyncAppender.addAppender(asyncTarget);
+    asyncAppender.start();
+
+    handlerLogger = context.getLogger("com.ss.utopia.customer.controller.CustomerController");
+    handlerLogger.setLevel(Level.INFO);
+    handlerLogger.setAdditive(false);
+    handlerLogger.addAppender(syncAppender);
+
+    accessLogger = context.getLogger(AccessLogFilter.LOGGER);
+    accessLogger.setLevel(Level.INFO);
+    accessLogger.setAdditive(false);
+    accessLogger.addAppender(asyncAppender);
+
+    accessLogFilter = new AccessLogFilter(new AccessLogConfiguration());
+    request = new MockHttpServletRequest("GET", "/api/v0.1/customers/" + customerId);
+    response = new MockHttpServletResponse();
+  }
+
+  @TearDown
+  public void tearDown() {
+    handlerLogger.detachAndStopAllAppenders();
+    accessLogger.detachAndStopAllAppenders();
+  }
+
+  @Benchmark
+  public void perRequestInfo() {
+    handlerLogger.info("GET Customer id=" + customerId);
+  }
+
+  @Benchmark
+  public void parameterizedDebug() {
+    handlerLogger.debug("GET Customer id={}", customerId);
+  }
+
+  @Benchmark
+  public void sampledAccessLog() throws IOException, ServletException {
+    accessLogFilter.doFilter(request, response, HANDLER);
+  }
+
+  @Benchmark
+  public void concatenatedFieldDebug() {
+    handlerLogger.debug("Field" + field + " Message: " + message);
+  }
+
+  @Benchmark
+  public void parameterizedFieldDebug() {
+    handlerLogger.debug("Field {} Message: {}", field, message);
+  }
+
+  private static Appender<ILoggingEvent> discardingAppender(LoggerContext context) {
+    var encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern(PATTERN);
+    encoder.start();
+    var appender = new OutputStreamAppender<ILoggingEvent>();
+    appender.setContext(context);
+    appender.setEncoder(encoder);
+    appender.setOutputStream(OutputStream.nullOutputStream());
+    appender.start();
+    return appender;
+  }
+}
@@ -0,0 +1,119 @@
+package com.ss.utopia.customer.benchmark;
+
+import com.ss.utopia.customer.CustomerApplication;
+import com.ss.utopia.customer.cache.SecondLevelCacheConfiguration;
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.repository.CustomerRepository;
+import com.ss.utopia.customer.service.CustomerService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Database load of {@link CustomerService} reads with and without the
+ * {@value SecondLevelCacheConfiguration#PROFILE} profile, against the embedded H2 database
+ * configured for tests.
+ *
+ * <p>The in-process {@link com.ss.utopia.customer.cache.CustomerCache} is disabled so every read
+ * reaches Hibernate. Besides operations per millisecond, the {@code statements} counter reports
+ * the JDBC statements prepared per millisecond, so statements per read is their ratio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SecondLevelCacheBenchmark {
+
+  private static final int CUSTOMERS = 1_000;
+
+  @Param({"default", SecondLevelCacheConfiguration.PROFILE})
+  public String profile;
+
+  private ConfigurableApplicationContext context;
+  private CustomerService service;
+  private Statistics statistics;
+  private List<UUID> ids;
+
+  @Setup
+  public void setup() {
+    var builder = new SpringApplicationBuilder(CustomerApplication.class)
+        // security configuration requires the servlet context, on any free port
+        .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=warn",
+                    "com.ss.utopia.customer.cache.maximum-size=0",
+                    // counted in both modes, so both pay for the statistics
+                    "spring.jpa.properties.hibernate.generate_statistics=true");
+    if (!"default".equals(profile)) {
+      builder.profiles(profile);
+    }
+    context = builder.run();
+    service = context.getBean(CustomerService.class);
+    statistics = context.getBean(EntityManagerFactory.class)
+        .unwrap(SessionFactory.class)
+        .getStatistics();
+
+    var repository = context.getBean(CustomerRepository.class);
+    ids = new ArrayList<>(CUSTOMERS);
+    for (var i = 0; i < CUSTOMERS; i++) {
+      ids.add(repository.save(BenchmarkFixtures.customer(email(i))).getId());
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  private static String email(int i) {
+    return "customer" + i + "@test.com";
+  }
+
+  @Benchmark
+  public Customer getCustomerById(DatabaseLoad load) {
+    var before = statistics.getPrepareStatementCount();
+    var id = ids.get(ThreadLocalRandom.current().nextInt(CUSTOMERS));
+    var customer = service.getCustomerById(id);
+    load.statements += statistics.getPrepareStatementCount() - before;
+    return customer;
+  }
+
+  @Benchmark
+  public Customer getCustomerByEmail(DatabaseLoad load) {
+    var before = statistics.getPrepareStatementCount();
+    var email = email(ThreadLocalRandom.current().nextInt(CUSTOMERS));
+    var customer = service.getCustomerByEmail(email);
+    load.statements += statistics.getPrepareStatementCount() - before;
+    return customer;
+  }
+
+  /**
+   * JDBC statements prepared by the benchmark thread.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class DatabaseLoad {
+
+    public long statements;
+  }
+}
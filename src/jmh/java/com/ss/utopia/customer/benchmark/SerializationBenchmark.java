@@ -0,0 +1,50 @@
+package com.ss.utopia.customer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ss.utopia.customer.entity.Customer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON against XML serialization of a {@link Customer}, using mappers configured the same way as
+ * the ones backing the HTTP message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+  private ObjectMapper jsonMapper;
+  private ObjectMapper xmlMapper;
+  private Customer customer;
+
+  @Setup
+  public void setup() {
+    jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+    customer = BenchmarkFixtures.customer("eddy_grant@test.com");
+  }
+
+  @Benchmark
+  public byte[] json() throws Exception {
+    return jsonMapper.writeValueAsBytes(customer);
+  }
+
+  @Benchmark
+  public byte[] xml() throws Exception {
+    return xmlMapper.writeValueAsBytes(customer);
+  }
+}
@@ -0,0 +1,62 @@
+package com.ss.utopia.customer.benchmark;
+
+import com.ss.utopia.customer.dto.CreateCustomerDto;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bean Validation of a {@link CreateCustomerDto}, dominated by the password pattern.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ValidationBenchmark {
+
+  private ValidatorFactory validatorFactory;
+  private Validator validator;
+  private CreateCustomerDto valid;
+  private CreateCustomerDto invalidPassword;
+
+  @Setup
+  public void setup() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    validator = validatorFactory.getValidator();
+    valid = BenchmarkFixtures.createCustomerDto("eddy_grant@test.com");
+    invalidPassword = BenchmarkFixtures.createCustomerDto("eddy_grant@test.com");
+    // long enough to pass the size check and exercise the full pattern
+    invalidPassword.setPassword("abcdefghijklmnopqrstuvwxyz0123456789abcdefghijklmnopqrstuvwxyz");
+  }
+
+  @TearDown
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<CreateCustomerDto>> validDto() {
+    return validator.validate(valid);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<CreateCustomerDto>> invalidPassword() {
+    return validator.validate(invalidPassword);
+  }
+}
@@ -0,0 +1,257 @@
+package com.ss.utopia.customer.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ss.utopia.customer.entity.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded in-process cache of {@link Customer} records for the read by ID and read by email paths.
+ *
+ * <p>Customers are indexed by ID, with a separate email to ID index so a lookup by email resolves
+ * to the same cached record. The email index is keyed by the email normalized with
+ * {@link Customer#normalizeEmail(String)}, so lookups differing only in case share an entry.
+ * Entries expire after the configured time to live and are evicted by size. Hit, miss and
+ * eviction counts are published to the {@link MeterRegistry} under the {@code cache.*} meters
+ * for the {@value #BY_ID} and {@value #BY_EMAIL} caches.
+ *
+ * <p>Cached records are shared between callers and must not be modified. Callers that change a
+ * customer are responsible for evicting it with {@link #evict(UUID, String...)}. Reads of an
+ * evicted customer are not cached for the configured time after, so a read from a lagging replica
+ * cannot cache the record as it was before the change.
+ */
+@Component
+public class CustomerCache {
+
+  public static final String BY_ID = "customers.by-id";
+  public static final String BY_EMAIL = "customers.by-email";
+
+  private final Cache<UUID, Customer> byId;
+  private final Cache<String, UUID> byEmail;
+  private final Cache<UUID, Boolean> recentlyEvicted;
+
+  public CustomerCache(CustomerCacheConfiguration configuration, MeterRegistry meterRegistry) {
+    byId = Caffeine.newBuilder()
+        .maximumSize(configuration.getMaximumSize())
+        .expireAfterWrite(configuration.getTimeToLive())
+        .recordStats()
+        .build();
+    byEmail = Caffeine.newBuilder()
+        .maximumSize(configuration.getMaximumSize())
+        .expireAfterWrite(configuration.getTimeToLive())
+        .recordStats()
+        .build();
+    recentlyEvicted = configuration.getUncachedAfterEviction().isZero()
+        ? null
+        : Caffeine.newBuilder()
+            .maximumSize(configuration.getMaximumSize())
+            .expireAfterWrite(configuration.getUncachedAfterEviction())
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, byId, BY_ID);
+    CaffeineCacheMetrics.monitor(meterRegistry, byEmail, BY_EMAIL);
+  }
+
+  /**
+   * Gets a customer by ID, loading and caching it on a miss.
+   *
+   * <p>Concurrent misses for the same ID share a single load. Absent records are not cached.
+   *
+   * @param id     the customer ID.
+   * @param loader loads the customer on a miss.
+   * @return the cached or loaded customer if present.
+   */
+  public Optional<Customer> getById(UUID id, Function<UUID, Optional<Customer>> loader) {
+    if (isRecentlyEvicted(id)) {
+      return loader.apply(id).map(this::prepare);
+    }
+    var customer = byId.get(id, key -> loader.apply(key)
+        .map(this::prepare)
+        .orElse(null));
+    if (customer != null && customer.getEmail() != null) {
+      byEmail.put(Customer.normalizeEmail(customer.getEmail()), customer.getId());
+    }
+    return Optional.ofNullable(customer);
+  }
+
+  /**
+   * Gets a customer by ID only if already cached.
+   *
+   * @param id the customer ID.
+   * @return the cached customer if present.
+   */
+  public Optional<Customer> getIfPresent(UUID id) {
+    return Optional.ofNullable(byId.getIfPresent(id));
+  }
+
+  /**
+   * Gets a customer by email, loading and caching it on a miss.
+   *
+   * @param email  the customer email, in any case.
+   * @param loader loads the customer by normalized email on a miss.
+   * @return the cached or loaded customer if present.
+   */
+  public Optional<Customer> getByEmail(String email, Function<String, Optional<Customer>> loader) {
+    var normalizedEmail = Customer.normalizeEmail(email);
+    var id = byEmail.getIfPresent(normalizedEmail);
+    if (id != null) {
+      var cached = byId.getIfPresent(id);
+      if (isIndexedBy(cached, normalizedEmail)) {
+        return Optional.of(cached);
+      }
+    }
+
+    var customer = loader.apply(normalizedEmail).map(this::prepare);
+    customer.filter(c -> !isRecentlyEvicted(c.getId())).ifPresent(c -> {
+      byId.put(c.getId(), c);
+      byEmail.put(normalizedEmail, c.getId());
+    });
+    return customer;
+  }
+
+  /**
+   * Gets customers by ID, loading all misses with a single call to the loader and caching them.
+   *
+   * @param ids    the customer IDs.
+   * @param loader loads the customers with the IDs that were not cached.
+   * @return the cached or loaded customers by ID, without entries for IDs not found.
+   */
+  public Map<UUID, Customer> getAllById(Collection<UUID> ids,
+                                        Function<Set<UUID>, List<Customer>> loader) {
+    var found = new HashMap<>(byId.getAllPresent(ids));
+    var missing = new HashSet<UUID>();
+    for (var id : ids) {
+      if (!found.containsKey(id)) {
+        missing.add(id);
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      for (var customer : loader.apply(missing)) {
+        var prepared = prepare(customer);
+        found.put(prepared.getId(), prepared);
+        if (!isRecentlyEvicted(prepared.getId())) {
+          byId.put(prepared.getId(), prepared);
+        }
+      }
+    }
+    found.values().stream()
+        .filter(customer -> customer.getEmail() != null)
+        .filter(customer -> !isRecentlyEvicted(customer.getId()))
+        .forEach(customer -> byEmail.put(Customer.normalizeEmail(customer.getEmail()),
+                                         customer.getId()));
+    return found;
+  }
+
+  /**
+   * Gets customers by email, loading all misses with a single call to the loader and caching
+   * them.
+   *
+   * @param emails the customer emails, in any case.
+   * @param loader loads the customers with the normalized emails that were not cached.
+   * @return the cached or loaded customers by normalized email, without entries for emails not
+   *         found.
+   */
+  public Map<String, Customer> getAllByEmail(Collection<String> emails,
+                                             Function<Set<String>, List<Customer>> loader) {
+    var found = new HashMap<String, Customer>();
+    var missing = new HashSet<String>();
+    for (var email : emails) {
+      var normalizedEmail = Customer.normalizeEmail(email);
+      var id = byEmail.getIfPresent(normalizedEmail);
+      var cached = id == null ? null : byId.getIfPresent(id);
+      if (isIndexedBy(cached, normalizedEmail)) {
+        found.put(normalizedEmail, cached);
+      } else {
+        missing.add(normalizedEmail);
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      for (var customer : loader.apply(missing)) {
+        var prepared = prepare(customer);
+        var normalizedEmail = Customer.normalizeEmail(prepared.getEmail());
+        if (!isRecentlyEvicted(prepared.getId())) {
+          byId.put(prepared.getId(), prepared);
+          byEmail.put(normalizedEmail, prepared.getId());
+        }
+        found.put(normalizedEmail, prepared);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Evicts a customer and any of the given emails from the cache.
+   *
+   * @param id     the customer ID.
+   * @param emails emails that may be indexed to the customer, such as the old and new email on an
+   *               update.
+   */
+  public void evict(UUID id, String... emails) {
+    var cached = byId.getIfPresent(id);
+    if (cached != null && cached.getEmail() != null) {
+      byEmail.invalidate(Customer.normalizeEmail(cached.getEmail()));
+    }
+    for (var email : emails) {
+      if (email != null) {
+        byEmail.invalidate(Customer.normalizeEmail(email));
+      }
+    }
+    byId.invalidate(id);
+    if (recentlyEvicted != null) {
+      recentlyEvicted.put(id, Boolean.TRUE);
+    }
+  }
+
+  /**
+   * Evicts as with {@link #evict(UUID, String...)}, deferred until the current transaction
+   * completes so a concurrent read cannot re-cache the uncommitted state. Evicts immediately if
+   * no transaction is active.
+   */
+  public void evictAfterCommit(UUID id, String... emails) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      evict(id, emails);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        evict(id, emails);
+      }
+    });
+  }
+
+  private boolean isRecentlyEvicted(UUID id) {
+    return recentlyEvicted != null && recentlyEvicted.getIfPresent(id) != null;
+  }
+
+  /**
+   * Guards against an email index entry left over from an email change.
+   */
+  private static boolean isIndexedBy(Customer cached, String normalizedEmail) {
+    return cached != null && normalizedEmail.equals(Customer.normalizeEmail(cached.getEmail()));
+  }
+
+  /**
+   * Initializes lazy associations so the record can be serialized once detached.
+   */
+  private Customer prepare(Customer customer) {
+    Hibernate.initialize(customer.getAddresses());
+    Hibernate.initialize(customer.getPaymentMethods());
+    return customer;
+  }
+}
@@ -0,0 +1,31 @@
+package com.ss.utopia.customer.cache;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.cache")
+public class CustomerCacheConfiguration {
+
+  /**
+   * Maximum number of customers held. Setting to 0 effectively disables caching.
+   */
+  @Getter @Setter
+  private long maximumSize = 10_000;
+
+  /**
+   * Time after being written that an entry is expired.
+   */
+  @Getter @Setter
+  private Duration timeToLive = Duration.ofMinutes(5);
+
+  /**
+   * Time after a customer is evicted during which reads of it are not cached, as they may come
+   * from a read replica that has not applied the change yet. 0 caches them right away.
+   */
+  @Getter @Setter
+  private Duration uncachedAfterEviction = Duration.ZERO;
+}
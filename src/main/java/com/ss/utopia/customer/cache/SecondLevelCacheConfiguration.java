@@ -0,0 +1,112 @@
+package com.ss.utopia.customer.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.ss.utopia.customer.entity.Address;
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.entity.PaymentMethod;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Second-level Hibernate cache for customers with their addresses and payment methods, with a
+ * query cache for the lookups by ID and by email.
+ *
+ * <p>Only active with the {@value #PROFILE} profile, which turns the cache on in
+ * application-l2-cache.properties. Each region is a Caffeine cache created up front through its
+ * JCache provider, bounded by size and expired after the configured time to live, so Hibernate
+ * fails to start on a region missing here rather than creating an unbounded one. Cached entries
+ * are shared by reference, Hibernate only caches its own immutable copies.
+ *
+ * <p>The cache is local to each instance and only invalidated by that instance's writes, so with
+ * several instances reads may be served a record behind the database for up to the time to live.
+ * Customers loaded for modification are read from the database instead.
+ *
+ * <p>The profile also enables Hibernate statistics, published under the {@code hibernate.*}
+ * meters: cache hits, misses and puts by region as {@code hibernate.second.level.cache.*} and
+ * {@code hibernate.query.cache.*}, and the statements sent to the database as
+ * {@code hibernate.statements}.
+ */
+@Configuration
+@Profile(SecondLevelCacheConfiguration.PROFILE)
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.l2-cache")
+public class SecondLevelCacheConfiguration {
+
+  public static final String PROFILE = "l2-cache";
+
+  /**
+   * Maximum number of records held per entity region.
+   */
+  @Getter @Setter
+  private long entityMaximumSize = 10_000;
+
+  /**
+   * Maximum number of collections held per collection region.
+   */
+  @Getter @Setter
+  private long collectionMaximumSize = 10_000;
+
+  /**
+   * Maximum number of query results held.
+   */
+  @Getter @Setter
+  private long queryMaximumSize = 10_000;
+
+  /**
+   * Time after being written that an entry is expired. Bounds how long a change made to the
+   * database by anything other than this instance, other instances of this service included, goes
+   * unnoticed by cached reads.
+   */
+  @Getter @Setter
+  private Duration timeToLive = Duration.ofMinutes(10);
+
+  @Bean(destroyMethod = "close")
+  public CacheManager secondLevelCacheManager() {
+    var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    // a manager of its own rather than the provider default, shared by every context in the JVM
+    var cacheManager = provider.getCacheManager(URI.create("l2-cache:" + UUID.randomUUID()),
+                                                getClass().getClassLoader());
+
+    createRegion(cacheManager, Customer.CACHE_REGION, entityMaximumSize);
+    createRegion(cacheManager, Address.CACHE_REGION, entityMaximumSize);
+    createRegion(cacheManager, PaymentMethod.CACHE_REGION, entityMaximumSize);
+    createRegion(cacheManager, Customer.ADDRESSES_CACHE_REGION, collectionMaximumSize);
+    createRegion(cacheManager, Customer.PAYMENT_METHODS_CACHE_REGION, collectionMaximumSize);
+    createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                 queryMaximumSize);
+
+    // one entry per table, evicting one would let stale query results be served
+    var timestamps = new CaffeineConfiguration<>();
+    timestamps.setStoreByValue(false);
+    cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                             timestamps);
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(
+      CacheManager secondLevelCacheManager) {
+    return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+  }
+
+  private void createRegion(CacheManager cacheManager, String name, long maximumSize) {
+    var configuration = new CaffeineConfiguration<>();
+    configuration.setStoreByValue(false);
+    configuration.setMaximumSize(OptionalLong.of(maximumSize));
+    configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+    cacheManager.createCache(name, configuration);
+  }
+}
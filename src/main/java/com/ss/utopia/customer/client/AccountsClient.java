@@ -15,9 +15,18 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 
-@FeignClient("utopia-auth-service")
+/**
+ * Accounts service API.
+ *
+ * <p>The Feign client is registered under {@value #FEIGN_QUALIFIER} and is not injected directly,
+ * callers receive the {@link ResilientAccountsClient} guarding it.
+ */
+@FeignClient(value = "utopia-auth-service", qualifier = AccountsClient.FEIGN_QUALIFIER,
+    primary = false)
 public interface AccountsClient {
 
+  String FEIGN_QUALIFIER = "feignAccountsClient";
+
   @PostMapping(value = "/login")
   ResponseEntity<String> login(@RequestBody AuthenticationRequest authenticationRequest);
 
@@ -0,0 +1,123 @@
+package com.ss.utopia.customer.client;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.accounts-client")
+public class AccountsClientConfiguration {
+
+  /**
+   * Bulkhead and retry limits by operation. Each operation is isolated, so a slow operation only
+   * degrades the endpoints calling it.
+   */
+  @Getter @Setter
+  private Map<Operation, OperationLimits> operations = defaultOperations();
+
+  /**
+   * Percentage of failed or slow calls in the sliding window opening an operation's circuit.
+   */
+  @Getter @Setter
+  private float failureRateThreshold = 50;
+
+  /**
+   * Duration after which a call counts as slow.
+   */
+  @Getter @Setter
+  private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+  /**
+   * Percentage of slow calls in the sliding window opening an operation's circuit.
+   */
+  @Getter @Setter
+  private float slowCallRateThreshold = 80;
+
+  /**
+   * Number of most recent calls the failure and slow call rates are computed over.
+   */
+  @Getter @Setter
+  private int slidingWindowSize = 20;
+
+  /**
+   * Minimum number of calls before the rates are computed.
+   */
+  @Getter @Setter
+  private int minimumNumberOfCalls = 10;
+
+  /**
+   * Time an open circuit rejects calls before letting trial calls through.
+   */
+  @Getter @Setter
+  private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+  /**
+   * Number of trial calls through a half open circuit deciding whether it closes again.
+   */
+  @Getter @Setter
+  private int permittedCallsInHalfOpenState = 3;
+
+  /**
+   * Delay before the first retry, doubled for each further retry.
+   */
+  @Getter @Setter
+  private Duration retryBackoff = Duration.ofMillis(200);
+
+  /**
+   * Random spread of each retry delay, as a fraction of the delay, so callers failing together
+   * do not retry together.
+   */
+  @Getter @Setter
+  private double retryJitter = 0.5;
+
+  private static Map<Operation, OperationLimits> defaultOperations() {
+    var operations = new EnumMap<Operation, OperationLimits>(Operation.class);
+    operations.put(Operation.LOGIN, new OperationLimits(5, Duration.ofSeconds(1), 3));
+    // account creation is not idempotent, signups retry with their own bookkeeping
+    operations.put(Operation.CREATE_ACCOUNT, new OperationLimits(20, Duration.ZERO, 1));
+    operations.put(Operation.UPDATE_EMAIL, new OperationLimits(10, Duration.ZERO, 3));
+    operations.put(Operation.DELETION, new OperationLimits(10, Duration.ZERO, 3));
+    // confirming consumes the token, a retry after a lost response would fail on it
+    operations.put(Operation.COMPLETE_DELETION, new OperationLimits(10, Duration.ZERO, 1));
+    return operations;
+  }
+
+  /**
+   * Operations of the accounts service, each guarded separately.
+   */
+  public enum Operation {
+    LOGIN,
+    CREATE_ACCOUNT,
+    UPDATE_EMAIL,
+    DELETION,
+    COMPLETE_DELETION
+  }
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class OperationLimits {
+
+    /**
+     * Calls to the operation allowed in flight at once.
+     */
+    private int maxConcurrentCalls = 10;
+
+    /**
+     * Time a call waits for a free slot before failing fast.
+     */
+    private Duration maxWait = Duration.ZERO;
+
+    /**
+     * Attempts of a call, including the first, on server errors and I/O failures.
+     */
+    private int maxAttempts = 3;
+  }
+}
@@ -0,0 +1,81 @@
+package com.ss.utopia.customer.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pooled keep-alive HTTP client used by Feign for the {@link AccountsClient}.
+ *
+ * <p>Spring Cloud OpenFeign builds the client and its connection pool, sized by
+ * {@code feign.httpclient.*}. This provides the builder it starts from, which evicts idle
+ * connections before the server drops them and can compress larger request bodies. Feign applies
+ * its per-client timeouts to each request. Pool metrics are published under the
+ * {@code httpcomponents.httpclient.pool.*} meters for the {@value #POOL_NAME} pool.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.accounts-client.http")
+public class AccountsHttpClientConfiguration {
+
+  public static final String POOL_NAME = "accounts";
+
+  /**
+   * Time after which an idle pooled connection is closed. Should be below the server's
+   * keep-alive timeout so a request is never sent on a connection the server is closing.
+   */
+  @Getter @Setter
+  private Duration idleTimeout = Duration.ofSeconds(30);
+
+  /**
+   * Whether request bodies are gzip compressed. Only to be enabled once the accounts service
+   * accepts gzip request bodies.
+   */
+  @Getter @Setter
+  private boolean compressRequests = false;
+
+  /**
+   * Minimum size in bytes of a request body to compress.
+   */
+  @Getter @Setter
+  private int compressionMinSize = 2048;
+
+  /**
+   * Content types of request bodies to compress.
+   */
+  @Getter @Setter
+  private List<String> compressionMimeTypes = List.of("application/json", "text/plain");
+
+  /**
+   * Builder of the client, in place of the plain one Spring Cloud Commons provides. OpenFeign
+   * sets the connection manager and the default request configuration.
+   */
+  @Bean
+  public HttpClientBuilder accountsHttpClientBuilder() {
+    var builder = HttpClientBuilder.create()
+        .evictExpiredConnections()
+        .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    if (compressRequests) {
+      builder.addInterceptorFirst(new GzipRequestInterceptor(compressionMinSize,
+                                                             compressionMimeTypes));
+    }
+    return builder;
+  }
+
+  @Bean
+  public MeterBinder accountsConnectionPoolMetrics(
+      HttpClientConnectionManager connectionManager) {
+    // OpenFeign's pooling manager
+    return new PoolingHttpClientConnectionManagerMetricsBinder(
+        (PoolingHttpClientConnectionManager) connectionManager, POOL_NAME);
+  }
+}
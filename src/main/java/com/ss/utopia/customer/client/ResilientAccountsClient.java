@@ -0,0 +1,202 @@
+package com.ss.utopia.customer.client;
+
+import com.ss.utopia.customer.client.AccountsClientConfiguration.Operation;
+import com.ss.utopia.customer.client.AccountsClientConfiguration.OperationLimits;
+import com.ss.utopia.customer.client.authentication.AuthenticationRequest;
+import com.ss.utopia.customer.dto.CreateUserAccountDto;
+import com.ss.utopia.customer.dto.DeleteAccountDto;
+import com.ss.utopia.customer.exception.AccountsServiceUnavailableException;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link AccountsClient} guarding each accounts service operation with its own bulkhead, circuit
+ * breaker and retry.
+ *
+ * <p>Server errors, I/O failures and timeouts count against the circuit and are retried with
+ * jittered exponential backoff. Client errors are returned to the caller as they are. Calls
+ * rejected by an open circuit or a full bulkhead fail fast with
+ * {@link AccountsServiceUnavailableException}.
+ *
+ * <p>State is published to the {@link MeterRegistry} under the {@code resilience4j.*} meters,
+ * tagged with the operation name, such as {@code accounts.create-account}. Calls are timed as
+ * {@value #TIMER}, and Feign failures remaining after retries are counted as
+ * {@value #FAILURES}, both tagged with the operation and exception.
+ */
+@Slf4j
+@Primary
+@Component
+public class ResilientAccountsClient implements AccountsClient {
+
+  public static final String NAME_PREFIX = "accounts.";
+  public static final String TIMER = "accounts.client";
+  public static final String FAILURES = "accounts.client.failures";
+
+  private final AccountsClient delegate;
+  private final MeterRegistry meterRegistry;
+  private final Map<Operation, Guard> guards = new EnumMap<>(Operation.class);
+
+  public ResilientAccountsClient(@Qualifier(FEIGN_QUALIFIER) AccountsClient delegate,
+                                 AccountsClientConfiguration configuration,
+                                 MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.meterRegistry = meterRegistry;
+
+    var circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+        .failureRateThreshold(configuration.getFailureRateThreshold())
+        .slowCallDurationThreshold(configuration.getSlowCallDurationThreshold())
+        .slowCallRateThreshold(configuration.getSlowCallRateThreshold())
+        .slidingWindowSize(configuration.getSlidingWindowSize())
+        .minimumNumberOfCalls(configuration.getMinimumNumberOfCalls())
+        .waitDurationInOpenState(configuration.getWaitDurationInOpenState())
+        .permittedNumberOfCallsInHalfOpenState(configuration.getPermittedCallsInHalfOpenState())
+        .recordException(ResilientAccountsClient::isFailure)
+        .build());
+    var bulkheads = BulkheadRegistry.ofDefaults();
+    var retries = RetryRegistry.ofDefaults();
+    var backoff = IntervalFunction.ofExponentialRandomBackoff(configuration.getRetryBackoff(),
+                                                              2,
+                                                              configuration.getRetryJitter());
+
+    for (var operation : Operation.values()) {
+      var limits = configuration.getOperations()
+          .getOrDefault(operation, new OperationLimits());
+      var name = name(operation);
+      var bulkhead = bulkheads.bulkhead(name, BulkheadConfig.custom()
+          .maxConcurrentCalls(limits.getMaxConcurrentCalls())
+          .maxWaitDuration(limits.getMaxWait())
+          .build());
+      var retry = retries.retry(name, RetryConfig.custom()
+          .maxAttempts(limits.getMaxAttempts())
+          .intervalFunction(backoff)
+          .retryOnException(ResilientAccountsClient::isFailure)
+          .build());
+      guards.put(operation, new Guard(name, circuitBreakers.circuitBreaker(name), bulkhead, retry));
+    }
+
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+    TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    TaggedRetryMetrics.ofRetryRegistry(retries).bindTo(meterRegistry);
+  }
+
+  static String name(Operation operation) {
+    return NAME_PREFIX + operation.name().toLowerCase().replace('_', '-');
+  }
+
+  /**
+   * Only server errors and I/O failures, including timeouts, indicate the accounts service is
+   * unhealthy. Client errors, such as an expired service token, would fail again on a retry.
+   */
+  static boolean isFailure(Throwable ex) {
+    return ex instanceof FeignException.FeignServerException || ex instanceof RetryableException;
+  }
+
+  CircuitBreaker getCircuitBreaker(Operation operation) {
+    return guards.get(operation).circuitBreaker;
+  }
+
+  @Override
+  public ResponseEntity<String> login(AuthenticationRequest authenticationRequest) {
+    return call(Operation.LOGIN, () -> delegate.login(authenticationRequest));
+  }
+
+  @Override
+  public ResponseEntity<Void> updateCustomerEmail(String authorizationHeader, UUID customerId,
+                                                  String newEmail) {
+    return call(Operation.UPDATE_EMAIL,
+        () -> delegate.updateCustomerEmail(authorizationHeader, customerId, newEmail));
+  }
+
+  @Override
+  public ResponseEntity<UUID> createNewAccount(CreateUserAccountDto dto) {
+    return call(Operation.CREATE_ACCOUNT, () -> delegate.createNewAccount(dto));
+  }
+
+  @Override
+  public ResponseEntity<Void> initiateCustomerDeletion(String authorizationHeader,
+                                                       DeleteAccountDto deleteAccountDto) {
+    return call(Operation.DELETION,
+        () -> delegate.initiateCustomerDeletion(authorizationHeader, deleteAccountDto));
+  }
+
+  @Override
+  public ResponseEntity<UUID> completeCustomerDeletion(String authorizationHeader,
+                                                       UUID confirmationToken) {
+    return call(Operation.COMPLETE_DELETION,
+        () -> delegate.completeCustomerDeletion(authorizationHeader, confirmationToken));
+  }
+
+  private <T> T call(Operation operation, Supplier<T> call) {
+    var guard = guards.get(operation);
+    // retry outermost so backoff waits hold neither a bulkhead slot nor a half open trial
+    var guarded = Retry.decorateSupplier(guard.retry,
+        CircuitBreaker.decorateSupplier(guard.circuitBreaker,
+            Bulkhead.decorateSupplier(guard.bulkhead, call)));
+    var sample = Timer.start(meterRegistry);
+    var exception = "none";
+    try {
+      return guarded.get();
+    } catch (CallNotPermittedException | BulkheadFullException ex) {
+      exception = ex.getClass().getSimpleName();
+      log.warn("Accounts service call rejected: {}", ex.getMessage());
+      throw new AccountsServiceUnavailableException(guard.name, ex);
+    } catch (FeignException ex) {
+      exception = ex.getClass().getSimpleName();
+      Counter.builder(FAILURES)
+          .tags("operation", guard.name, "exception", exception,
+                "status", String.valueOf(ex.status()))
+          .register(meterRegistry)
+          .increment();
+      throw ex;
+    } catch (RuntimeException ex) {
+      exception = ex.getClass().getSimpleName();
+      throw ex;
+    } finally {
+      sample.stop(Timer.builder(TIMER)
+                      .tags("operation", guard.name, "exception", exception)
+                      .register(meterRegistry));
+    }
+  }
+
+  private static class Guard {
+
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+
+    Guard(String name, CircuitBreaker circuitBreaker, Bulkhead bulkhead, Retry retry) {
+      this.name = name;
+      this.circuitBreaker = circuitBreaker;
+      this.bulkhead = bulkhead;
+      this.retry = retry;
+    }
+  }
+}
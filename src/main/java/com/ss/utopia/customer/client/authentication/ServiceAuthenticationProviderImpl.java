@@ -5,46 +5,123 @@ import com.ss.utopia.customer.client.AccountsClient;
 import com.ss.utopia.customer.exception.AccountsClientException;
 import com.ss.utopia.customer.exception.AuthenticationFailureException;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+/**
+ * Provides the authorization header for service to service calls, logging in to the accounts
+ * service as needed.
+ *
+ * <p>Callers read an immutable snapshot of the current token. Concurrent refreshes share a single
+ * login. Each token is renewed in the background {@link #RENEW_BEFORE} ahead of its expiration,
+ * so callers only wait on a login for the first token or if renewal has failed until the token
+ * is within {@link #REFRESH_WINDOW} of expiring.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ServiceAuthenticationProviderImpl implements ServiceAuthenticationProvider {
 
+  static final Duration REFRESH_WINDOW = Duration.ofMinutes(5);
+  static final Duration RENEW_BEFORE = Duration.ofMinutes(10);
+  static final Duration RENEW_RETRY_DELAY = Duration.ofSeconds(30);
+
   private final AccountsClient accountsClient;
   private final ObjectMapper objectMapper;
   private final ServiceAuthenticationConfiguration serviceAuthenticationConfiguration;
-  private String authorizationHeader;
-  private ZonedDateTime expiration;
+  private final AtomicReference<CompletableFuture<AuthorizationToken>> inFlight =
+      new AtomicReference<>();
+  final ScheduledExecutorService renewalExecutor =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "service-authorization-renewal");
+        thread.setDaemon(true);
+        return thread;
+      });
+  volatile AuthorizationToken token;
+  private ScheduledFuture<?> scheduledRenewal;
 
   @Override
   public String getAuthorizationHeader() {
-    if (shouldRefresh()) {
-      refreshAuthorization();
+    var current = token;
+    if (current == null || current.expiresWithin(REFRESH_WINDOW)) {
+      current = awaitRefresh(current);
     }
-    return authorizationHeader;
-  }
-
-  private boolean shouldRefresh() {
-    return authorizationHeader == null
-        || expiration == null
-        || expiration.isBefore(ZonedDateTime.now().plusMinutes(5));
+    return current.header;
   }
 
   @Override
   public void refreshAuthorization() {
     log.info("Refreshing authorization.");
-    if (expiration != null && expiration.isAfter(ZonedDateTime.now().plusHours(1))) {
+    var current = token;
+    if (current != null && !current.expiresWithin(Duration.ofHours(1))) {
       log.warn("Authentication token is not expired.");
       return;
     }
+    awaitRefresh(current);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    renewalExecutor.shutdownNow();
+  }
+
+  private AuthorizationToken awaitRefresh(AuthorizationToken observed) {
+    try {
+      return refresh(observed).join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Logs in unless a login is already in flight, in which case its result is shared, or one
+   * completed since the caller observed the token it is replacing, in which case the fresh token
+   * is returned.
+   *
+   * @param observed the token the caller found stale, null if there was none.
+   */
+  CompletableFuture<AuthorizationToken> refresh(AuthorizationToken observed) {
+    var future = new CompletableFuture<AuthorizationToken>();
+    var existing = inFlight.compareAndExchange(null, future);
+    if (existing != null) {
+      return existing;
+    }
+
+    var current = token;
+    if (current != null && current != observed && !current.expiresWithin(REFRESH_WINDOW)) {
+      inFlight.set(null);
+      future.complete(current);
+      return future;
+    }
+
+    try {
+      var refreshed = login();
+      token = refreshed;
+      scheduleRenewal(refreshed);
+      inFlight.set(null);
+      future.complete(refreshed);
+    } catch (RuntimeException ex) {
+      inFlight.set(null);
+      future.completeExceptionally(ex);
+    }
+    return future;
+  }
 
+  private AuthorizationToken login() {
     checkCredentialsNotEmpty();
 
     var request = AuthenticationRequest.builder()
@@ -62,16 +139,46 @@ public class ServiceAuthenticationProviderImpl implements ServiceAuthenticationP
 
     try {
       var auth = objectMapper.readValue(body, AuthenticationResponse.class);
-      synchronized (this) {
-        authorizationHeader = auth.getToken();
-        expiration = Instant.ofEpochMilli(auth.getExpiresAt()).atZone(ZoneId.of("UTC"));
-      }
+      return new AuthorizationToken(auth.getToken(), Instant.ofEpochMilli(auth.getExpiresAt()));
     } catch (IOException ex) {
       log.error("Unable to parse Authorization Response.");
       throw new AccountsClientException(ex);
     }
   }
 
+  /**
+   * Schedules renewal of the token ahead of its expiration. Tokens too short lived to renew ahead
+   * are left to be refreshed by callers.
+   */
+  private void scheduleRenewal(AuthorizationToken refreshed) {
+    var delay = Duration.between(Instant.now(), refreshed.expiration.minus(RENEW_BEFORE));
+    if (!delay.isNegative()) {
+      schedule(delay);
+    }
+  }
+
+  private synchronized void schedule(Duration delay) {
+    if (scheduledRenewal != null) {
+      scheduledRenewal.cancel(false);
+    }
+    scheduledRenewal = renewalExecutor.schedule(this::renew,
+                                                delay.toMillis(),
+                                                TimeUnit.MILLISECONDS);
+  }
+
+  private void renew() {
+    try {
+      refresh(token).join();
+      log.debug("Renewed authorization in background.");
+    } catch (CompletionException ex) {
+      log.warn("Background renewal of authorization failed.", ex.getCause());
+      var current = token;
+      if (current != null && !current.expiresWithin(REFRESH_WINDOW.plus(RENEW_RETRY_DELAY))) {
+        schedule(RENEW_RETRY_DELAY);
+      }
+    }
+  }
+
   private void checkCredentialsNotEmpty() {
     var email = serviceAuthenticationConfiguration.getEmail();
     var password = serviceAuthenticationConfiguration.getPassword();
@@ -81,4 +188,15 @@ public class ServiceAuthenticationProviderImpl implements ServiceAuthenticationP
       throw new AuthenticationFailureException("Empty credentials.");
     }
   }
+
+  @RequiredArgsConstructor
+  static class AuthorizationToken {
+
+    private final String header;
+    private final Instant expiration;
+
+    boolean expiresWithin(Duration duration) {
+      return expiration.isBefore(Instant.now().plus(duration));
+    }
+  }
 }
@@ -1,8 +1,14 @@
 package com.ss.utopia.customer.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ss.utopia.customer.dto.BulkLoyaltyUpdateDto;
 import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.CustomerLookupDto;
+import com.ss.utopia.customer.dto.CustomerLookupResultDto;
 import com.ss.utopia.customer.dto.DeleteAccountDto;
+import com.ss.utopia.customer.dto.LoyaltyUpdateResultDto;
 import com.ss.utopia.customer.dto.PaymentMethodDto;
+import com.ss.utopia.customer.dto.SignupStatusDto;
 import com.ss.utopia.customer.dto.UpdateCustomerDto;
 import com.ss.utopia.customer.dto.UpdateCustomerLoyaltyDto;
 import com.ss.utopia.customer.entity.Customer;
@@ -12,8 +18,14 @@ import com.ss.utopia.customer.security.permissions.CreateCustomerPermission;
 import com.ss.utopia.customer.security.permissions.DeleteCustomerByIdPermission;
 import com.ss.utopia.customer.security.permissions.GetCustomerByEmailPermission;
 import com.ss.utopia.customer.security.permissions.GetCustomerByIdPermission;
+import com.ss.utopia.customer.security.permissions.InitiateDeletionPermission;
+import com.ss.utopia.customer.security.permissions.LookupCustomersPermission;
+import com.ss.utopia.customer.security.permissions.UpdateLoyaltyPermission;
 import com.ss.utopia.customer.service.CustomerService;
 import com.ss.utopia.customer.service.DeleteAccountService;
+import com.ss.utopia.customer.service.SignupService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
@@ -21,17 +33,20 @@ import java.util.UUID;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
@@ -40,99 +55,236 @@ import org.springframework.web.bind.annotation.RestController;
 public class CustomerController {
 
   private static final String MAPPING = EndpointConstants.API_V_0_1_CUSTOMERS;
+  private static final long NO_VERSION = -1;
   private final CustomerService customerService;
   private final DeleteAccountService deleteAccountService;
+  private final SignupService signupService;
+  private final ObjectMapper objectMapper;
 
-  @PreAuthorize("hasRole('ADMIN')")
+  /**
+   * Gets a page of customers ordered by ID.
+   *
+   * <p>If more records follow, the response carries a continuation token in the
+   * {@value EndpointConstants#CONTINUATION_TOKEN_HEADER} header to be passed back as the cursor.
+   */
+  @AdminOnlyPermission
   @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
-  public ResponseEntity<List<Customer>> getAllCustomers() {
-    log.info("GET Customer all");
-    var customers = customerService.getAllCustomers();
-    if (customers.isEmpty()) {
+  public ResponseEntity<List<Customer>> getAllCustomers(@RequestParam(required = false)
+                                                            String cursor,
+                                                        @RequestParam(defaultValue = "100")
+                                                            int limit) {
+    log.debug("GET Customer page cursor={},limit={}", cursor, limit);
+    var page = customerService.getCustomerPage(cursor, limit);
+    if (page.getCustomers().isEmpty()) {
       return ResponseEntity.noContent().build();
     }
-    return ResponseEntity.ok(customers);
+    var response = ResponseEntity.ok();
+    page.getNextCursor()
+        .ifPresent(next -> response.header(EndpointConstants.CONTINUATION_TOKEN_HEADER, next));
+    return response.body(page.getCustomers());
+  }
+
+  /**
+   * Streams all customers as newline delimited JSON, one record per line, as they are read from
+   * the database.
+   */
+  @AdminOnlyPermission
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+    log.debug("GET Customer stream");
+    StreamingResponseBody body = outputStream -> customerService.streamAllCustomers(customer -> {
+      try {
+        outputStream.write(objectMapper.writeValueAsBytes(customer));
+        outputStream.write('\n');
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    });
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(body);
   }
 
   @GetCustomerByIdPermission
   @GetMapping(value = "/{customerId}",
       produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
   public ResponseEntity<Customer> getCustomerById(@PathVariable UUID customerId) {
-    log.info("GET Customer id=" + customerId);
-    return ResponseEntity.of(Optional.ofNullable(customerService.getCustomerById(customerId)));
+    log.debug("GET Customer id={}", customerId);
+    var customer = customerService.getCustomerById(customerId);
+    return ResponseEntity.ok().eTag(etag(customer)).body(customer);
   }
 
   @GetCustomerByEmailPermission
   @GetMapping(value = "/email/{email}",
       produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
   public ResponseEntity<Customer> getCustomerByEmail(@PathVariable String email) {
-    log.info("GET Customer email=" + email);
+    log.debug("GET Customer email={}", email);
     return ResponseEntity.of(Optional.ofNullable(customerService.getCustomerByEmail(email)));
   }
 
+  /**
+   * Looks up many customers at once by ID and by email, listing those not found.
+   *
+   * <p>Authorization is evaluated once for the whole batch.
+   */
+  @LookupCustomersPermission
+  @PostMapping(value = "/lookup",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE},
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<CustomerLookupResultDto> lookupCustomers(@Valid @RequestBody
+                                                                     CustomerLookupDto
+                                                                     customerLookupDto) {
+    if (log.isDebugEnabled()) {
+      log.debug("POST Customer lookup ids={},emails={}", customerLookupDto.getIds().size(),
+                customerLookupDto.getEmails().size());
+    }
+    return ResponseEntity.ok(customerService.lookupCustomers(customerLookupDto.getIds(),
+                                                             customerLookupDto.getEmails()));
+  }
+
   @GetCustomerByIdPermission
   @GetMapping(value = "/loyalty/{customerId}",
       produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
   public ResponseEntity<Integer> getCustomerLoyaltyPoints(@PathVariable UUID customerId) {
-    log.info("GET Customer Loyalty Points when Customer id=" + customerId);
+    log.debug("GET Customer Loyalty Points when Customer id={}", customerId);
     return ResponseEntity.of(Optional.ofNullable(customerService
                                                      .getCustomerLoyaltyPoints(customerId)));
   }
 
-  @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE','TRAVEL_AGENT')")
+  @UpdateLoyaltyPermission
   @PutMapping(value = "/loyalty/{customerId}",
       consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
-  public ResponseEntity<Void> updateCustomerLoyaltyPoints(@PathVariable UUID customerId,
-                                                          @Valid @RequestBody
-                                                              UpdateCustomerLoyaltyDto
-                                                              customerLoyaltyDto) {
-    log.info("PUT Update Customer loyalty points when Customer ID=" + customerId);
-    customerService.updateCustomerLoyaltyPoints(customerId, customerLoyaltyDto);
-    return ResponseEntity.ok().build();
+  public ResponseEntity<Integer> updateCustomerLoyaltyPoints(@PathVariable UUID customerId,
+                                                             @Valid @RequestBody
+                                                                 UpdateCustomerLoyaltyDto
+                                                                 customerLoyaltyDto) {
+    log.debug("PUT Update Customer loyalty points when Customer ID={}", customerId);
+    return ResponseEntity.ok(customerService.updateCustomerLoyaltyPoints(customerId,
+                                                                         customerLoyaltyDto));
+  }
+
+  /**
+   * Applies many loyalty point changes at once, reporting the outcome of each.
+   */
+  @UpdateLoyaltyPermission
+  @PutMapping(value = "/loyalty",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+  public ResponseEntity<List<LoyaltyUpdateResultDto>> updateCustomerLoyaltyPoints(
+      @Valid @RequestBody BulkLoyaltyUpdateDto bulkLoyaltyUpdateDto) {
+    if (log.isDebugEnabled()) {
+      log.debug("PUT Update loyalty points for {} customers",
+                bulkLoyaltyUpdateDto.getUpdates().size());
+    }
+    return ResponseEntity.ok(customerService
+                                 .updateCustomerLoyaltyPoints(bulkLoyaltyUpdateDto.getUpdates()));
   }
 
   @CreateCustomerPermission
   @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
   public ResponseEntity<Customer> createNewCustomer(@Valid @RequestBody
                                                         CreateCustomerDto customerDto) {
-    log.info("POST Customer");
+    log.debug("POST Customer");
     var createdCustomer = customerService.createNewCustomer(customerDto);
     var uri = URI.create(MAPPING + "/" + createdCustomer.getId());
     return ResponseEntity.created(uri).body(createdCustomer);
   }
 
+  /**
+   * Accepts a new customer for asynchronous creation, responding before the account is created.
+   *
+   * <p>Selected over the synchronous create by a {@code Prefer: respond-async} header. The
+   * response locates the signup status. Repeating a request with the same
+   * {@value EndpointConstants#IDEMPOTENCY_KEY_HEADER} header and customer returns the original
+   * signup, while other customer details under the same key are rejected.
+   */
+  @CreateCustomerPermission
+  @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE},
+      headers = EndpointConstants.PREFER_RESPOND_ASYNC)
+  public ResponseEntity<SignupStatusDto> createNewCustomerAsync(
+      @Valid @RequestBody CreateCustomerDto customerDto,
+      @RequestHeader(value = EndpointConstants.IDEMPOTENCY_KEY_HEADER, required = false)
+          String idempotencyKey) {
+    log.debug("POST Customer async");
+    var signup = signupService.submitSignup(customerDto, idempotencyKey);
+    var uri = URI.create(MAPPING + EndpointConstants.SIGNUPS + "/" + signup.getId());
+    return ResponseEntity.accepted().location(uri).body(signup);
+  }
+
+  @GetMapping(value = EndpointConstants.SIGNUPS + "/{signupId}",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+  public ResponseEntity<SignupStatusDto> getSignup(@PathVariable UUID signupId) {
+    log.debug("GET Signup id={}", signupId);
+    return ResponseEntity.ok(signupService.getSignup(signupId));
+  }
+
+  /**
+   * Updates a customer's profile and address.
+   *
+   * <p>With an {@code If-Match} header carrying the ETag of a previous read, the update only
+   * applies if the customer has not changed since, and is rejected with 412 otherwise. The
+   * response carries the ETag of the updated customer.
+   */
   @GetCustomerByIdPermission
   @PutMapping(value = "/{customerId}",
       consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
   public ResponseEntity<Void> updateExistingCustomer(@PathVariable UUID customerId,
                                                      @Valid @RequestBody
-                                                         UpdateCustomerDto updateCustomerDto) {
-    log.info("PUT Customer id=" + customerId);
-    customerService.updateCustomer(customerId, updateCustomerDto);
-    return ResponseEntity.noContent().build();
+                                                         UpdateCustomerDto updateCustomerDto,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                         required = false) String ifMatch) {
+    log.debug("PUT Customer id={}", customerId);
+    var customer = customerService.updateCustomer(customerId, updateCustomerDto,
+                                                  expectedVersion(ifMatch));
+    return ResponseEntity.noContent().eTag(etag(customer)).build();
+  }
+
+  /**
+   * Strong ETag of a customer, from its version.
+   */
+  private static String etag(Customer customer) {
+    return "\"" + customer.getVersion() + "\"";
+  }
+
+  /**
+   * Gets the version an {@code If-Match} header requires, null if any version matches. A header
+   * not naming a single version of ours, such as a weak ETag, requires a version no customer has.
+   */
+  private static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    var value = ifMatch.trim();
+    if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+      try {
+        return Long.parseLong(value.substring(1, value.length() - 1));
+      } catch (NumberFormatException ex) {
+        // falls through to a version that never matches
+      }
+    }
+    return NO_VERSION;
   }
 
   @AdminOnlyPermission
   @DeleteMapping("/{customerId}")
   public ResponseEntity<String> deleteCustomer(@PathVariable UUID customerId) {
-    log.info("DELETE id=" + customerId);
+    log.debug("DELETE id={}", customerId);
     customerService.removeCustomerById(customerId);
     return ResponseEntity.noContent().build();
   }
 
-  @PreAuthorize("hasRole('ADMIN')"
-      + " OR @customerAuthenticationManager.customerIdMatches(authentication, #deleteAccountDto)")
+  @InitiateDeletionPermission
   @DeleteMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
   public ResponseEntity<Void> initiateDeleteCustomer(@Valid @RequestBody
                                                          DeleteAccountDto deleteAccountDto) {
-    log.info("Initiate delete id=" + deleteAccountDto.getId());
+    log.debug("Initiate delete id={}", deleteAccountDto.getId());
     deleteAccountService.requestDeletion(deleteAccountDto);
     return ResponseEntity.noContent().build();
   }
 
   @DeleteMapping(value = "/confirm/{confirmationToken}")
   public ResponseEntity<Void> confirmDeleteCustomer(@PathVariable UUID confirmationToken) {
-    log.info("Confirm delete token=" + confirmationToken);
+    log.debug("Confirm delete token={}", confirmationToken);
     deleteAccountService.finalizeDeletion(confirmationToken);
     return ResponseEntity.noContent().build();
   }
@@ -142,7 +294,7 @@ public class CustomerController {
       produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
   public ResponseEntity<PaymentMethod> getPaymentMethod(@PathVariable UUID customerId,
                                                         @PathVariable Long paymentId) {
-    log.info("GET PaymentMethod customerId,paymentId=" + customerId + "," + paymentId);
+    log.debug("GET PaymentMethod customerId,paymentId={},{}", customerId, paymentId);
     return ResponseEntity.of(Optional.of(customerService.getPaymentMethod(customerId, paymentId)));
   }
 
@@ -152,7 +304,7 @@ public class CustomerController {
   public ResponseEntity<Void> addPaymentMethod(@PathVariable UUID customerId,
                                                @Valid @RequestBody
                                                    PaymentMethodDto paymentMethodDto) {
-    log.info("POST PaymentMethod id=" + customerId);
+    log.debug("POST PaymentMethod id={}", customerId);
     var paymentId = customerService.addPaymentMethod(customerId, paymentMethodDto);
     var uri = URI.create(MAPPING + "/" + customerId + "/payment-method/" + paymentId);
     return ResponseEntity.created(uri).build();
@@ -165,7 +317,7 @@ public class CustomerController {
                                                   @PathVariable Long paymentId,
                                                   @Valid @RequestBody
                                                       PaymentMethodDto paymentMethodDto) {
-    log.info("PUT PaymentMethod customerId,paymentId=" + customerId + "," + paymentId);
+    log.debug("PUT PaymentMethod customerId,paymentId={},{}", customerId, paymentId);
     customerService.updatePaymentMethod(customerId, paymentId, paymentMethodDto);
     return ResponseEntity.noContent().build();
   }
@@ -174,7 +326,7 @@ public class CustomerController {
   @DeleteMapping("/{customerId}/payment-method/{paymentId}")
   public ResponseEntity<Void> removePaymentMethod(@PathVariable UUID customerId,
                                                   @PathVariable Long paymentId) {
-    log.info("DELETE PaymentMethod customerId,paymentId=" + customerId + "," + paymentId);
+    log.debug("DELETE PaymentMethod customerId,paymentId={},{}", customerId, paymentId);
     customerService.removePaymentMethod(customerId, paymentId);
     return ResponseEntity.noContent().build();
   }
@@ -4,6 +4,10 @@ public class EndpointConstants {
 
   public static final String API_V_0_1_CUSTOMERS = "/api/v0.1/customers";
   public static final String API_V_0_1_ACCOUNTS = "/api/v0.1/accounts";
+  public static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String PREFER_RESPOND_ASYNC = "Prefer=respond-async";
+  public static final String SIGNUPS = "/signups";
 
   private EndpointConstants() {
   }
@@ -0,0 +1,128 @@
+package com.ss.utopia.customer.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Read-only transactions on a read replica, and everything else on the primary database.
+ *
+ * <p>Only active with the {@value #PROFILE} profile. The primary pool is configured as without
+ * it, by {@code spring.datasource.*}, and the replica pool by
+ * {@code com.ss.utopia.customer.read-replica.*}, with the driver and, unless set, the credentials
+ * of the primary. Pools are named {@value #PRIMARY_POOL} and {@value #REPLICA_POOL}.
+ *
+ * <p>Hibernate releases its connection after each transaction rather than at the end of the
+ * session, so a request's transactions are routed one by one instead of all following the first.
+ *
+ * <p>Only the routing is pinned, so the caches in front of it are kept from being refilled with
+ * what the replica has not caught up on: the customer cache does not cache a customer for
+ * {@code max-lag} after evicting it, and the second-level cache, which offers no such control, is
+ * turned off even with the {@code l2-cache} profile. Pins and evictions are local to each
+ * instance, a writer whose next read is served by another instance may read from the replica, and
+ * that instance's customer cache is not evicted by the write at all.
+ */
+@Configuration
+@Profile(ReadReplicaConfiguration.PROFILE)
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.read-replica")
+public class ReadReplicaConfiguration {
+
+  public static final String PROFILE = "read-replica";
+  public static final String PRIMARY_POOL = "primary";
+  public static final String REPLICA_POOL = "replica";
+
+  /**
+   * JDBC URL of the read replica.
+   */
+  @Getter @Setter
+  private String url;
+
+  /**
+   * Login username of the read replica, the primary's when not set.
+   */
+  @Getter @Setter
+  private String username;
+
+  /**
+   * Login password of the read replica, the primary's when not set.
+   */
+  @Getter @Setter
+  private String password;
+
+  /**
+   * Time a caller's reads stay on the primary after it writes, so it reads its own writes. Should
+   * exceed how far the replica usually lags behind the primary.
+   */
+  @Getter @Setter
+  private Duration maxLag = Duration.ofSeconds(2);
+
+  /**
+   * Maximum number of callers pinned to the primary at once, the oldest writers are unpinned
+   * first past it.
+   */
+  @Getter @Setter
+  private long maximumPinnedCallers = 100_000;
+
+  @Bean
+  @ConfigurationProperties(prefix = "spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    var dataSource = properties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .build();
+    dataSource.setPoolName(PRIMARY_POOL);
+    return dataSource;
+  }
+
+  @Bean
+  @ConfigurationProperties(prefix = "com.ss.utopia.customer.read-replica.hikari")
+  public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+    var dataSource = DataSourceBuilder.create(properties.getClassLoader())
+        .type(HikariDataSource.class)
+        .driverClassName(properties.determineDriverClassName())
+        .url(url)
+        .username(username != null ? username : properties.determineUsername())
+        .password(password != null ? password : properties.determinePassword())
+        .build();
+    dataSource.setPoolName(REPLICA_POOL);
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource primaryDataSource,
+                               HikariDataSource replicaDataSource) {
+    return new LazyConnectionDataSourceProxy(
+        new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, maxLag,
+                                       maximumPinnedCallers));
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+    return properties -> properties.put(
+        AvailableSettings.CONNECTION_HANDLING,
+        PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheDisablingCustomizer() {
+    // reads from the replica would re-cache what a write on the primary just invalidated
+    return properties -> {
+      properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+      properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+    };
+  }
+}
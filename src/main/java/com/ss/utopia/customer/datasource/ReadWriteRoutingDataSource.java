@@ -0,0 +1,96 @@
+package com.ss.utopia.customer.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections of read-only transactions to the replica, and everything else to the
+ * primary.
+ *
+ * <p>Only read-only transactions declared by the service are routed. Spring Data runs inherited
+ * repository reads such as {@code findById} called outside a transaction in read-only
+ * transactions of its own, which write paths use to read what they are about to change, so those
+ * stay on the primary.
+ *
+ * <p>A caller that committed a read-write transaction keeps reading from the primary for the
+ * configured replica lag, so it sees its own writes. Callers are told apart by their authenticated
+ * principal, reads of unauthenticated callers are never pinned. Pins are held in memory, so only
+ * the instance that served the write routes the caller's reads to the primary.
+ *
+ * <p>The target is chosen when a connection is requested, before a starting transaction is marked
+ * read-only, so this is only used behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers it to
+ * the first statement.
+ */
+class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Target {
+    PRIMARY,
+    REPLICA
+  }
+
+  /**
+   * Prefix of the names of transactions started by Spring Data repositories, named after the
+   * repository method.
+   */
+  private static final String REPOSITORY_TRANSACTION_PREFIX = "org.springframework.data.";
+
+  private final Cache<String, Boolean> recentWriters;
+
+  ReadWriteRoutingDataSource(DataSource primary,
+                             DataSource replica,
+                             Duration replicaLag,
+                             long maximumPinnedCallers) {
+    setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+    recentWriters = Caffeine.newBuilder()
+        .maximumSize(maximumPinnedCallers)
+        .expireAfterWrite(replicaLag)
+        .build();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    var caller = currentCaller();
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        && !isRepositoryTransaction()) {
+      return caller != null && recentWriters.getIfPresent(caller) != null
+          ? Target.PRIMARY
+          : Target.REPLICA;
+    }
+    if (caller != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+      // pinned from the commit, what the replica may not have applied yet
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          recentWriters.put(caller, Boolean.TRUE);
+        }
+      });
+    }
+    return Target.PRIMARY;
+  }
+
+  private static boolean isRepositoryTransaction() {
+    var name = TransactionSynchronizationManager.getCurrentTransactionName();
+    return name != null && name.startsWith(REPOSITORY_TRANSACTION_PREFIX);
+  }
+
+  private static String currentCaller() {
+    var authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null
+        || !authentication.isAuthenticated()
+        || authentication instanceof AnonymousAuthenticationToken) {
+      return null;
+    }
+    return authentication.getName();
+  }
+}
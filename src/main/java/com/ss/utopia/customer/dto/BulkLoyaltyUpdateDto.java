@@ -0,0 +1,23 @@
+package com.ss.utopia.customer.dto;
+
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkLoyaltyUpdateDto {
+
+  public static final int MAX_UPDATES = 10_000;
+
+  @NotEmpty(message = "At least one update is required.")
+  @Size(max = MAX_UPDATES, message = "No more than " + MAX_UPDATES + " updates per request.")
+  private List<@Valid CustomerLoyaltyDeltaDto> updates;
+}
@@ -0,0 +1,39 @@
+package com.ss.utopia.customer.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerLookupDto {
+
+  public static final int MAX_LOOKUPS = 1000;
+
+  @Builder.Default
+  @NotNull(message = "IDs must not be null.")
+  @Size(max = MAX_LOOKUPS, message = "No more than " + MAX_LOOKUPS + " IDs per request.")
+  private List<@NotNull UUID> ids = new ArrayList<>();
+
+  @Builder.Default
+  @NotNull(message = "Emails must not be null.")
+  @Size(max = MAX_LOOKUPS, message = "No more than " + MAX_LOOKUPS + " emails per request.")
+  private List<@NotBlank String> emails = new ArrayList<>();
+
+  @JsonIgnore
+  @AssertTrue(message = "At least one ID or email is required.")
+  public boolean isAnyRequested() {
+    return ids == null || emails == null || !ids.isEmpty() || !emails.isEmpty();
+  }
+}
@@ -0,0 +1,29 @@
+package com.ss.utopia.customer.dto;
+
+import com.ss.utopia.customer.entity.Customer;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a {@link CustomerLookupDto}, keyed by the requested IDs and emails in request order.
+ * Requested IDs and emails without a customer are listed as missing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerLookupResultDto {
+
+  private Map<UUID, Customer> customersById;
+
+  private Map<String, Customer> customersByEmail;
+
+  private List<UUID> missingIds;
+
+  private List<String> missingEmails;
+}
@@ -0,0 +1,32 @@
+package com.ss.utopia.customer.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.UUID;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerLoyaltyDeltaDto {
+
+  @NotNull
+  private UUID customerId;
+
+  @NotNull
+  @Min(1)
+  private Integer pointsToChange;
+
+  @NotNull
+  private Boolean increment;
+
+  @JsonIgnore
+  public int getDelta() {
+    return increment ? pointsToChange : -pointsToChange;
+  }
+}
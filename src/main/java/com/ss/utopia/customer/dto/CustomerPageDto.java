@@ -0,0 +1,30 @@
+package com.ss.utopia.customer.dto;
+
+import com.ss.utopia.customer.entity.Customer;
+import java.util.List;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single keyset page of {@link Customer} records.
+ *
+ * <p>{@link #getNextCursor()} is an opaque continuation token to be passed back to retrieve the
+ * following page and is empty once the last page has been reached.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerPageDto {
+
+  private List<Customer> customers;
+
+  private String nextCursor;
+
+  public Optional<String> getNextCursor() {
+    return Optional.ofNullable(nextCursor);
+  }
+}
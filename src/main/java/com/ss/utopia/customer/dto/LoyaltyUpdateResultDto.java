@@ -0,0 +1,25 @@
+package com.ss.utopia.customer.dto;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single item of a {@link BulkLoyaltyUpdateDto}.
+ *
+ * <p>{@link #getError()} describes the failure when {@link #getSuccess()} is false.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoyaltyUpdateResultDto {
+
+  private UUID customerId;
+
+  private Boolean success;
+
+  private String error;
+}
@@ -0,0 +1,29 @@
+package com.ss.utopia.customer.dto;
+
+import com.ss.utopia.customer.entity.PendingSignup;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status of a {@link PendingSignup} as reported to the client.
+ *
+ * <p>The status is readable without authentication, so it carries no details of the customer.
+ * {@link #getLocation()} locates the created customer once the signup is completed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SignupStatusDto {
+
+  private UUID id;
+
+  private PendingSignup.Status status;
+
+  private String failureReason;
+
+  private String location;
+}
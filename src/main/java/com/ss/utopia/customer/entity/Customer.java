@@ -1,31 +1,101 @@
 package com.ss.utopia.customer.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
-import javax.persistence.FetchType;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
+/**
+ * A customer account.
+ *
+ * <p>Both collections are lazy. Repository methods declare one of the named entity graphs so each
+ * use case fetches exactly what it needs:
+ * <ul>
+ *   <li>{@value #SUMMARY_GRAPH} - the customer row only.</li>
+ *   <li>{@value #FULL_GRAPH} - addresses, with payment methods to be initialized as well for
+ *   the profile returned by the API.</li>
+ * </ul>
+ * Only one collection is join fetched, fetching both would return every combination of address
+ * and payment method. Collections left unfetched are loaded in batches across all customers in
+ * the persistence context rather than one select per customer.
+ *
+ * <p>Emails are unique through the {@value #EMAIL_CONSTRAINT} constraint, named
+ * {@value #LEGACY_EMAIL_CONSTRAINT} on databases created before it was named, and unique
+ * regardless of case and surrounding whitespace through the {@value #NORMALIZED_EMAIL_CONSTRAINT}
+ * constraint on the {@link #normalizedEmail}, which writes rely on to detect duplicates. Lookups
+ * by email go through the normalized email.
+ *
+ * <p>Updates only write the columns that changed, guarded by the {@link #version}. The version
+ * covers the profile, not the loyalty points, which are changed by guarded SQL increments.
+ *
+ * <p>With the second-level cache enabled, the customer and both collections are cached in the
+ * {@value #CACHE_REGION}, {@value #ADDRESSES_CACHE_REGION} and
+ * {@value #PAYMENT_METHODS_CACHE_REGION} regions. Writes made outside of Hibernate must evict what
+ * they change.
+ */
 @Data
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Customer.CACHE_REGION)
+@Table(uniqueConstraints = {
+    @UniqueConstraint(name = Customer.EMAIL_CONSTRAINT, columnNames = "email"),
+    @UniqueConstraint(name = Customer.NORMALIZED_EMAIL_CONSTRAINT,
+        columnNames = "normalizedEmail")})
+@NamedEntityGraph(name = Customer.SUMMARY_GRAPH)
+@NamedEntityGraph(name = Customer.FULL_GRAPH, attributeNodes = @NamedAttributeNode("addresses"))
 public class Customer {
 
+  public static final String SUMMARY_GRAPH = "Customer.summary";
+  public static final String FULL_GRAPH = "Customer.full";
+  public static final String EMAIL_CONSTRAINT = "uk_customer_email";
+  /**
+   * Name Hibernate generated for the unique email column before it was named.
+   */
+  public static final String LEGACY_EMAIL_CONSTRAINT = "uk_dwk6cx0afu8bs9o4t536v1j5v";
+  public static final String NORMALIZED_EMAIL_CONSTRAINT = "uk_customer_normalized_email";
+  public static final String CACHE_REGION = "customer";
+  public static final String ADDRESSES_CACHE_REGION = "customer.addresses";
+  public static final String PAYMENT_METHODS_CACHE_REGION = "customer.payment-methods";
+  public static final int COLLECTION_BATCH_SIZE = 100;
+
   @Id
   @Column(columnDefinition = "BINARY(16)")
   private UUID id;
 
+  /**
+   * Null until the record is first persisted, which also marks it as new to Spring Data.
+   */
+  @Version
+  @JsonIgnore
+  private Long version;
+
   private String firstName;
 
   private String lastName;
@@ -35,10 +105,19 @@ public class Customer {
 
   private String phoneNumber;
 
-  @Column(unique = true)
   private String email;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  /**
+   * The {@link #email} as given by {@link #normalizeEmail(String)}. Set by the mapper on create
+   * and update, and when first persisted if missing. Null for records written before it was
+   * introduced until they are backfilled.
+   */
+  @JsonIgnore
+  private String normalizedEmail;
+
+  @BatchSize(size = COLLECTION_BATCH_SIZE)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ADDRESSES_CACHE_REGION)
+  @OneToMany(cascade = CascadeType.ALL)
   private Set<Address> addresses;
 
   @Builder.Default
@@ -49,6 +128,28 @@ public class Customer {
 
   @EqualsAndHashCode.Exclude
   @ToString.Exclude
+  @BatchSize(size = COLLECTION_BATCH_SIZE)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PAYMENT_METHODS_CACHE_REGION)
   @OneToMany(cascade = CascadeType.ALL)
+  // owner_id is written by PaymentMethod itself so rows can be inserted without the aggregate
+  @JoinColumn(name = "owner_id", insertable = false, updatable = false)
   private Set<PaymentMethod> paymentMethods;
+
+  /**
+   * Normalizes an email for case-insensitive comparison and lookup by trimming it and lower casing
+   * it independently of the default locale.
+   *
+   * @param email the email, may be null.
+   * @return the normalized email, null if the email is null.
+   */
+  public static String normalizeEmail(String email) {
+    return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+  }
+
+  @PrePersist
+  void normalizeEmailIfMissing() {
+    if (normalizedEmail == null) {
+      normalizedEmail = normalizeEmail(email);
+    }
+  }
 }
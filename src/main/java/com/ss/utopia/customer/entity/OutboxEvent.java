@@ -0,0 +1,103 @@
+package com.ss.utopia.customer.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A call to the accounts service recorded in the same transaction as the local change that
+ * requires it, and dispatched after commit by the outbox relay.
+ *
+ * <p>Events are removed once dispatched. Events that cannot be dispatched are kept as
+ * {@link Status#FAILED} for inspection.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(indexes = {
+    @Index(name = "idx_outbox_event_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_outbox_event_aggregate", columnList = "aggregate_id, id")})
+public class OutboxEvent {
+
+  public static final int MAX_ERROR_LENGTH = 255;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  private Type type;
+
+  /**
+   * The customer ID. Events for the same aggregate are dispatched in order.
+   */
+  @NotNull
+  @Column(name = "aggregate_id", columnDefinition = "BINARY(16)")
+  private UUID aggregateId;
+
+  private String payload;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  private Status status;
+
+  @Builder.Default
+  private Integer attempts = 0;
+
+  @Column(length = MAX_ERROR_LENGTH)
+  private String lastError;
+
+  @NotNull
+  @Column(name = "next_attempt_at")
+  private Instant nextAttemptAt;
+
+  private Instant createdAt;
+
+  /**
+   * Creates an event due for dispatch immediately.
+   *
+   * @param type        the event type.
+   * @param aggregateId the ID of the record the event applies to.
+   * @param payload     the event payload, or null.
+   * @return the new event.
+   */
+  public static OutboxEvent pending(Type type, UUID aggregateId, String payload) {
+    var now = Instant.now();
+    return OutboxEvent.builder()
+        .type(type)
+        .aggregateId(aggregateId)
+        .payload(payload)
+        .status(Status.PENDING)
+        .nextAttemptAt(now)
+        .createdAt(now)
+        .build();
+  }
+
+  public enum Type {
+    /**
+     * Propagates a changed customer email, given as the payload, to the accounts service.
+     */
+    UPDATE_CUSTOMER_EMAIL
+  }
+
+  public enum Status {
+    PENDING,
+    FAILED
+  }
+}
@@ -1,28 +1,40 @@
 package com.ss.utopia.customer.entity;
 
 import java.util.UUID;
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PaymentMethod.CACHE_REGION)
+@Table(indexes = @Index(name = "idx_payment_method_owner", columnList = "owner_id, id"))
 public class PaymentMethod {
 
+  public static final String CACHE_REGION = "payment-method";
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
   @NotNull
+  @Column(name = "owner_id", columnDefinition = "BINARY(16)")
   private UUID ownerId;
 
   @NotNull
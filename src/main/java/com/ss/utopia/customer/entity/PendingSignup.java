@@ -0,0 +1,85 @@
+package com.ss.utopia.customer.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Instant;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A customer signup accepted for asynchronous creation.
+ *
+ * <p>The customer record itself is only created once the accounts service has created the user
+ * account, as the account ID becomes the customer ID.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingSignup {
+
+  @Id
+  @Column(columnDefinition = "BINARY(16)")
+  private UUID id;
+
+  /**
+   * The client's idempotency key hashed with the normalized email, so clients choosing the same
+   * key for different emails do not share a signup.
+   */
+  @JsonIgnore
+  @NotNull
+  @Column(unique = true)
+  private String idempotencyKey;
+
+  /**
+   * Hash of the request, without the password, that a repeat with the same idempotency key must
+   * match.
+   */
+  @JsonIgnore
+  private String requestFingerprint;
+
+  @NotNull
+  private String email;
+
+  /**
+   * The {@link #email} as given by {@link Customer#normalizeEmail(String)}, so signups pending for
+   * emails differing only in case are recognized as duplicates.
+   */
+  @JsonIgnore
+  private String normalizedEmail;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  private Status status;
+
+  /**
+   * The ID of the created account. Also kept on a failed signup whose account was created, so the
+   * account can be found and removed.
+   */
+  @Column(columnDefinition = "BINARY(16)")
+  private UUID customerId;
+
+  private String failureReason;
+
+  @Builder.Default
+  private Integer attempts = 0;
+
+  private Instant createdAt;
+
+  private Instant updatedAt;
+
+  public enum Status {
+    PENDING,
+    COMPLETED,
+    FAILED
+  }
+}
@@ -0,0 +1,12 @@
+package com.ss.utopia.customer.exception;
+
+/**
+ * Exception to be thrown when a call to the accounts service is not attempted because the
+ * operation's circuit is open or its bulkhead is full.
+ */
+public class AccountsServiceUnavailableException extends RuntimeException {
+
+  public AccountsServiceUnavailableException(String operation, Throwable cause) {
+    super("Accounts service unavailable for " + operation + ". Please try again later.", cause);
+  }
+}
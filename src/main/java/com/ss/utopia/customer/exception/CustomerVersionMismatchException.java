@@ -0,0 +1,30 @@
+package com.ss.utopia.customer.exception;
+
+import java.util.UUID;
+
+/**
+ * To be thrown when a conditional update of a {@link com.ss.utopia.customer.entity.Customer}
+ * expected a version other than the current one, because another update came first.
+ *
+ * <p>Contains the customer ID and the expected version, retrieved with {@link #getCustomerId()}
+ * and {@link #getExpectedVersion()}.
+ */
+public class CustomerVersionMismatchException extends IllegalStateException {
+
+  private final UUID customerId;
+  private final Long expectedVersion;
+
+  public CustomerVersionMismatchException(UUID customerId, Long expectedVersion) {
+    super("Customer id=" + customerId + " has changed since version " + expectedVersion);
+    this.customerId = customerId;
+    this.expectedVersion = expectedVersion;
+  }
+
+  public UUID getCustomerId() {
+    return customerId;
+  }
+
+  public Long getExpectedVersion() {
+    return expectedVersion;
+  }
+}
@@ -1,11 +1,14 @@
 package com.ss.utopia.customer.exception;
 
 import feign.FeignException.FeignClientException;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -15,15 +18,25 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 /**
  * ControllerAdvice for exception handling.
+ *
+ * <p>Rejected requests worth watching are counted as {@value #EXCEPTIONS_COUNTER}, tagged with
+ * the exception.
  */
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class ExceptionControllerAdvisor {
 
+  public static final String EXCEPTIONS_COUNTER = "customer.exceptions";
+
   public static final String ERROR_KEY = "error";
   public static final String STATUS_KEY = "status";
   public static final String CLIENT_EXCEPTION_MESSAGE =
       "There was a problem creating the account. Please try again.";
+  public static final String CONCURRENT_UPDATE_MESSAGE =
+      "The record was changed by another request. Please try again.";
+
+  private final MeterRegistry meterRegistry;
 
   /**
    * Handles exceptions thrown on search returning no results.
@@ -51,6 +64,7 @@ public class ExceptionControllerAdvisor {
   @ExceptionHandler(DuplicateEmailException.class)
   public Map<String, Object> handleDuplicateEmailException(DuplicateEmailException ex) {
     log.error(ex.getMessage());
+    count(ex);
     return baseResponse(ex.getMessage(), HttpStatus.CONFLICT);
   }
 
@@ -82,13 +96,74 @@ public class ExceptionControllerAdvisor {
     return response;
   }
 
+  /**
+   * Handles conditional updates based on a version that is no longer current.
+   *
+   * @param ex an exception thrown when the customer changed since the version in If-Match.
+   * @return a map of the error message and status code.
+   */
+  @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+  @ExceptionHandler(CustomerVersionMismatchException.class)
+  public Map<String, Object> handleCustomerVersionMismatchExceptions(
+      CustomerVersionMismatchException ex) {
+    log.warn(ex.getMessage());
+    count(ex);
+    return baseResponse(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+  }
+
+  /**
+   * Handles unconditional updates losing a race with another update of the same record.
+   *
+   * @param ex an exception thrown when the record changed between being read and written.
+   * @return a map of the error message and status code.
+   */
+  @ResponseStatus(HttpStatus.CONFLICT)
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public Map<String, Object> handleOptimisticLockingFailureExceptions(
+      OptimisticLockingFailureException ex) {
+    log.warn(ex.getMessage());
+    count(ex);
+    return baseResponse(CONCURRENT_UPDATE_MESSAGE, HttpStatus.CONFLICT);
+  }
+
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   @ExceptionHandler(IllegalPointChangeException.class)
   public Map<String, Object> handleIllegalPointChangeExceptions(IllegalPointChangeException ex) {
     log.error(ex.getMessage());
+    count(ex);
     return baseResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
   }
 
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  @ExceptionHandler(InvalidCursorException.class)
+  public Map<String, Object> handleInvalidCursorExceptions(InvalidCursorException ex) {
+    log.error(ex.getMessage());
+    return baseResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+  }
+
+  @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+  @ExceptionHandler(IdempotencyKeyMismatchException.class)
+  public Map<String, Object> handleIdempotencyKeyMismatchExceptions(
+      IdempotencyKeyMismatchException ex) {
+    log.warn(ex.getMessage());
+    return baseResponse(ex.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  @ExceptionHandler(SignupRejectedException.class)
+  public Map<String, Object> handleSignupRejectedExceptions(SignupRejectedException ex) {
+    log.error(ex.getMessage());
+    return baseResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  @ExceptionHandler(AccountsServiceUnavailableException.class)
+  public Map<String, Object> handleAccountsServiceUnavailableExceptions(
+      AccountsServiceUnavailableException ex) {
+    log.error(ex.getMessage());
+    return baseResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   @ExceptionHandler(AccountsClientException.class)
   public Map<String, Object> accountsClientException(AccountsClientException ex) {
@@ -110,10 +185,15 @@ public class ExceptionControllerAdvisor {
     var msg = error.getDefaultMessage();
     msg = msg == null || msg.isBlank() ? "Unknown validation failure." : msg;
 
-    log.debug("Field" + error.getField() + " Message: " + msg);
+    log.debug("Field {} Message: {}", error.getField(), msg);
     return msg;
   }
 
+  private void count(Exception ex) {
+    meterRegistry.counter(EXCEPTIONS_COUNTER, "exception", ex.getClass().getSimpleName())
+        .increment();
+  }
+
   private Map<String, Object> baseResponse(String errorMsg, HttpStatus status) {
     var response = new HashMap<String, Object>();
     response.put(ERROR_KEY, errorMsg);
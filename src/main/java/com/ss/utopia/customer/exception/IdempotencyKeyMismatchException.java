@@ -0,0 +1,21 @@
+package com.ss.utopia.customer.exception;
+
+/**
+ * To be thrown when a request repeats an idempotency key with a payload other than the one first
+ * sent with it.
+ *
+ * <p>Contains the offending key that can be retrieved with {@link #getIdempotencyKey()}.
+ */
+public class IdempotencyKeyMismatchException extends IllegalStateException {
+
+  private final String idempotencyKey;
+
+  public IdempotencyKeyMismatchException(String idempotencyKey) {
+    super("Idempotency key '" + idempotencyKey + "' was already used with a different request");
+    this.idempotencyKey = idempotencyKey;
+  }
+
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+}
@@ -0,0 +1,21 @@
+package com.ss.utopia.customer.exception;
+
+/**
+ * To be thrown when a continuation token given for paging through customer records cannot be
+ * decoded.
+ *
+ * <p>Contains the offending token that can be retrieved with {@link #getCursor()}.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+  private final String cursor;
+
+  public InvalidCursorException(String cursor) {
+    super("Invalid continuation token: '" + cursor + "'");
+    this.cursor = cursor;
+  }
+
+  public String getCursor() {
+    return cursor;
+  }
+}
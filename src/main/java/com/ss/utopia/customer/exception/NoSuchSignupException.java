@@ -0,0 +1,24 @@
+package com.ss.utopia.customer.exception;
+
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Exception to be thrown when a {@link com.ss.utopia.customer.entity.PendingSignup} cannot be
+ * located.
+ *
+ * <p>The offending ID can be retrieved with {@link #getSignupId()}.
+ */
+public class NoSuchSignupException extends NoSuchElementException {
+
+  private final UUID signupId;
+
+  public NoSuchSignupException(UUID signupId) {
+    super("Could not locate signup with ID '" + signupId + "'");
+    this.signupId = signupId;
+  }
+
+  public UUID getSignupId() {
+    return signupId;
+  }
+}
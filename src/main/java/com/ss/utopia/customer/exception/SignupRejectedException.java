@@ -0,0 +1,12 @@
+package com.ss.utopia.customer.exception;
+
+/**
+ * Exception to be thrown when an asynchronous signup cannot be accepted because the signup workers
+ * are saturated.
+ */
+public class SignupRejectedException extends IllegalStateException {
+
+  public SignupRejectedException() {
+    super("Too many signups in progress. Please try again later.");
+  }
+}
@@ -0,0 +1,30 @@
+package com.ss.utopia.customer.logging;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.access-log")
+public class AccessLogConfiguration {
+
+  /**
+   * Whether completed requests are logged to the access log.
+   */
+  @Getter @Setter
+  private boolean enabled = true;
+
+  /**
+   * Fraction of requests, between 0 and 1, logged when they neither failed nor were slow.
+   */
+  @Getter @Setter
+  private double sampleRate = 0.01;
+
+  /**
+   * Duration from which a request is always logged.
+   */
+  @Getter @Setter
+  private Duration slowThreshold = Duration.ofSeconds(1);
+}
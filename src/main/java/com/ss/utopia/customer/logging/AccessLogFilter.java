@@ -0,0 +1,114 @@
+package com.ss.utopia.customer.logging;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Logs a sample of completed requests to the {@value #LOGGER} logger at INFO, in place of a log
+ * line per request in each handler.
+ *
+ * <p>Server errors and requests taking at least the configured slow threshold are always logged,
+ * other requests at the configured sample rate. Asynchronous requests are logged once they
+ * complete. Requests are logged by the pattern of the handler they were mapped to rather than
+ * their path, as paths and query strings may carry customer details such as emails, and by
+ * {@value #UNMAPPED} when no handler was mapped.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class AccessLogFilter extends OncePerRequestFilter {
+
+  public static final String LOGGER = "com.ss.utopia.customer.access";
+  public static final String UNMAPPED = "-";
+
+  private static final Logger log = LoggerFactory.getLogger(LOGGER);
+
+  private final AccessLogConfiguration configuration;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !configuration.isEnabled() || !log.isInfoEnabled();
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain chain) throws ServletException, IOException {
+    var start = System.nanoTime();
+    var failed = true;
+    try {
+      chain.doFilter(request, response);
+      failed = false;
+    } finally {
+      if (failed) {
+        // the error page has not been rendered yet, so the status is not final
+        record(request.getMethod(), pathPattern(request),
+               HttpServletResponse.SC_INTERNAL_SERVER_ERROR, start);
+      } else if (request.isAsyncStarted()) {
+        var listener = new CompletionListener(request.getMethod(), pathPattern(request),
+                                              response, start);
+        request.getAsyncContext().addListener(listener);
+      } else {
+        record(request.getMethod(), pathPattern(request), response.getStatus(), start);
+      }
+    }
+  }
+
+  private static String pathPattern(HttpServletRequest request) {
+    var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern != null ? pattern.toString() : UNMAPPED;
+  }
+
+  private void record(String method, String path, int status, long start) {
+    var elapsed = System.nanoTime() - start;
+    if (status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+        || elapsed >= configuration.getSlowThreshold().toNanos()
+        || ThreadLocalRandom.current().nextDouble() < configuration.getSampleRate()) {
+      log.info("{} {} {} {}ms", method, path, status, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+  }
+
+  @RequiredArgsConstructor
+  private class CompletionListener implements AsyncListener {
+
+    private final String method;
+    private final String path;
+    private final HttpServletResponse response;
+    private final long start;
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      record(method, path, response.getStatus(), start);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      // followed by onComplete
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      // followed by onComplete
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+  }
+}
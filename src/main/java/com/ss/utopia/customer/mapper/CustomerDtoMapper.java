@@ -6,30 +6,77 @@ import com.ss.utopia.customer.dto.UpdateCustomerDto;
 import com.ss.utopia.customer.entity.Address;
 import com.ss.utopia.customer.entity.Customer;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 public class CustomerDtoMapper {
 
   private CustomerDtoMapper() {}
 
-  public static Customer map(UpdateCustomerDto updateCustomerDto) {
+  /**
+   * Copies the profile fields of the DTO onto an existing customer, leaving its loyalty points,
+   * addresses and payment methods as they are.
+   *
+   * @return whether any field changed.
+   */
+  public static boolean updateProfile(Customer customer, UpdateCustomerDto dto) {
+    final var changed = !Objects.equals(customer.getFirstName(), dto.getFirstName())
+        || !Objects.equals(customer.getLastName(), dto.getLastName())
+        || !Objects.equals(customer.getEmail(), dto.getEmail())
+        || !Objects.equals(customer.getPhoneNumber(), dto.getPhoneNumber())
+        || !Objects.equals(customer.getTicketEmails(), dto.getTicketEmails())
+        || !Objects.equals(customer.getFlightEmails(), dto.getFlightEmails());
+    customer.setFirstName(dto.getFirstName());
+    customer.setLastName(dto.getLastName());
+    customer.setEmail(dto.getEmail());
+    customer.setNormalizedEmail(Customer.normalizeEmail(dto.getEmail()));
+    customer.setPhoneNumber(dto.getPhoneNumber());
+    customer.setTicketEmails(dto.getTicketEmails());
+    customer.setFlightEmails(dto.getFlightEmails());
+    return changed;
+  }
 
-    return Customer.builder()
-        .firstName(updateCustomerDto.getFirstName())
-        .lastName(updateCustomerDto.getLastName())
-        .email(updateCustomerDto.getEmail())
-        .phoneNumber(updateCustomerDto.getPhoneNumber())
-        .addresses(Set.of(Address.builder()
-                              .line1(updateCustomerDto.getAddrLine1())
-                              .line2(updateCustomerDto.getAddrLine2())
-                              .city(updateCustomerDto.getCity())
-                              .state(updateCustomerDto.getState())
-                              .zipcode(updateCustomerDto.getZipcode())
-                              .build()))
-        .paymentMethods(Collections.emptySet())
-        .ticketEmails(updateCustomerDto.getTicketEmails())
-        .flightEmails(updateCustomerDto.getFlightEmails())
-        .build();
+  /**
+   * Copies the address fields of the DTO onto the primary address of an existing customer, the
+   * one with the lowest cardinality, adding it if the customer has none.
+   *
+   * @return whether the address changed.
+   */
+  public static boolean updateAddress(Customer customer, UpdateCustomerDto dto) {
+    var addresses = customer.getAddresses() == null
+        ? Set.<Address>of()
+        : customer.getAddresses();
+    var primary = addresses.stream()
+        .min(Comparator.comparing(Address::getCardinality,
+                                  Comparator.nullsLast(Comparator.naturalOrder())));
+    if (primary.isEmpty()) {
+      var added = new HashSet<>(addresses);
+      added.add(Address.builder()
+                    .cardinality(1)
+                    .line1(dto.getAddrLine1())
+                    .line2(dto.getAddrLine2())
+                    .city(dto.getCity())
+                    .state(dto.getState())
+                    .zipcode(dto.getZipcode())
+                    .build());
+      customer.setAddresses(added);
+      return true;
+    }
+
+    var address = primary.get();
+    final var changed = !Objects.equals(address.getLine1(), dto.getAddrLine1())
+        || !Objects.equals(address.getLine2(), dto.getAddrLine2())
+        || !Objects.equals(address.getCity(), dto.getCity())
+        || !Objects.equals(address.getState(), dto.getState())
+        || !Objects.equals(address.getZipcode(), dto.getZipcode());
+    address.setLine1(dto.getAddrLine1());
+    address.setLine2(dto.getAddrLine2());
+    address.setCity(dto.getCity());
+    address.setState(dto.getState());
+    address.setZipcode(dto.getZipcode());
+    return changed;
   }
 
   public static Customer map(CreateCustomerDto dto) {
@@ -37,6 +84,7 @@ public class CustomerDtoMapper {
         .firstName(dto.getFirstName())
         .lastName(dto.getLastName())
         .email(dto.getEmail())
+        .normalizedEmail(Customer.normalizeEmail(dto.getEmail()))
         .phoneNumber(dto.getPhoneNumber())
         .loyaltyPoints(0)
         .addresses(Set.of(Address.builder()
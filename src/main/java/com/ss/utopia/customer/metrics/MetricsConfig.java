@@ -0,0 +1,47 @@
+package com.ss.utopia.customer.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Timers for the service and repository layers.
+ *
+ * <p>Methods annotated with {@link io.micrometer.core.annotation.Timed} are timed with their class
+ * and method as tags. Every Spring Data repository method invocation is timed by the
+ * {@link RepositoryMetricsListener}. Endpoints are timed by Spring Boot as
+ * {@code http.server.requests}.
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+    return new TimedAspect(meterRegistry);
+  }
+
+  /**
+   * Registers the {@link RepositoryMetricsListener} with each repository factory. Static, and
+   * resolving the registry only on first invocation, so the post processor does not initialize
+   * beans early.
+   */
+  @Bean
+  public static BeanPostProcessor repositoryMetricsPostProcessor(
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+          var listener = new RepositoryMetricsListener(meterRegistry::getObject);
+          ((RepositoryFactoryBeanSupport<?, ?, ?>) bean)
+              .addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+        }
+        return bean;
+      }
+    };
+  }
+}
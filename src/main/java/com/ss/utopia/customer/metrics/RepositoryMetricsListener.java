@@ -0,0 +1,37 @@
+package com.ss.utopia.customer.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+/**
+ * Times repository method invocations as {@value #TIMER}, tagged with the repository, method,
+ * invocation state and exception.
+ */
+public class RepositoryMetricsListener implements RepositoryMethodInvocationListener {
+
+  public static final String TIMER = "spring.data.repository.invocations";
+
+  private final Supplier<MeterRegistry> meterRegistry;
+
+  public RepositoryMetricsListener(Supplier<MeterRegistry> meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void afterInvocation(RepositoryMethodInvocation invocation) {
+    var result = invocation.getResult();
+    var error = result == null ? null : result.getError();
+    var tags = Tags.of("repository", invocation.getRepositoryInterface().getSimpleName(),
+                       "method", invocation.getMethod().getName(),
+                       "state", result == null ? "UNKNOWN" : result.getState().name(),
+                       "exception", error == null ? "none" : error.getClass().getSimpleName());
+    Timer.builder(TIMER)
+        .tags(tags)
+        .register(meterRegistry.get())
+        .record(invocation.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+  }
+}
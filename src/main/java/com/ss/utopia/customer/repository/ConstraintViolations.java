@@ -0,0 +1,38 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.entity.Customer;
+import java.util.Locale;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Identifies which constraint a failed write violated.
+ */
+public final class ConstraintViolations {
+
+  private ConstraintViolations() {
+  }
+
+  /**
+   * Whether the write failed on the {@value Customer#EMAIL_CONSTRAINT} or
+   * {@value Customer#NORMALIZED_EMAIL_CONSTRAINT} constraint, or on
+   * {@value Customer#LEGACY_EMAIL_CONSTRAINT}, the email constraint of databases created before it
+   * was named. Databases report the name in their own case and some decorate it, so the name is
+   * matched loosely, and the driver message is used when Hibernate could not extract a name.
+   */
+  public static boolean isDuplicateEmail(DataIntegrityViolationException ex) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException) {
+        var violation = (ConstraintViolationException) cause;
+        var name = violation.getConstraintName() != null
+            ? violation.getConstraintName()
+            : String.valueOf(violation.getSQLException().getMessage());
+        var lowerCaseName = name.toLowerCase(Locale.ROOT);
+        return lowerCaseName.contains(Customer.EMAIL_CONSTRAINT)
+            || lowerCaseName.contains(Customer.NORMALIZED_EMAIL_CONSTRAINT)
+            || lowerCaseName.contains(Customer.LEGACY_EMAIL_CONSTRAINT);
+      }
+    }
+    return false;
+  }
+}
@@ -1,13 +1,118 @@
 package com.ss.utopia.customer.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import com.ss.utopia.customer.entity.Customer;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+public interface CustomerRepository extends JpaRepository<Customer, UUID>,
+    LoyaltyPointsBatchRepository, CustomerVersionRepository, NormalizedEmailBackfillRepository,
+    UncachedCustomerRepository {
+
+  /**
+   * JDBC fetch size used when streaming. MySQL additionally requires {@code useCursorFetch=true}
+   * on the connection URL to honor it rather than buffering the full result set.
+   */
+  String STREAM_FETCH_SIZE = "500";
+
+  /**
+   * Finds a customer by email, normalized with {@link Customer#normalizeEmail(String)}. Results
+   * are kept in the query cache when enabled.
+   */
+  @EntityGraph(Customer.FULL_GRAPH)
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+  Optional<Customer> findByNormalizedEmail(String normalizedEmail);
+
+  /**
+   * Finds a customer by its exact email among records written before the normalized email was
+   * introduced and not yet backfilled, which lookups by normalized email cannot find.
+   */
+  @EntityGraph(Customer.FULL_GRAPH)
+  Optional<Customer> findByEmailAndNormalizedEmailIsNull(String email);
+
+  /**
+   * Results are kept in the query cache when enabled, so the customer and its collections can be
+   * served from the second-level cache.
+   */
+  @EntityGraph(Customer.FULL_GRAPH)
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+  Optional<Customer> findWithFullProfileById(UUID id);
+
+  /*
+   * Bulk reads, callers bound the size of the IN list.
+   */
+
+  @EntityGraph(Customer.FULL_GRAPH)
+  List<Customer> findDistinctByIdIn(Collection<UUID> ids);
+
+  @EntityGraph(Customer.FULL_GRAPH)
+  List<Customer> findDistinctByNormalizedEmailIn(Collection<String> normalizedEmails);
+
+  @EntityGraph(Customer.FULL_GRAPH)
+  List<Customer> findDistinctByEmailInAndNormalizedEmailIsNull(Collection<String> emails);
+
+  /*
+   * Narrow single column reads for hot paths that don't need the full aggregate.
+   */
+
+  boolean existsByNormalizedEmail(String normalizedEmail);
+
+  boolean existsByEmailAndNormalizedEmailIsNull(String email);
+
+  @Query("SELECT c.loyaltyPoints FROM Customer c WHERE c.id = :id")
+  Optional<Integer> findLoyaltyPointsById(@Param("id") UUID id);
+
+  /**
+   * Atomically adds the delta to a customer's loyalty points if the current balance is at least
+   * the given minimum. An applied change versions the customer.
+   *
+   * @param id      the customer ID.
+   * @param delta   the signed change in points.
+   * @param minimum the balance required for the change to apply.
+   * @return the number of rows updated, 0 if no customer with the ID or the guard failed.
+   */
+  @Modifying
+  @Query("UPDATE Customer c SET c.loyaltyPoints = c.loyaltyPoints + :delta,"
+      + " c.version = c.version + 1"
+      + " WHERE c.id = :id AND c.loyaltyPoints >= :minimum")
+  int changeLoyaltyPoints(@Param("id") UUID id,
+                          @Param("delta") int delta,
+                          @Param("minimum") int minimum);
+
+  /**
+   * First keyset page, ordered by ID. Does not issue a count query.
+   */
+  @EntityGraph(Customer.SUMMARY_GRAPH)
+  @Query("SELECT c FROM Customer c ORDER BY c.id")
+  List<Customer> findFirstPage(Pageable pageable);
+
+  /**
+   * Keyset page of records with an ID strictly after the given one, ordered by ID.
+   */
+  @EntityGraph(Customer.SUMMARY_GRAPH)
+  @Query("SELECT c FROM Customer c WHERE c.id > :after ORDER BY c.id")
+  List<Customer> findPageAfter(@Param("after") UUID after, Pageable pageable);
 
-  Optional<Customer> findByEmail(String email);
+  /**
+   * Streams all records ordered by ID off a JDBC cursor. Must be consumed within a transaction and
+   * closed after use.
+   */
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+  @Query("SELECT c FROM Customer c ORDER BY c.id")
+  Stream<Customer> streamAll();
 }
@@ -0,0 +1,30 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.entity.Customer;
+import java.util.UUID;
+
+/**
+ * Explicit version increments for changes that would not otherwise version a customer.
+ */
+public interface CustomerVersionRepository {
+
+  /**
+   * Increments the version of a managed customer right away, locking its row until the
+   * transaction ends. Changes to the customer's addresses do not version it by themselves.
+   *
+   * @param customer the managed customer.
+   * @throws org.springframework.dao.OptimisticLockingFailureException if the customer was updated
+   *                                                                   since it was read.
+   */
+  void incrementVersion(Customer customer);
+
+  /**
+   * Increments the version of a customer that is not loaded, for changes written without the
+   * customer entity such as those to its payment methods. The customer must not be managed in the
+   * current persistence context, as that instance would keep the old version.
+   *
+   * @param id the customer ID.
+   * @return the number of rows updated, 0 if no customer with the ID.
+   */
+  int incrementVersionById(UUID id);
+}
@@ -0,0 +1,41 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.entity.Customer;
+import java.util.Set;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+public class CustomerVersionRepositoryImpl implements CustomerVersionRepository {
+
+  private static final String INCREMENT_SQL = "UPDATE customer SET version = version + 1"
+      + " WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  @Transactional
+  public void incrementVersion(Customer customer) {
+    entityManager.lock(customer, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+  }
+
+  @Override
+  @Transactional
+  public int incrementVersionById(UUID id) {
+    var updated = jdbcTemplate.update(INCREMENT_SQL, (Object) UuidBytes.toBytes(id));
+    if (updated > 0) {
+      SecondLevelCacheEvictions.evictCustomers(entityManagerFactory, Set.of(id));
+    }
+    return updated;
+  }
+}
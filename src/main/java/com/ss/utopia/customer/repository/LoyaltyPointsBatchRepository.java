@@ -0,0 +1,20 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import java.util.List;
+
+/**
+ * Batched loyalty point updates, bypassing the persistence context.
+ */
+public interface LoyaltyPointsBatchRepository {
+
+  /**
+   * Applies each delta as a guarded update in a single JDBC batch and transaction.
+   *
+   * <p>A decrement only applies if the current balance covers it.
+   *
+   * @param deltas the changes to apply, in order.
+   * @return for each delta, whether it was applied.
+   */
+  boolean[] batchChangeLoyaltyPoints(List<CustomerLoyaltyDeltaDto> deltas);
+}
@@ -0,0 +1,105 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+public class LoyaltyPointsBatchRepositoryImpl implements LoyaltyPointsBatchRepository {
+
+  private static final String UPDATE_SQL = "UPDATE customer"
+      + " SET loyalty_points = loyalty_points + ?, version = version + 1"
+      + " WHERE id = ? AND loyalty_points >= ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The balances are read and locked first, and which deltas apply is decided from them. Drivers
+   * rewriting batches, such as MySQL with {@code rewriteBatchedStatements}, report
+   * {@link Statement#SUCCESS_NO_INFO} rather than a count per statement, so the counts alone
+   * cannot tell a rejected decrement from an applied one.
+   */
+  @Override
+  @Transactional
+  public boolean[] batchChangeLoyaltyPoints(List<CustomerLoyaltyDeltaDto> deltas) {
+    if (deltas.isEmpty()) {
+      return new boolean[0];
+    }
+    var balances = lockBalances(deltas);
+
+    var applied = new boolean[deltas.size()];
+    var toApply = new ArrayList<CustomerLoyaltyDeltaDto>(deltas.size());
+    var toApplyIndexes = new ArrayList<Integer>(deltas.size());
+    for (var i = 0; i < deltas.size(); i++) {
+      var delta = deltas.get(i);
+      var balance = balances.get(delta.getCustomerId());
+      if (balance != null && balance + delta.getDelta() >= 0) {
+        balances.put(delta.getCustomerId(), balance + delta.getDelta());
+        toApply.add(delta);
+        toApplyIndexes.add(i);
+      }
+    }
+    if (toApply.isEmpty()) {
+      return applied;
+    }
+
+    var counts = jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+      @Override
+      public void setValues(PreparedStatement ps, int i) throws SQLException {
+        var delta = toApply.get(i).getDelta();
+        ps.setInt(1, delta);
+        ps.setBytes(2, UuidBytes.toBytes(toApply.get(i).getCustomerId()));
+        ps.setInt(3, Math.max(0, -delta));
+      }
+
+      @Override
+      public int getBatchSize() {
+        return toApply.size();
+      }
+    });
+
+    SecondLevelCacheEvictions.evictCustomers(entityManagerFactory,
+                                             toApply.stream()
+                                                 .map(CustomerLoyaltyDeltaDto::getCustomerId)
+                                                 .collect(Collectors.toSet()));
+
+    for (var i = 0; i < counts.length; i++) {
+      // the rows are locked, so the guard cannot reject what the balances allowed
+      applied[toApplyIndexes.get(i)] = counts[i] != 0;
+    }
+    return applied;
+  }
+
+  private Map<UUID, Integer> lockBalances(List<CustomerLoyaltyDeltaDto> deltas) {
+    var ids = deltas.stream()
+        .map(CustomerLoyaltyDeltaDto::getCustomerId)
+        .distinct()
+        .collect(Collectors.toList());
+    var sql = "SELECT id, loyalty_points FROM customer WHERE id IN ("
+        + String.join(", ", Collections.nCopies(ids.size(), "?"))
+        + ") FOR UPDATE";
+    var balances = new HashMap<UUID, Integer>();
+    jdbcTemplate.query(sql,
+                       (RowCallbackHandler) rs -> balances.put(
+                           UuidBytes.fromBytes(rs.getBytes("id")), rs.getInt("loyalty_points")),
+                       ids.stream().map(UuidBytes::toBytes).toArray());
+    return balances;
+  }
+}
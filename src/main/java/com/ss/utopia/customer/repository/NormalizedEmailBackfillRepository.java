@@ -0,0 +1,31 @@
+package com.ss.utopia.customer.repository;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Batched backfill of normalized emails for records written before they were introduced,
+ * bypassing the persistence context.
+ */
+public interface NormalizedEmailBackfillRepository {
+
+  /**
+   * Finds the emails of records without a normalized email.
+   *
+   * @param after the ID to continue after, or null to start from the first record.
+   * @param limit the maximum number of records.
+   * @return the emails by ID, in ID order.
+   */
+  Map<UUID, String> findEmailsToNormalize(UUID after, int limit);
+
+  /**
+   * Sets normalized emails in a single JDBC batch and transaction, without versioning the
+   * records. Records that already have a normalized email are left as they are.
+   *
+   * @param normalizedEmails the normalized emails by ID.
+   * @throws org.springframework.dao.DataIntegrityViolationException if a normalized email is
+   *                                                                 already taken by another
+   *                                                                 record.
+   */
+  void setNormalizedEmails(Map<UUID, String> normalizedEmails);
+}
@@ -0,0 +1,54 @@
+package com.ss.utopia.customer.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+public class NormalizedEmailBackfillRepositoryImpl implements NormalizedEmailBackfillRepository {
+
+  private static final String FIRST_SELECT_SQL = "SELECT id, email FROM customer"
+      + " WHERE normalized_email IS NULL"
+      + " ORDER BY id LIMIT ?";
+
+  private static final String NEXT_SELECT_SQL = "SELECT id, email FROM customer"
+      + " WHERE normalized_email IS NULL AND id > ?"
+      + " ORDER BY id LIMIT ?";
+
+  private static final String UPDATE_SQL = "UPDATE customer SET normalized_email = ?"
+      + " WHERE id = ? AND normalized_email IS NULL";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+
+  @Override
+  public Map<UUID, String> findEmailsToNormalize(UUID after, int limit) {
+    var emails = new LinkedHashMap<UUID, String>();
+    RowCallbackHandler collect = rs -> emails.put(UuidBytes.fromBytes(rs.getBytes("id")),
+                                                  rs.getString("email"));
+    if (after == null) {
+      jdbcTemplate.query(FIRST_SELECT_SQL, collect, limit);
+    } else {
+      jdbcTemplate.query(NEXT_SELECT_SQL, collect, UuidBytes.toBytes(after), limit);
+    }
+    return emails;
+  }
+
+  @Override
+  @Transactional
+  public void setNormalizedEmails(Map<UUID, String> normalizedEmails) {
+    var args = new ArrayList<Object[]>(normalizedEmails.size());
+    normalizedEmails.forEach((id, normalizedEmail) ->
+                                 args.add(new Object[]{normalizedEmail, UuidBytes.toBytes(id)}));
+    jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+    SecondLevelCacheEvictions.evictCustomers(entityManagerFactory, normalizedEmails.keySet());
+    // a lookup by the new normalized email may have been cached as not found
+    SecondLevelCacheEvictions.evictQueryResults(entityManagerFactory);
+  }
+}
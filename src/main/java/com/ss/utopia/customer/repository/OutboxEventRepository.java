@@ -0,0 +1,39 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.entity.OutboxEvent;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  List<OutboxEvent> findByStatusAndNextAttemptAtLessThanEqualOrderById(OutboxEvent.Status status,
+                                                                       Instant due,
+                                                                       Pageable pageable);
+
+  boolean existsByAggregateIdAndStatusAndIdLessThan(UUID aggregateId,
+                                                    OutboxEvent.Status status,
+                                                    Long id);
+
+  /**
+   * Leases a due event to the caller by moving its next attempt past the lease, so other relay
+   * instances skip it while it is being dispatched.
+   *
+   * @return 1 if the event was claimed, 0 if it was claimed elsewhere or is no longer pending.
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE OutboxEvent e SET e.nextAttemptAt = :leaseUntil"
+      + " WHERE e.id = :id AND e.status = 'PENDING' AND e.nextAttemptAt <= :now")
+  int claim(@Param("id") Long id,
+            @Param("now") Instant now,
+            @Param("leaseUntil") Instant leaseUntil);
+}
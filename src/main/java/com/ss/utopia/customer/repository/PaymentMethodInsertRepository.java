@@ -0,0 +1,20 @@
+package com.ss.utopia.customer.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Payment method inserts that do not require loading the owning customer.
+ */
+public interface PaymentMethodInsertRepository {
+
+  /**
+   * Inserts a payment method for the given owner in a single statement, only if the owner exists.
+   *
+   * @param ownerId    the customer ID.
+   * @param accountNum the account number.
+   * @param notes      the notes, may be null.
+   * @return the generated payment method ID, or empty if no customer with the given ID.
+   */
+  Optional<Long> insertForOwner(UUID ownerId, String accountNum, String notes);
+}
@@ -0,0 +1,40 @@
+package com.ss.utopia.customer.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+public class PaymentMethodInsertRepositoryImpl implements PaymentMethodInsertRepository {
+
+  // selecting from customer makes the insert a no-op for an unknown owner
+  private static final String INSERT_SQL = "INSERT INTO payment_method"
+      + " (owner_id, account_num, notes)"
+      + " SELECT id, ?, ? FROM customer WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+
+  @Override
+  @Transactional
+  public Optional<Long> insertForOwner(UUID ownerId, String accountNum, String notes) {
+    var keyHolder = new GeneratedKeyHolder();
+    var inserted = jdbcTemplate.update(connection -> {
+      var ps = connection.prepareStatement(INSERT_SQL, new String[] {"id"});
+      ps.setString(1, accountNum);
+      ps.setString(2, notes);
+      ps.setBytes(3, UuidBytes.toBytes(ownerId));
+      return ps;
+    }, keyHolder);
+
+    if (inserted == 0) {
+      return Optional.empty();
+    }
+    SecondLevelCacheEvictions.evictPaymentMethods(entityManagerFactory, ownerId);
+    return Optional.of(keyHolder.getKey().longValue());
+  }
+}
@@ -0,0 +1,45 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.entity.PaymentMethod;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Single statement access to {@link PaymentMethod} records.
+ *
+ * <p>Every query is scoped to the owning customer so a payment method ID belonging to another
+ * customer behaves as if it did not exist.
+ */
+@Repository
+public interface PaymentMethodRepository extends JpaRepository<PaymentMethod, Long>,
+    PaymentMethodInsertRepository {
+
+  Optional<PaymentMethod> findByIdAndOwnerId(Long id, UUID ownerId);
+
+  /**
+   * Updates the account number and notes of a payment method.
+   *
+   * @return the number of rows updated, 0 if not found for the owner.
+   */
+  @Modifying
+  @Query("UPDATE PaymentMethod p SET p.accountNum = :accountNum, p.notes = :notes"
+      + " WHERE p.id = :id AND p.ownerId = :ownerId")
+  int updateByIdAndOwnerId(@Param("id") Long id,
+                           @Param("ownerId") UUID ownerId,
+                           @Param("accountNum") String accountNum,
+                           @Param("notes") String notes);
+
+  /**
+   * Deletes a payment method.
+   *
+   * @return the number of rows deleted, 0 if not found for the owner.
+   */
+  @Modifying
+  @Query("DELETE FROM PaymentMethod p WHERE p.id = :id AND p.ownerId = :ownerId")
+  int deleteByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") UUID ownerId);
+}
@@ -0,0 +1,18 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.entity.PendingSignup;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PendingSignupRepository extends JpaRepository<PendingSignup, UUID> {
+
+  Optional<PendingSignup> findByIdempotencyKey(String idempotencyKey);
+
+  boolean existsByNormalizedEmailAndStatusAndCreatedAtAfter(String normalizedEmail,
+                                                            PendingSignup.Status status,
+                                                            Instant createdAfter);
+}
@@ -0,0 +1,58 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.entity.Customer;
+import java.util.Collection;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts records written with plain SQL from the second-level cache, which only sees writes made
+ * through Hibernate. Does nothing while the cache is disabled.
+ *
+ * <p>Evicts right away, for reads later in the same transaction, and again once the transaction
+ * completes, so a concurrent read cannot re-cache the state from before the write.
+ */
+final class SecondLevelCacheEvictions {
+
+  private static final String PAYMENT_METHODS_ROLE = Customer.class.getName() + ".paymentMethods";
+
+  private SecondLevelCacheEvictions() {
+  }
+
+  static void evictCustomers(EntityManagerFactory entityManagerFactory, Collection<UUID> ids) {
+    var cache = cache(entityManagerFactory);
+    evictNowAndAfterCompletion(() -> ids.forEach(id -> cache.evictEntityData(Customer.class, id)));
+  }
+
+  static void evictPaymentMethods(EntityManagerFactory entityManagerFactory, UUID ownerId) {
+    var cache = cache(entityManagerFactory);
+    evictNowAndAfterCompletion(() -> cache.evictCollectionData(PAYMENT_METHODS_ROLE, ownerId));
+  }
+
+  /**
+   * Evicts cached query results, which are only invalidated by writes made through Hibernate.
+   */
+  static void evictQueryResults(EntityManagerFactory entityManagerFactory) {
+    var cache = cache(entityManagerFactory);
+    evictNowAndAfterCompletion(cache::evictDefaultQueryRegion);
+  }
+
+  private static Cache cache(EntityManagerFactory entityManagerFactory) {
+    return entityManagerFactory.getCache().unwrap(Cache.class);
+  }
+
+  private static void evictNowAndAfterCompletion(Runnable eviction) {
+    eviction.run();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          eviction.run();
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.entity.Customer;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads of customers past the second-level cache, for callers that must see the current record.
+ */
+public interface UncachedCustomerRepository {
+
+  /**
+   * Finds a customer with its addresses and payment methods in the database, refreshing the
+   * second-level cache with what it reads. Only this query bypasses the cache, the rest of the
+   * session uses it as usual. A cache that is not invalidated by writes of other instances of this
+   * service may otherwise serve a record behind the database.
+   *
+   * <p>An instance already managed in the session is returned as it is, with any pending changes,
+   * so callers wanting the database state must read the customer through this method first.
+   *
+   * @param id the ID of the customer.
+   * @return the customer, or empty if none has the ID.
+   */
+  Optional<Customer> findUncachedWithFullProfileById(UUID id);
+}
@@ -0,0 +1,33 @@
+package com.ss.utopia.customer.repository;
+
+import com.ss.utopia.customer.entity.Customer;
+import java.util.Optional;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+public class UncachedCustomerRepositoryImpl implements UncachedCustomerRepository {
+
+  // both collections are fetched here so neither is read from its collection cache afterwards
+  private static final String FIND_WITH_FULL_PROFILE = "SELECT DISTINCT c FROM Customer c"
+      + " LEFT JOIN FETCH c.addresses"
+      + " LEFT JOIN FETCH c.paymentMethods"
+      + " WHERE c.id = :id";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  @Transactional
+  public Optional<Customer> findUncachedWithFullProfileById(UUID id) {
+    return entityManager.createQuery(FIND_WITH_FULL_PROFILE, Customer.class)
+        .setParameter("id", id)
+        .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.REFRESH)
+        .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+        .getResultStream()
+        .findFirst();
+  }
+}
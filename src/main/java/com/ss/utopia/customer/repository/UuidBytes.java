@@ -0,0 +1,28 @@
+package com.ss.utopia.customer.repository;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Converts UUIDs for JDBC statements against BINARY(16) columns.
+ */
+final class UuidBytes {
+
+  private UuidBytes() {
+  }
+
+  /**
+   * Matches the big-endian layout Hibernate uses for BINARY(16) UUID columns.
+   */
+  static byte[] toBytes(UUID id) {
+    return ByteBuffer.allocate(16)
+        .putLong(id.getMostSignificantBits())
+        .putLong(id.getLeastSignificantBits())
+        .array();
+  }
+
+  static UUID fromBytes(byte[] bytes) {
+    var buffer = ByteBuffer.wrap(bytes);
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+}
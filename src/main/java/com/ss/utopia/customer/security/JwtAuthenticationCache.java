@@ -0,0 +1,127 @@
+package com.ss.utopia.customer.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of verified JWTs to the principal and authorities read from their claims, so a
+ * token reused across requests is only verified and parsed once. Each request gets an
+ * authentication of its own, as authentications are mutable.
+ *
+ * <p>Tokens are keyed by their SHA-256 digest rather than held in memory. Each entry expires with
+ * its token, capped at the configured maximum time to live. Hit, miss and eviction counts are
+ * published to the {@link MeterRegistry} under the {@code cache.*} meters for the {@value #NAME}
+ * cache.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+  public static final String NAME = "jwt.authentications";
+
+  private final Cache<String, VerifiedToken> cache;
+
+  public JwtAuthenticationCache(JwtAuthenticationCacheConfiguration configuration,
+                                MeterRegistry meterRegistry) {
+    var maximumNanos = configuration.getMaximumTimeToLive().toNanos();
+    cache = Caffeine.newBuilder()
+        .maximumSize(configuration.getMaximumSize())
+        .expireAfter(new Expiry<String, VerifiedToken>() {
+          @Override
+          public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.getExpiresAt() == null) {
+              return maximumNanos;
+            }
+            var remaining = TimeUnit.MILLISECONDS.toNanos(
+                value.getExpiresAt().toEpochMilli() - System.currentTimeMillis());
+            return Math.max(0, Math.min(remaining, maximumNanos));
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                                        long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+  }
+
+  /**
+   * Gets the authentication for a token, verifying and caching it on a miss.
+   *
+   * <p>Concurrent misses for the same token share a single verification. Exceptions thrown by the
+   * verifier are propagated and nothing is cached.
+   *
+   * @param token    the raw token, without the header prefix.
+   * @param verifier verifies the token, returning null if it does not identify a user.
+   * @return a new authentication, or null if the verifier returned null.
+   */
+  public UsernamePasswordAuthenticationToken get(String token,
+                                                 Function<String, VerifiedToken> verifier) {
+    var verified = cache.get(digest(token), key -> verifier.apply(token));
+    return verified == null
+        ? null
+        : new UsernamePasswordAuthenticationToken(verified.getPrincipal(), null,
+                                                  verified.getAuthorities());
+  }
+
+  /**
+   * Discards all cached tokens, such as after the signing secret changes.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private static String digest(String token) {
+    try {
+      var hash = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException ex) {
+      // every JRE is required to provide SHA-256
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * A verified token's principal, authorities and expiry, null if the token does not expire.
+   */
+  @Value
+  public static class VerifiedToken {
+
+    JwtPrincipal principal;
+    List<GrantedAuthority> authorities;
+    Instant expiresAt;
+
+    public VerifiedToken(JwtPrincipal principal,
+                         Collection<? extends GrantedAuthority> authorities,
+                         Instant expiresAt) {
+      this.principal = principal;
+      this.authorities = List.copyOf(authorities);
+      this.expiresAt = expiresAt;
+    }
+  }
+}
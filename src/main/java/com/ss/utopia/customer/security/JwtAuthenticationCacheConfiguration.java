@@ -0,0 +1,24 @@
+package com.ss.utopia.customer.security;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.jwt-cache")
+public class JwtAuthenticationCacheConfiguration {
+
+  /**
+   * Maximum number of verified tokens held. Setting to 0 effectively disables caching.
+   */
+  @Getter @Setter
+  private long maximumSize = 10_000;
+
+  /**
+   * Upper bound on how long a verified token is held, regardless of its own expiry.
+   */
+  @Getter @Setter
+  private Duration maximumTimeToLive = Duration.ofMinutes(10);
+}
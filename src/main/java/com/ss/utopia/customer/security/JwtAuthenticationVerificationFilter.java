@@ -3,13 +3,18 @@ package com.ss.utopia.customer.security;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,12 +27,28 @@ import org.springframework.stereotype.Component;
 @Component
 public class JwtAuthenticationVerificationFilter extends BasicAuthenticationFilter {
 
+  public static final String AUTHENTICATION_TIMER = "security.jwt.authentication";
+  public static final String VERIFICATION_TIMER = "security.jwt.verification";
+
   private final SecurityConstants securityConstants;
+  private final JwtAuthenticationCache authenticationCache;
+  private final Timer authenticationTimer;
+  private final Timer verificationTimer;
+  private volatile Verifier verifier;
 
   public JwtAuthenticationVerificationFilter(AuthenticationManager authenticationManager,
-                                             SecurityConstants securityConstants) {
+                                             SecurityConstants securityConstants,
+                                             JwtAuthenticationCache authenticationCache,
+                                             MeterRegistry meterRegistry) {
     super(authenticationManager);
     this.securityConstants = securityConstants;
+    this.authenticationCache = authenticationCache;
+    authenticationTimer = Timer.builder(AUTHENTICATION_TIMER)
+        .description("Authentication of a request's JWT, including cached verifications")
+        .register(meterRegistry);
+    verificationTimer = Timer.builder(VERIFICATION_TIMER)
+        .description("Verification of a JWT missing from the cache")
+        .register(meterRegistry);
   }
 
   @Override
@@ -56,9 +77,15 @@ public class JwtAuthenticationVerificationFilter extends BasicAuthenticationFilt
       return null;
     }
 
-    var jwt = JWT.require(Algorithm.HMAC512(securityConstants.getJwtSecret()))
-        .build()
-        .verify(token.replace(securityConstants.getJwtHeaderPrefix(), ""));
+    var jwtVerifier = getVerifier();
+    var jwt = token.replace(securityConstants.getJwtHeaderPrefix(), "");
+    Function<String, JwtAuthenticationCache.VerifiedToken> timedVerify =
+        key -> verificationTimer.record(() -> verify(jwtVerifier, key));
+    return authenticationTimer.record(() -> authenticationCache.get(jwt, timedVerify));
+  }
+
+  private JwtAuthenticationCache.VerifiedToken verify(JWTVerifier jwtVerifier, String token) {
+    var jwt = jwtVerifier.verify(token);
 
     var subject = jwt.getSubject();
 
@@ -79,6 +106,29 @@ public class JwtAuthenticationVerificationFilter extends BasicAuthenticationFilt
         .userId(UUID.fromString(userId))
         .build();
 
-    return new UsernamePasswordAuthenticationToken(jwtPrincipal, null, authorities);
+    var expiresAt = jwt.getExpiresAt() == null ? null : jwt.getExpiresAt().toInstant();
+    return new JwtAuthenticationCache.VerifiedToken(jwtPrincipal, authorities, expiresAt);
+  }
+
+  /**
+   * Gets the verifier for the current secret, only building it on first use or when the secret
+   * changes. A changed secret also discards every token verified with the old one.
+   */
+  private JWTVerifier getVerifier() {
+    var secret = securityConstants.getJwtSecret();
+    var current = verifier;
+    if (current == null || !current.secret.equals(secret)) {
+      current = new Verifier(secret, JWT.require(Algorithm.HMAC512(secret)).build());
+      verifier = current;
+      authenticationCache.invalidateAll();
+    }
+    return current.jwtVerifier;
+  }
+
+  @RequiredArgsConstructor
+  private static class Verifier {
+
+    private final String secret;
+    private final JWTVerifier jwtVerifier;
   }
 }
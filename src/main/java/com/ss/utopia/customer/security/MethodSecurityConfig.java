@@ -0,0 +1,36 @@
+package com.ss.utopia.customer.security;
+
+import java.util.ArrayList;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.method.MethodSecurityMetadataSource;
+import org.springframework.security.access.vote.AbstractAccessDecisionManager;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
+
+/**
+ * Method security for the permission annotations, decided by the {@link PermissionVoter} from
+ * rules compiled by the {@link PermissionMetadataSource}.
+ *
+ * <p>{@code @PreAuthorize} remains available for one-off rules.
+ */
+@Configuration
+@EnableGlobalMethodSecurity(prePostEnabled = true)
+public class MethodSecurityConfig extends GlobalMethodSecurityConfiguration {
+
+  @Override
+  protected MethodSecurityMetadataSource customMethodSecurityMetadataSource() {
+    return new PermissionMetadataSource();
+  }
+
+  @Override
+  protected AccessDecisionManager accessDecisionManager() {
+    var voters = new ArrayList<AccessDecisionVoter<?>>();
+    voters.add(new PermissionVoter());
+    voters.addAll(((AbstractAccessDecisionManager) super.accessDecisionManager())
+                      .getDecisionVoters());
+    return new AffirmativeBased(voters);
+  }
+}
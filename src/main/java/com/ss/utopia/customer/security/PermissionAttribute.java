@@ -0,0 +1,93 @@
+package com.ss.utopia.customer.security;
+
+import com.ss.utopia.customer.security.permissions.Permission;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * A {@link Permission} compiled for a single method, with the roles resolved to authorities and
+ * the owner argument resolved to its position.
+ */
+final class PermissionAttribute implements ConfigAttribute {
+
+  private static final AuthenticationTrustResolver TRUST_RESOLVER =
+      new AuthenticationTrustResolverImpl();
+
+  private final Set<String> authorities;
+  private final boolean anonymous;
+  private final Permission.Owner owner;
+  private final int ownerIndex;
+  private final String description;
+
+  private PermissionAttribute(Set<String> authorities, boolean anonymous,
+                              Permission.Owner owner, int ownerIndex, String description) {
+    this.authorities = authorities;
+    this.anonymous = anonymous;
+    this.owner = owner;
+    this.ownerIndex = ownerIndex;
+    this.description = description;
+  }
+
+  /**
+   * Compiles the permission for the method.
+   *
+   * @throws IllegalStateException if the method has no parameter for the permission's owner.
+   */
+  static PermissionAttribute compile(Permission permission, Method method,
+                                     ParameterNameDiscoverer parameterNameDiscoverer) {
+    var authorities = Arrays.stream(permission.roles())
+        .map(UserRole::getRole)
+        .collect(Collectors.toUnmodifiableSet());
+
+    var owner = permission.owner();
+    var ownerIndex = -1;
+    if (owner != Permission.Owner.NONE) {
+      var names = parameterNameDiscoverer.getParameterNames(method);
+      ownerIndex = names == null ? -1 : Arrays.asList(names).indexOf(owner.getParameterName());
+      if (ownerIndex < 0) {
+        throw new IllegalStateException("No parameter named '" + owner.getParameterName()
+                                            + "' for owner " + owner + " on " + method);
+      }
+    }
+
+    var description = "Permission[roles=" + authorities + ", anonymous="
+        + permission.anonymous() + ", owner=" + owner + "]";
+    return new PermissionAttribute(authorities, permission.anonymous(), owner, ownerIndex,
+                                   description);
+  }
+
+  boolean isGranted(Authentication authentication, Object[] arguments) {
+    if (anonymous && TRUST_RESOLVER.isAnonymous(authentication)) {
+      return true;
+    }
+    for (GrantedAuthority authority : authentication.getAuthorities()) {
+      if (authorities.contains(authority.getAuthority())) {
+        return true;
+      }
+    }
+    return ownerIndex >= 0
+        && authentication.getPrincipal() instanceof JwtPrincipal
+        && owner.matches((JwtPrincipal) authentication.getPrincipal(), arguments[ownerIndex]);
+  }
+
+  /**
+   * Not representable as a string, so it is only handled by the {@link PermissionVoter}.
+   */
+  @Override
+  public String getAttribute() {
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return description;
+  }
+}
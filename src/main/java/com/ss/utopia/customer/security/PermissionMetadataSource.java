@@ -0,0 +1,45 @@
+package com.ss.utopia.customer.security;
+
+import com.ss.utopia.customer.security.permissions.Permission;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.method.AbstractMethodSecurityMetadataSource;
+import org.springframework.security.core.parameters.DefaultSecurityParameterNameDiscoverer;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Compiles the {@link Permission} declared by a method's permission annotation into a
+ * {@link PermissionAttribute}.
+ *
+ * <p>Attributes are cached per method by the method security infrastructure, so each rule is
+ * compiled once, when the annotated bean is proxied.
+ */
+public class PermissionMetadataSource extends AbstractMethodSecurityMetadataSource {
+
+  private final ParameterNameDiscoverer parameterNameDiscoverer =
+      new DefaultSecurityParameterNameDiscoverer();
+
+  @Override
+  public Collection<ConfigAttribute> getAttributes(Method method, Class<?> targetClass) {
+    if (method.getDeclaringClass() == Object.class) {
+      return Collections.emptyList();
+    }
+    var specificMethod = ClassUtils.getMostSpecificMethod(method, targetClass);
+    var permission = AnnotatedElementUtils.findMergedAnnotation(specificMethod, Permission.class);
+    if (permission == null) {
+      return Collections.emptyList();
+    }
+    return List.of(PermissionAttribute.compile(permission, specificMethod,
+                                               parameterNameDiscoverer));
+  }
+
+  @Override
+  public Collection<ConfigAttribute> getAllConfigAttributes() {
+    return null;
+  }
+}
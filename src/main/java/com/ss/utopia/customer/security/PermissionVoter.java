@@ -0,0 +1,37 @@
+package com.ss.utopia.customer.security;
+
+import java.util.Collection;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Decides access for methods with a compiled {@link PermissionAttribute}, abstaining for all
+ * others.
+ */
+public class PermissionVoter implements AccessDecisionVoter<MethodInvocation> {
+
+  @Override
+  public boolean supports(ConfigAttribute attribute) {
+    return attribute instanceof PermissionAttribute;
+  }
+
+  @Override
+  public boolean supports(Class<?> clazz) {
+    return MethodInvocation.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public int vote(Authentication authentication, MethodInvocation invocation,
+                  Collection<ConfigAttribute> attributes) {
+    for (var attribute : attributes) {
+      if (attribute instanceof PermissionAttribute) {
+        var granted = ((PermissionAttribute) attribute)
+            .isGranted(authentication, invocation.getArguments());
+        return granted ? ACCESS_GRANTED : ACCESS_DENIED;
+      }
+    }
+    return ACCESS_ABSTAIN;
+  }
+}
@@ -1,12 +1,16 @@
 package com.ss.utopia.customer.security;
 
 import com.ss.utopia.customer.controller.EndpointConstants;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
@@ -15,23 +19,34 @@ import org.springframework.web.cors.CorsUtils;
 
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true)
 @RequiredArgsConstructor
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
   private final SecurityConstants securityConstants;
+  private final JwtAuthenticationCache jwtAuthenticationCache;
+  private final MeterRegistry meterRegistry;
+  private final Environment environment;
 
   @Override
   protected void configure(HttpSecurity http) throws Exception {
-    http
+    var authorizeRequests = http
         .cors().and().csrf().disable()
-        .authorizeRequests()
+        .authorizeRequests();
+    if (ManagementPortType.get(environment) == ManagementPortType.DIFFERENT) {
+      // scraped without credentials from inside the cluster, only matches on the management port
+      authorizeRequests
+          .requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class)).permitAll();
+    }
+    authorizeRequests
         .requestMatchers(CorsUtils::isPreFlightRequest).permitAll()
         .requestMatchers(CorsUtils::isCorsRequest).permitAll()
         // permit all to allow unauthenticated creation
         .antMatchers(HttpMethod.POST, EndpointConstants.API_V_0_1_CUSTOMERS).permitAll()
         .antMatchers(HttpMethod.DELETE,
                      EndpointConstants.API_V_0_1_CUSTOMERS + "/confirm/**").permitAll()
+        // status of an unauthenticated asynchronous creation
+        .antMatchers(HttpMethod.GET, EndpointConstants.API_V_0_1_CUSTOMERS
+            + EndpointConstants.SIGNUPS + "/**").permitAll()
         .antMatchers(HttpMethod.GET, "/api-docs").permitAll()
         .antMatchers(HttpMethod.GET, "/swagger-ui.html")
         .permitAll()
@@ -40,7 +55,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         .anyRequest().authenticated()
         .and()
         .addFilter(new JwtAuthenticationVerificationFilter(authenticationManagerBean(),
-                                                           securityConstants))
+                                                           securityConstants,
+                                                           jwtAuthenticationCache,
+                                                           meterRegistry))
         .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
     ;
   }
@@ -1,11 +1,11 @@
 package com.ss.utopia.customer.security.permissions;
 
+import com.ss.utopia.customer.security.UserRole;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import org.springframework.security.access.prepost.PreAuthorize;
 
 @Retention(RetentionPolicy.RUNTIME)
-@PreAuthorize("hasRole('ADMIN')")
+@Permission(roles = UserRole.ADMIN)
 public @interface AdminOnlyPermission {
 
 }
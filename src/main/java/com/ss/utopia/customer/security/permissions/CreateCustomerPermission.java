@@ -1,8 +1,8 @@
 package com.ss.utopia.customer.security.permissions;
 
+import com.ss.utopia.customer.security.UserRole;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import org.springframework.security.access.prepost.PreAuthorize;
 
 /**
  * Permissions for creating a new Customer entity.
@@ -26,7 +26,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
  * They should be logged out to create a new, different record.
  */
 @Retention(RetentionPolicy.RUNTIME)
-@PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE','TRAVEL_AGENT') OR NOT isAuthenticated()")
+@Permission(roles = {UserRole.ADMIN, UserRole.EMPLOYEE, UserRole.TRAVEL_AGENT},
+    anonymous = true)
 public @interface CreateCustomerPermission {
 
 }
@@ -1,12 +1,11 @@
 package com.ss.utopia.customer.security.permissions;
 
+import com.ss.utopia.customer.security.UserRole;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import org.springframework.security.access.prepost.PreAuthorize;
 
 @Retention(RetentionPolicy.RUNTIME)
-@PreAuthorize("hasRole('ADMIN')"
-    + " OR @customerAuthenticationManager.customerIdMatches(authentication, #customerId)")
+@Permission(roles = UserRole.ADMIN, owner = Permission.Owner.CUSTOMER_ID)
 public @interface DeleteCustomerByIdPermission {
 
 }
@@ -1,11 +1,11 @@
 package com.ss.utopia.customer.security.permissions;
 
+import com.ss.utopia.customer.security.UserRole;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import org.springframework.security.access.prepost.PreAuthorize;
 
 @Retention(RetentionPolicy.RUNTIME)
-@PreAuthorize("hasAnyRole('ADMIN', 'TRAVEL_AGENT', 'EMPLOYEE') "
-    + " OR @customerAuthenticationManager.customerEmailMatches(authentication, #email)")
+@Permission(roles = {UserRole.ADMIN, UserRole.TRAVEL_AGENT, UserRole.EMPLOYEE},
+    owner = Permission.Owner.EMAIL)
 public @interface GetCustomerByEmailPermission {
 }
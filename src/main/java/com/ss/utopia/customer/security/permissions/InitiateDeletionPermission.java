@@ -0,0 +1,10 @@
+package com.ss.utopia.customer.security.permissions;
+
+import com.ss.utopia.customer.security.UserRole;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Permission(roles = UserRole.ADMIN, owner = Permission.Owner.DELETE_ACCOUNT)
+public @interface InitiateDeletionPermission {
+}
@@ -0,0 +1,11 @@
+package com.ss.utopia.customer.security.permissions;
+
+import com.ss.utopia.customer.security.UserRole;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Permission(roles = {UserRole.ADMIN, UserRole.TRAVEL_AGENT, UserRole.EMPLOYEE},
+    owner = Permission.Owner.LOOKUP)
+public @interface LookupCustomersPermission {
+}
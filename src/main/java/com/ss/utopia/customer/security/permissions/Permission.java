@@ -0,0 +1,99 @@
+package com.ss.utopia.customer.security.permissions;
+
+import com.ss.utopia.customer.dto.CustomerLookupDto;
+import com.ss.utopia.customer.dto.DeleteAccountDto;
+import com.ss.utopia.customer.security.JwtPrincipal;
+import com.ss.utopia.customer.security.UserRole;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the access rule of a permission annotation.
+ *
+ * <p>The rule is compiled once per annotated method into a plain Java check, rather than being
+ * evaluated as a SpEL expression on each call. Access is granted if the caller has any of the
+ * {@link #roles()}, is unauthenticated and {@link #anonymous()} is set, or is the customer the
+ * {@link #owner()} argument refers to.
+ */
+@Target(ElementType.ANNOTATION_TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Permission {
+
+  /**
+   * Roles granted access regardless of the arguments.
+   */
+  UserRole[] roles() default {};
+
+  /**
+   * Whether unauthenticated callers are granted access.
+   */
+  boolean anonymous() default false;
+
+  /**
+   * The argument identifying the customer record being accessed, if customers may access their
+   * own record.
+   */
+  Owner owner() default Owner.NONE;
+
+  enum Owner {
+    NONE(null) {
+      @Override
+      public boolean matches(JwtPrincipal principal, Object argument) {
+        return false;
+      }
+    },
+    CUSTOMER_ID("customerId") {
+      @Override
+      public boolean matches(JwtPrincipal principal, Object argument) {
+        return principal.getUserId().equals(argument);
+      }
+    },
+    EMAIL("email") {
+      @Override
+      public boolean matches(JwtPrincipal principal, Object argument) {
+        return principal.getEmail().equals(argument);
+      }
+    },
+    DELETE_ACCOUNT("deleteAccountDto") {
+      @Override
+      public boolean matches(JwtPrincipal principal, Object argument) {
+        return argument instanceof DeleteAccountDto
+            && principal.getUserId().equals(((DeleteAccountDto) argument).getId());
+      }
+    },
+    /**
+     * A customer may only look up their own ID and email.
+     */
+    LOOKUP("customerLookupDto") {
+      @Override
+      public boolean matches(JwtPrincipal principal, Object argument) {
+        if (!(argument instanceof CustomerLookupDto)) {
+          return false;
+        }
+        var lookupDto = (CustomerLookupDto) argument;
+        return lookupDto.getIds().stream().allMatch(principal.getUserId()::equals)
+            && lookupDto.getEmails().stream().allMatch(principal.getEmail()::equals);
+      }
+    };
+
+    private final String parameterName;
+
+    Owner(String parameterName) {
+      this.parameterName = parameterName;
+    }
+
+    /**
+     * The name of the method parameter holding the argument.
+     */
+    public String getParameterName() {
+      return parameterName;
+    }
+
+    /**
+     * Checks whether the argument refers to the principal's own record.
+     */
+    public abstract boolean matches(JwtPrincipal principal, Object argument);
+  }
+}
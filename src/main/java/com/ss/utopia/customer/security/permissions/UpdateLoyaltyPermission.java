@@ -1,10 +1,10 @@
 package com.ss.utopia.customer.security.permissions;
 
+import com.ss.utopia.customer.security.UserRole;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import org.springframework.security.access.prepost.PreAuthorize;
 
 @Retention(RetentionPolicy.RUNTIME)
-@PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE','TRAVEL_AGENT')")
+@Permission(roles = {UserRole.ADMIN, UserRole.EMPLOYEE, UserRole.TRAVEL_AGENT})
 public @interface UpdateLoyaltyPermission {
 }
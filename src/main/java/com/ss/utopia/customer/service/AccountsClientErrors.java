@@ -0,0 +1,27 @@
+package com.ss.utopia.customer.service;
+
+import com.ss.utopia.customer.exception.AccountsClientException;
+import com.ss.utopia.customer.exception.AccountsServiceUnavailableException;
+import feign.FeignException;
+import feign.RetryableException;
+
+/**
+ * Classifies failures of calls to the accounts service.
+ */
+final class AccountsClientErrors {
+
+  private AccountsClientErrors() {
+  }
+
+  /**
+   * Only server errors and I/O failures are worth retrying. Client errors, such as the email
+   * already having an account, will not succeed on a retry. Calls rejected by an open circuit or
+   * a full bulkhead are retried once the accounts service recovers.
+   */
+  static boolean isRetryable(RuntimeException ex) {
+    return ex instanceof FeignException.FeignServerException
+        || ex instanceof RetryableException
+        || ex instanceof AccountsClientException
+        || ex instanceof AccountsServiceUnavailableException;
+  }
+}
@@ -1,27 +1,38 @@
 package com.ss.utopia.customer.service;
 
 import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.CustomerLookupResultDto;
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import com.ss.utopia.customer.dto.CustomerPageDto;
+import com.ss.utopia.customer.dto.LoyaltyUpdateResultDto;
 import com.ss.utopia.customer.dto.PaymentMethodDto;
 import com.ss.utopia.customer.dto.UpdateCustomerDto;
 import com.ss.utopia.customer.dto.UpdateCustomerLoyaltyDto;
 import com.ss.utopia.customer.entity.Customer;
 import com.ss.utopia.customer.entity.PaymentMethod;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface CustomerService {
 
-  List<Customer> getAllCustomers();
+  CustomerPageDto getCustomerPage(String cursor, int limit);
+
+  void streamAllCustomers(Consumer<Customer> action);
 
   Customer getCustomerById(UUID id);
 
   Customer getCustomerByEmail(String email);
 
+  CustomerLookupResultDto lookupCustomers(Collection<UUID> ids, Collection<String> emails);
+
   Customer createNewCustomer(CreateCustomerDto customerDto);
 
   void removeCustomerById(UUID id);
 
-  Customer updateCustomer(UUID customerId, UpdateCustomerDto updateCustomerDto);
+  Customer updateCustomer(UUID customerId, UpdateCustomerDto updateCustomerDto,
+                          Long expectedVersion);
 
   Long addPaymentMethod(UUID id, PaymentMethodDto paymentMethodDto);
 
@@ -33,5 +44,7 @@ public interface CustomerService {
 
   Integer getCustomerLoyaltyPoints(UUID id);
   
-  void updateCustomerLoyaltyPoints(UUID id, UpdateCustomerLoyaltyDto customerLoyaltyDto);
+  Integer updateCustomerLoyaltyPoints(UUID id, UpdateCustomerLoyaltyDto customerLoyaltyDto);
+
+  List<LoyaltyUpdateResultDto> updateCustomerLoyaltyPoints(List<CustomerLoyaltyDeltaDto> deltas);
 }
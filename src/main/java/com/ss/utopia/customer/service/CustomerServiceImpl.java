@@ -1,85 +1,262 @@
 package com.ss.utopia.customer.service;
 
+import com.ss.utopia.customer.cache.CustomerCache;
 import com.ss.utopia.customer.client.AccountsClient;
-import com.ss.utopia.customer.client.authentication.ServiceAuthenticationProvider;
 import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.CustomerLookupResultDto;
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import com.ss.utopia.customer.dto.CustomerPageDto;
+import com.ss.utopia.customer.dto.LoyaltyUpdateResultDto;
 import com.ss.utopia.customer.dto.PaymentMethodDto;
 import com.ss.utopia.customer.dto.UpdateCustomerDto;
 import com.ss.utopia.customer.dto.UpdateCustomerLoyaltyDto;
 import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.entity.OutboxEvent;
 import com.ss.utopia.customer.entity.PaymentMethod;
 import com.ss.utopia.customer.exception.AccountsClientException;
+import com.ss.utopia.customer.exception.CustomerVersionMismatchException;
 import com.ss.utopia.customer.exception.DuplicateEmailException;
 import com.ss.utopia.customer.exception.IllegalPointChangeException;
+import com.ss.utopia.customer.exception.InvalidCursorException;
 import com.ss.utopia.customer.exception.NoSuchCustomerException;
 import com.ss.utopia.customer.exception.NoSuchPaymentMethod;
 import com.ss.utopia.customer.mapper.CustomerDtoMapper;
+import com.ss.utopia.customer.repository.ConstraintViolations;
 import com.ss.utopia.customer.repository.CustomerRepository;
+import com.ss.utopia.customer.repository.OutboxEventRepository;
+import com.ss.utopia.customer.repository.PaymentMethodRepository;
+import io.micrometer.core.annotation.Timed;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
+  public static final String TIMER = "customer.service";
+  public static final int MAX_PAGE_SIZE = 1000;
+  public static final int LOYALTY_BATCH_SIZE = 500;
+  public static final int LOOKUP_CHUNK_SIZE = 500;
+  public static final int STREAM_CHUNK_SIZE = Customer.COLLECTION_BATCH_SIZE;
+
   private final CustomerRepository customerRepository;
+  private final PaymentMethodRepository paymentMethodRepository;
   private final AccountsClient accountsClient;
-  private final ServiceAuthenticationProvider serviceAuthenticationProvider;
+  private final OutboxEventRepository outboxEventRepository;
+  private final CustomerCache customerCache;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Gets a single page of {@link Customer} records ordered by ID.
+   *
+   * <p>Uses keyset pagination on the ID so the cost of a page does not grow with its depth.
+   *
+   * @param cursor the continuation token of the previous page, or null for the first page.
+   * @param limit  the maximum number of records to return, clamped to [1, {@value MAX_PAGE_SIZE}].
+   * @return the page of customers and the continuation token for the next page, if any.
+   * @throws InvalidCursorException if the cursor cannot be decoded.
+   */
+  @Override
+  @Timed(TIMER)
+  @Transactional(readOnly = true)
+  public CustomerPageDto getCustomerPage(String cursor, int limit) {
+    var size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    // fetch one extra record to know whether another page follows
+    var pageable = PageRequest.of(0, size + 1);
+
+    var customers = cursor == null || cursor.isBlank()
+        ? customerRepository.findFirstPage(pageable)
+        : customerRepository.findPageAfter(decodeCursor(cursor), pageable);
+
+    var page = customers.size() <= size ? customers : customers.subList(0, size);
+    // each collection is batch loaded for the whole page on first access
+    page.forEach(customer -> {
+      Hibernate.initialize(customer.getAddresses());
+      Hibernate.initialize(customer.getPaymentMethods());
+    });
+
+    if (customers.size() <= size) {
+      return new CustomerPageDto(page, null);
+    }
+    return new CustomerPageDto(page, encodeCursor(page.get(size - 1).getId()));
+  }
 
   /**
-   * Gets all {@link Customer} records.
+   * Streams every {@link Customer} record ordered by ID to the given action.
+   *
+   * <p>Records are read off a JDBC cursor in chunks of {@value STREAM_CHUNK_SIZE}, and detached
+   * once handled so memory use stays constant regardless of table size. The collections of a
+   * chunk are batch loaded together while its records are still attached.
    *
-   * @return a list of all customers.
+   * @param action the action to perform for each customer.
    */
   @Override
-  public List<Customer> getAllCustomers() {
-    return customerRepository.findAll();
+  @Timed(TIMER)
+  @Transactional(readOnly = true)
+  public void streamAllCustomers(Consumer<Customer> action) {
+    try (var customers = customerRepository.streamAll()) {
+      var chunk = new ArrayList<Customer>(STREAM_CHUNK_SIZE);
+      customers.forEach(customer -> {
+        chunk.add(customer);
+        if (chunk.size() == STREAM_CHUNK_SIZE) {
+          streamChunk(chunk, action);
+        }
+      });
+      streamChunk(chunk, action);
+    }
+  }
+
+  private void streamChunk(List<Customer> chunk, Consumer<Customer> action) {
+    chunk.forEach(customer -> {
+      Hibernate.initialize(customer.getAddresses());
+      Hibernate.initialize(customer.getPaymentMethods());
+    });
+    chunk.forEach(action);
+    chunk.forEach(entityManager::detach);
+    chunk.clear();
   }
 
   /**
    * Gets a {@link Customer} record given an ID.
    *
+   * <p>Served from the {@link CustomerCache} when possible. Every write to a customer, its
+   * payment methods or its loyalty points versions it, so a cached record's version always names
+   * the state it was loaded at. The returned record is shared and must not be modified.
+   *
    * @param id the ID of the customer.
    * @return the record with the given ID.
    * @throws IllegalArgumentException if id is null.
    * @throws NoSuchCustomerException  if a customer with the ID cannot be found.
    */
   @Override
+  @Timed(TIMER)
+  @Transactional(readOnly = true)
   public Customer getCustomerById(UUID id) {
     notNull(id);
-    return customerRepository.findById(id)
+    return customerCache.getById(id, customerRepository::findWithFullProfileById)
         .orElseThrow(() -> new NoSuchCustomerException(id));
   }
 
+  /**
+   * Gets a {@link Customer} record given an email, regardless of its case and surrounding
+   * whitespace. Records whose normalized email is not backfilled yet are found by their exact
+   * email.
+   *
+   * <p>Served from the {@link CustomerCache} when possible. The returned record is shared and
+   * must not be modified.
+   *
+   * @param email the email of the customer.
+   * @return the record with the given email.
+   * @throws IllegalArgumentException if email is null.
+   * @throws NoSuchCustomerException  if a customer with the email cannot be found.
+   */
   @Override
+  @Timed(TIMER)
+  @Transactional(readOnly = true)
   public Customer getCustomerByEmail(String email) {
     notNull(email);
-    return customerRepository.findByEmail(email)
+    return customerCache.getByEmail(email, normalizedEmail -> findByEmail(normalizedEmail, email))
         .orElseThrow(() -> new NoSuchCustomerException(email));
   }
 
+  /**
+   * Gets many {@link Customer} records at once by ID and by email.
+   *
+   * <p>Served from the {@link CustomerCache} when possible. The rest are loaded with
+   * {@code IN} queries of up to {@value LOOKUP_CHUNK_SIZE} keys. The returned records are shared
+   * and must not be modified.
+   *
+   * @param ids    the IDs to look up, duplicates are ignored.
+   * @param emails the emails to look up in any case, duplicates are ignored.
+   * @return the records found by each requested ID and email, and those not found.
+   * @throws IllegalArgumentException if ids or emails is null.
+   */
+  @Override
+  @Timed(TIMER)
+  @Transactional(readOnly = true)
+  public CustomerLookupResultDto lookupCustomers(Collection<UUID> ids, Collection<String> emails) {
+    notNull(ids);
+    notNull(emails);
+
+    var requestedIds = new LinkedHashSet<>(ids);
+    var requestedEmails = new LinkedHashSet<>(emails);
+    var foundById = customerCache.getAllById(
+        requestedIds, missing -> findInChunks(missing, customerRepository::findDistinctByIdIn));
+    var foundByEmail = customerCache.getAllByEmail(
+        requestedEmails, missing -> findByEmails(missing, requestedEmails));
+
+    var result = CustomerLookupResultDto.builder()
+        .customersById(new LinkedHashMap<>())
+        .customersByEmail(new LinkedHashMap<>())
+        .missingIds(new ArrayList<>())
+        .missingEmails(new ArrayList<>())
+        .build();
+    for (var id : requestedIds) {
+      var customer = foundById.get(id);
+      if (customer == null) {
+        result.getMissingIds().add(id);
+      } else {
+        result.getCustomersById().put(id, customer);
+      }
+    }
+    for (var email : requestedEmails) {
+      var customer = foundByEmail.get(Customer.normalizeEmail(email));
+      if (customer == null) {
+        result.getMissingEmails().add(email);
+      } else {
+        result.getCustomersByEmail().put(email, customer);
+      }
+    }
+    return result;
+  }
+
   /**
    * Creates a new {@link Customer} record.
    *
-   * <p>Does not allow creation if a record with an existing email is present.
+   * <p>Does not allow creation if a record with an existing email is present. The email is
+   * checked before the user account is created, so a known duplicate never reaches the accounts
+   * service. A duplicate inserted concurrently is still caught by the unique constraint.
    *
    * @param customerDto a valid {@link UpdateCustomerDto}.
    * @return the created customer record.
    * @throws DuplicateEmailException if a record already exists with the given email.
    */
   @Override
+  @Timed(TIMER)
   public Customer createNewCustomer(CreateCustomerDto customerDto) {
     var customer = CustomerDtoMapper.map(customerDto);
 
-    customerRepository.findByEmail(customer.getEmail())
-        .ifPresent(c -> {
-          throw new DuplicateEmailException(c.getEmail());
-        });
+    if (customerRepository.existsByNormalizedEmail(customer.getNormalizedEmail())
+        || customerRepository.existsByEmailAndNormalizedEmailIsNull(customer.getEmail())) {
+      throw new DuplicateEmailException(customer.getEmail());
+    }
 
     var accountDto = CustomerDtoMapper.createUserAccountDto(customerDto);
 
@@ -91,42 +268,71 @@ public class CustomerServiceImpl implements CustomerService {
     }
     customer.setId(uuid);
 
-    return customerRepository.save(customer);
+    try {
+      return customerRepository.save(customer);
+    } catch (DataIntegrityViolationException ex) {
+      throw translate(ex, customer.getEmail());
+    }
   }
 
   /**
-   * Updates an existing {@link Customer} account.
+   * Updates an existing {@link Customer} account in place.
    *
-   * @param updateCustomerDto The {@link Customer} account to update.
-   * @return the updated {@link Customer} from saving changes.
-   * @throws NoSuchCustomerException if no Customer found with the ID.
-   * @throws DuplicateEmailException if a different record exists with the same email as the update
-   *                                 information.
+   * <p>Only the profile and primary address are changed, so loyalty points and payment methods
+   * changed concurrently are kept. Only changed columns are written, and nothing at all if
+   * nothing changed. A duplicate email is detected by the unique constraint when the change is
+   * written, rather than by a query beforehand. An email change is propagated to the accounts
+   * service by the {@link OutboxRelay} once the update commits.
+   *
+   * @param customerId        the ID of the customer to update.
+   * @param updateCustomerDto the new profile and address.
+   * @param expectedVersion   the version the update is based on, or null to update any version.
+   * @return the updated {@link Customer}, with its new version.
+   * @throws NoSuchCustomerException           if no Customer found with the ID.
+   * @throws DuplicateEmailException           if a different record exists with the same email as
+   *                                           the update information.
+   * @throws CustomerVersionMismatchException  if the customer is no longer at the expected version.
+   * @throws OptimisticLockingFailureException if no version was expected and another update
+   *                                           committed first.
    */
   @Override
-  public Customer updateCustomer(UUID customerId, @Valid UpdateCustomerDto updateCustomerDto) {
+  @Timed(TIMER)
+  @Transactional
+  public Customer updateCustomer(UUID customerId,
+                                 @Valid UpdateCustomerDto updateCustomerDto,
+                                 Long expectedVersion) {
     notNull(customerId);
 
-    var duplicateEmail = customerRepository.findByEmail(updateCustomerDto.getEmail())
-        .stream()
-        .anyMatch(customer -> !customer.getId().equals(customerId));
-
-    if (duplicateEmail) {
-      throw new DuplicateEmailException(updateCustomerDto.getEmail());
+    var customer = findCustomer(customerId);
+    if (expectedVersion != null && !expectedVersion.equals(customer.getVersion())) {
+      throw new CustomerVersionMismatchException(customerId, expectedVersion);
     }
 
-    var oldValue = getCustomerById(customerId);
-    var newValue = CustomerDtoMapper.map(updateCustomerDto);
-
-    if (!oldValue.getEmail().equals(newValue.getEmail())) {
-      var header = serviceAuthenticationProvider.getAuthorizationHeader();
-      accountsClient.updateCustomerEmail(header, oldValue.getId(), newValue.getEmail());
+    var oldEmail = customer.getEmail();
+    if (!oldEmail.equals(updateCustomerDto.getEmail())) {
+      outboxEventRepository.save(OutboxEvent.pending(OutboxEvent.Type.UPDATE_CUSTOMER_EMAIL,
+                                                     customerId,
+                                                     updateCustomerDto.getEmail()));
     }
 
-    // set from old payment methods or it'll be erased
-    newValue.setPaymentMethods(oldValue.getPaymentMethods());
-    newValue.setId(customerId);
-    return customerRepository.save(newValue);
+    var profileChanged = CustomerDtoMapper.updateProfile(customer, updateCustomerDto);
+    var addressChanged = CustomerDtoMapper.updateAddress(customer, updateCustomerDto);
+    try {
+      if (addressChanged && !profileChanged) {
+        customerRepository.incrementVersion(customer);
+      }
+      // surface a concurrent update or a duplicate email here rather than at commit
+      customerRepository.flush();
+    } catch (OptimisticLockingFailureException ex) {
+      if (expectedVersion == null) {
+        throw ex;
+      }
+      throw new CustomerVersionMismatchException(customerId, expectedVersion);
+    } catch (DataIntegrityViolationException ex) {
+      throw translate(ex, updateCustomerDto.getEmail());
+    }
+    customerCache.evictAfterCommit(customerId, oldEmail, customer.getEmail());
+    return customer;
   }
 
   /**
@@ -135,11 +341,18 @@ public class CustomerServiceImpl implements CustomerService {
    * @param id the ID of the customer to remove.
    */
   @Override
+  @Timed(TIMER)
+  @Transactional
   public void removeCustomerById(UUID id) {
     notNull(id);
 
-    customerRepository.findById(id)
-        .ifPresent(customerRepository::delete);
+    // full profile so the cascaded deletes don't load the addresses separately, the customer
+    // stays managed until deleted rather than being loaded again to be merged
+    customerRepository.findWithFullProfileById(id)
+        .ifPresent(customer -> {
+          customerRepository.delete(customer);
+          customerCache.evictAfterCommit(id, customer.getEmail());
+        });
   }
 
   /**
@@ -154,18 +367,13 @@ public class CustomerServiceImpl implements CustomerService {
    *                                 record.
    */
   @Override
+  @Timed(TIMER)
+  @Transactional(readOnly = true)
   public PaymentMethod getPaymentMethod(UUID customerId, Long paymentId) {
     notNull(customerId, paymentId);
 
-    return customerRepository.findById(customerId)
-        .map(customer -> customer.getPaymentMethods()
-            .stream()
-            .filter(paymentMethod -> paymentMethod.getId().equals(paymentId))
-            // sanity check, don't allow updates if not owner
-            .filter(paymentMethod -> paymentMethod.getOwnerId().equals(customerId))
-            .findFirst()
-            .orElseThrow(() -> new NoSuchPaymentMethod(customerId, paymentId)))
-        .orElseThrow(() -> new NoSuchCustomerException(customerId));
+    return paymentMethodRepository.findByIdAndOwnerId(paymentId, customerId)
+        .orElseThrow(() -> paymentMethodNotFound(customerId, paymentId));
   }
 
   /**
@@ -177,26 +385,18 @@ public class CustomerServiceImpl implements CustomerService {
    * @throws NoSuchCustomerException if no customer record found with the given ID.
    */
   @Override
+  @Timed(TIMER)
+  @Transactional
   public Long addPaymentMethod(UUID customerId, PaymentMethodDto paymentMethodDto) {
-    notNull(customerId);
-
-    var customer = getCustomerById(customerId);
-    var method = PaymentMethod.builder()
-        .ownerId(customerId)
-        .accountNum(paymentMethodDto.getAccountNum())
-        .notes(paymentMethodDto.getNotes())
-        .build();
-    customer.getPaymentMethods().add(method);
+    notNull(customerId, paymentMethodDto);
 
-    customer = customerRepository.save(customer);
-
-    // get the ID from the created payment method and return it
-    return customer.getPaymentMethods()
-        .stream()
-        .filter(m -> m.getAccountNum().equals(method.getAccountNum()))
-        .mapToLong(PaymentMethod::getId)
-        .findFirst()
-        .orElseThrow();
+    var paymentId = paymentMethodRepository
+        .insertForOwner(customerId, paymentMethodDto.getAccountNum(), paymentMethodDto.getNotes())
+        .orElseThrow(() -> new NoSuchCustomerException(customerId));
+    // payment methods are part of the record, and so of its ETag
+    customerRepository.incrementVersionById(customerId);
+    customerCache.evictAfterCommit(customerId);
+    return paymentId;
   }
 
   /**
@@ -211,25 +411,22 @@ public class CustomerServiceImpl implements CustomerService {
    *                                 record.
    */
   @Override
+  @Timed(TIMER)
+  @Transactional
   public void updatePaymentMethod(UUID customerId,
                                   Long paymentId,
                                   PaymentMethodDto paymentMethodDto) {
     notNull(customerId, paymentId, paymentMethodDto);
 
-    var customer = getCustomerById(customerId);
-
-    customer.getPaymentMethods()
-            .stream()
-            .filter(m -> m.getId().equals(paymentId))
-            .findFirst()
-            .ifPresentOrElse(method -> {  // update method if present
-              method.setAccountNum(paymentMethodDto.getAccountNum());
-              method.setNotes(paymentMethodDto.getNotes());
-              customerRepository.save(customer);
-            },
-              () -> { // else throw ex
-                throw new NoSuchPaymentMethod(customerId, paymentId);
-              });
+    var updated = paymentMethodRepository.updateByIdAndOwnerId(paymentId,
+                                                               customerId,
+                                                               paymentMethodDto.getAccountNum(),
+                                                               paymentMethodDto.getNotes());
+    if (updated == 0) {
+      throw paymentMethodNotFound(customerId, paymentId);
+    }
+    customerRepository.incrementVersionById(customerId);
+    customerCache.evictAfterCommit(customerId);
   }
 
   /**
@@ -240,38 +437,211 @@ public class CustomerServiceImpl implements CustomerService {
    * @throws NoSuchCustomerException if no customer record found with the given ID.
    */
   @Override
+  @Timed(TIMER)
+  @Transactional
   public void removePaymentMethod(UUID customerId, Long paymentId) {
     notNull(customerId, paymentId);
 
-    var customer = getCustomerById(customerId);
-    customer.getPaymentMethods()
-        .removeIf(paymentMethod -> paymentMethod.getId().equals(paymentId));
-    customerRepository.save(customer);
+    var deleted = paymentMethodRepository.deleteByIdAndOwnerId(paymentId, customerId);
+    if (deleted == 0) {
+      if (!customerRepository.existsById(customerId)) {
+        throw new NoSuchCustomerException(customerId);
+      }
+      return;
+    }
+    customerRepository.incrementVersionById(customerId);
+    customerCache.evictAfterCommit(customerId);
   }
 
+  /**
+   * Gets the loyalty points of a {@link Customer}.
+   *
+   * <p>Uses the cached record if present, otherwise reads only the balance column.
+   *
+   * @param id the customer ID.
+   * @return the loyalty point balance.
+   * @throws NoSuchCustomerException if no customer record found with the given ID.
+   */
   @Override
+  @Timed(TIMER)
+  @Transactional(readOnly = true)
   public Integer getCustomerLoyaltyPoints(UUID id) {
-    return getCustomerById(id).getLoyaltyPoints();
+    notNull(id);
+    return customerCache.getIfPresent(id)
+        .map(Customer::getLoyaltyPoints)
+        .or(() -> customerRepository.findLoyaltyPointsById(id))
+        .orElseThrow(() -> new NoSuchCustomerException(id));
   }
 
+  /**
+   * Changes the loyalty points of a {@link Customer} with a single guarded SQL update.
+   *
+   * <p>The balance is never read into the application before the change, so concurrent updates
+   * cannot overwrite each other. The new balance is then read by a second statement, as MySQL has
+   * no {@code UPDATE ... RETURNING}. An applied update holds the row lock until the transaction
+   * ends, so the read that follows it returns the balance this update left.
+   *
+   * @param id                 the customer ID.
+   * @param customerLoyaltyDto the points to change and whether to increment or decrement.
+   * @return the new balance.
+   * @throws NoSuchCustomerException     if no customer record found with the given ID.
+   * @throws IllegalPointChangeException if the decrement would leave a negative balance.
+   */
   @Override
-  public void updateCustomerLoyaltyPoints(UUID id, UpdateCustomerLoyaltyDto customerLoyaltyDto) {
-    var customer = getCustomerById(id);
-
-    var points = customer.getLoyaltyPoints();
-    if (customerLoyaltyDto.getIncrement()) {
-      //If loyalty point maximum is ever added, throw IllegalPointChange here
-      points += customerLoyaltyDto.getPointsToChange();
-    } else {
-      points -= customerLoyaltyDto.getPointsToChange();
-      if (points < 0) {
-        throw new IllegalPointChangeException(id,
-                customer.getLoyaltyPoints(),
-                customerLoyaltyDto.getPointsToChange());
+  @Timed(TIMER)
+  @Transactional
+  public Integer updateCustomerLoyaltyPoints(UUID id,
+                                             UpdateCustomerLoyaltyDto customerLoyaltyDto) {
+    notNull(id, customerLoyaltyDto);
+
+    //If loyalty point maximum is ever added, guard it here
+    var points = customerLoyaltyDto.getPointsToChange();
+    var delta = customerLoyaltyDto.getIncrement() ? points : -points;
+    var minimum = Math.max(0, -delta);
+
+    var updated = customerRepository.changeLoyaltyPoints(id, delta, minimum);
+    var balance = customerRepository.findLoyaltyPointsById(id)
+        .orElseThrow(() -> new NoSuchCustomerException(id));
+
+    if (updated == 0) {
+      throw new IllegalPointChangeException(id, balance, points);
+    }
+    customerCache.evictAfterCommit(id);
+    return balance;
+  }
+
+  /**
+   * Applies many loyalty point changes using batched guarded SQL updates.
+   *
+   * <p>Changes are applied in order, in chunks of {@value LOYALTY_BATCH_SIZE} with one JDBC
+   * batch and transaction per chunk. A failed item does not affect the others.
+   *
+   * @param deltas the changes to apply.
+   * @return the outcome of each change, in the same order.
+   */
+  @Override
+  @Timed(TIMER)
+  public List<LoyaltyUpdateResultDto> updateCustomerLoyaltyPoints(
+      List<CustomerLoyaltyDeltaDto> deltas) {
+    notNull(deltas);
+
+    var results = new ArrayList<LoyaltyUpdateResultDto>(deltas.size());
+    for (var start = 0; start < deltas.size(); start += LOYALTY_BATCH_SIZE) {
+      var chunk = deltas.subList(start, Math.min(start + LOYALTY_BATCH_SIZE, deltas.size()));
+      var applied = customerRepository.batchChangeLoyaltyPoints(chunk);
+
+      for (var i = 0; i < chunk.size(); i++) {
+        var delta = chunk.get(i);
+        var result = LoyaltyUpdateResultDto.builder()
+            .customerId(delta.getCustomerId())
+            .success(applied[i]);
+        if (applied[i]) {
+          customerCache.evict(delta.getCustomerId());
+        } else {
+          result.error(describeFailure(delta));
+        }
+        results.add(result.build());
       }
     }
-    customer.setLoyaltyPoints(points);
-    customerRepository.save(customer);
+    return results;
+  }
+
+  private String describeFailure(CustomerLoyaltyDeltaDto delta) {
+    var id = delta.getCustomerId();
+    return customerRepository.findLoyaltyPointsById(id)
+        .map(balance -> new IllegalPointChangeException(id, balance, delta.getPointsToChange()))
+        .map(RuntimeException::getMessage)
+        .orElseGet(() -> new NoSuchCustomerException(id).getMessage());
+  }
+
+  /**
+   * Runs an {@code IN} query over the keys in chunks, bounding the size of each statement.
+   */
+  private static <T> List<Customer> findInChunks(Collection<T> keys,
+                                                 Function<List<T>, List<Customer>> query) {
+    var keyList = new ArrayList<>(keys);
+    var found = new ArrayList<Customer>(keyList.size());
+    for (var start = 0; start < keyList.size(); start += LOOKUP_CHUNK_SIZE) {
+      found.addAll(query.apply(
+          keyList.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, keyList.size()))));
+    }
+    return found;
+  }
+
+  /**
+   * Loads a customer by normalized email, falling back to the exact email for a record whose
+   * normalized email is not backfilled yet.
+   */
+  private Optional<Customer> findByEmail(String normalizedEmail, String email) {
+    return customerRepository.findByNormalizedEmail(normalizedEmail)
+        .or(() -> customerRepository.findByEmailAndNormalizedEmailIsNull(email));
+  }
+
+  /**
+   * Loads customers by normalized email, falling back to the exact requested emails for records
+   * whose normalized email is not backfilled yet.
+   */
+  private List<Customer> findByEmails(Set<String> normalizedEmails, Collection<String> emails) {
+    var found = findInChunks(normalizedEmails,
+                             customerRepository::findDistinctByNormalizedEmailIn);
+    var unresolved = new HashSet<>(normalizedEmails);
+    found.forEach(customer -> unresolved.remove(Customer.normalizeEmail(customer.getEmail())));
+    var fallback = emails.stream()
+        .filter(email -> unresolved.contains(Customer.normalizeEmail(email)))
+        .collect(Collectors.toList());
+    if (!fallback.isEmpty()) {
+      found.addAll(findInChunks(fallback,
+                                customerRepository::findDistinctByEmailInAndNormalizedEmailIsNull));
+    }
+    return found;
+  }
+
+  /**
+   * Translates a violation of the unique email constraint, leaving any other violation as is.
+   */
+  private static RuntimeException translate(DataIntegrityViolationException ex, String email) {
+    return ConstraintViolations.isDuplicateEmail(ex) ? new DuplicateEmailException(email) : ex;
+  }
+
+  /**
+   * Loads a {@link Customer} with its full profile bypassing the caches, for callers that modify
+   * the record. The second-level cache may be behind updates made through other instances, which
+   * would fail the caller's version check.
+   */
+  private Customer findCustomer(UUID id) {
+    return customerRepository.findUncachedWithFullProfileById(id)
+        .orElseThrow(() -> new NoSuchCustomerException(id));
+  }
+
+  /**
+   * Resolves why an owner-scoped payment method lookup found nothing. Only runs on the miss path.
+   */
+  private NoSuchElementException paymentMethodNotFound(UUID customerId, Long paymentId) {
+    if (!customerRepository.existsById(customerId)) {
+      return new NoSuchCustomerException(customerId);
+    }
+    return new NoSuchPaymentMethod(customerId, paymentId);
+  }
+
+  private static String encodeCursor(UUID id) {
+    var buffer = ByteBuffer.allocate(16)
+        .putLong(id.getMostSignificantBits())
+        .putLong(id.getLeastSignificantBits());
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+  }
+
+  private static UUID decodeCursor(String cursor) {
+    byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(cursor);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidCursorException(cursor);
+    }
+    if (bytes.length != 16) {
+      throw new InvalidCursorException(cursor);
+    }
+    var buffer = ByteBuffer.wrap(bytes);
+    return new UUID(buffer.getLong(), buffer.getLong());
   }
 
   /**
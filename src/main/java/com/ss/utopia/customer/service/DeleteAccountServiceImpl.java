@@ -27,6 +27,15 @@ public class DeleteAccountServiceImpl implements DeleteAccountService {
     runWithRetry(fn);
   }
 
+  /**
+   * Confirms the deletion with the accounts service and then removes the customer record.
+   *
+   * <p>Not recorded in the outbox: the accounts service can only check a confirmation token by
+   * consuming it, so an unknown or expired token is only reported to the caller if the call is
+   * made here.
+   *
+   * @param confirmationToken the token sent to the customer to confirm the deletion.
+   */
   @Override
   public void finalizeDeletion(UUID confirmationToken) {
     Runnable fn = () -> {
@@ -0,0 +1,30 @@
+package com.ss.utopia.customer.service;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.email-backfill")
+public class EmailBackfillConfiguration {
+
+  /**
+   * Whether this instance backfills normalized emails on startup.
+   */
+  @Getter @Setter
+  private boolean enabled = true;
+
+  /**
+   * Maximum number of records normalized per batch and transaction.
+   */
+  @Getter @Setter
+  private int batchSize = 500;
+
+  /**
+   * Delay between batches, to leave room for other writes to the table.
+   */
+  @Getter @Setter
+  private Duration pause = Duration.ofMillis(100);
+}
@@ -0,0 +1,117 @@
+package com.ss.utopia.customer.service;
+
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.repository.CustomerRepository;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets the normalized email of records written before it was introduced, which lookups by email
+ * only find by their exact email until then.
+ *
+ * <p>Runs once in the background when the application is ready, walking the records without a
+ * normalized email in ID order, in batches with a pause in between. Records whose normalized email
+ * is taken by another record, emails differing only in case, are logged and left for manual
+ * resolution. Several instances may run concurrently, a record is only ever normalized once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NormalizedEmailBackfill {
+
+  private final CustomerRepository customerRepository;
+  private final EmailBackfillConfiguration emailBackfillConfiguration;
+
+  private ExecutorService backfillExecutor;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!emailBackfillConfiguration.isEnabled()) {
+      log.info("Normalized email backfill disabled.");
+      return;
+    }
+    backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      var thread = new Thread(runnable, "email-backfill");
+      thread.setDaemon(true);
+      return thread;
+    });
+    backfillExecutor.execute(() -> {
+      try {
+        backfill();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException ex) {
+        // the remaining records are picked up on the next start
+        log.error("Normalized email backfill failed.", ex);
+      }
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (backfillExecutor != null) {
+      backfillExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Normalizes the emails of all records without one.
+   *
+   * @return the number of records normalized.
+   * @throws InterruptedException if interrupted while pausing between batches.
+   */
+  public int backfill() throws InterruptedException {
+    var batchSize = emailBackfillConfiguration.getBatchSize();
+    var normalized = 0;
+    UUID after = null;
+    while (true) {
+      var emails = customerRepository.findEmailsToNormalize(after, batchSize);
+      if (emails.isEmpty()) {
+        break;
+      }
+      var normalizedEmails = new LinkedHashMap<UUID, String>();
+      emails.forEach((id, email) -> normalizedEmails.put(id, Customer.normalizeEmail(email)));
+      normalized += write(normalizedEmails);
+      for (var id : emails.keySet()) {
+        after = id;
+      }
+      log.debug("Normalized emails up to customerId={}", after);
+      if (emails.size() < batchSize) {
+        break;
+      }
+      Thread.sleep(emailBackfillConfiguration.getPause().toMillis());
+    }
+    log.info("Normalized email backfill complete, normalized={}", normalized);
+    return normalized;
+  }
+
+  private int write(Map<UUID, String> normalizedEmails) {
+    try {
+      customerRepository.setNormalizedEmails(normalizedEmails);
+      return normalizedEmails.size();
+    } catch (DataIntegrityViolationException ex) {
+      // find the conflicting records one at a time, the rest of the batch still applies
+      var written = 0;
+      for (var entry : normalizedEmails.entrySet()) {
+        try {
+          customerRepository.setNormalizedEmails(Map.of(entry.getKey(), entry.getValue()));
+          written++;
+        } catch (DataIntegrityViolationException conflict) {
+          log.warn("Normalized email already taken, customerId={} left unnormalized.",
+                   entry.getKey());
+        }
+      }
+      return written;
+    }
+  }
+}
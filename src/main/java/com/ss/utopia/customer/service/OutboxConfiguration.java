@@ -0,0 +1,56 @@
+package com.ss.utopia.customer.service;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.outbox")
+public class OutboxConfiguration {
+
+  /**
+   * Whether this instance dispatches outbox events.
+   */
+  @Getter @Setter
+  private boolean enabled = true;
+
+  /**
+   * Delay between polls for due events.
+   */
+  @Getter @Setter
+  private Duration pollInterval = Duration.ofSeconds(1);
+
+  /**
+   * Maximum number of events dispatched per poll. A full batch is followed by another poll
+   * immediately.
+   */
+  @Getter @Setter
+  private int batchSize = 100;
+
+  /**
+   * Maximum number of attempts to dispatch an event before it is marked failed.
+   */
+  @Getter @Setter
+  private int maxAttempts = 10;
+
+  /**
+   * Delay before the first retry, doubled for each following retry.
+   */
+  @Getter @Setter
+  private Duration retryBackoff = Duration.ofSeconds(1);
+
+  /**
+   * Upper bound on the delay between retries.
+   */
+  @Getter @Setter
+  private Duration maxRetryBackoff = Duration.ofMinutes(5);
+
+  /**
+   * Time an event is reserved for the instance dispatching it. An event is dispatched again if
+   * the instance stops before completing it within the lease.
+   */
+  @Getter @Setter
+  private Duration leaseTimeout = Duration.ofMinutes(1);
+}
@@ -0,0 +1,156 @@
+package com.ss.utopia.customer.service;
+
+import com.ss.utopia.customer.client.AccountsClient;
+import com.ss.utopia.customer.client.authentication.ServiceAuthenticationProvider;
+import com.ss.utopia.customer.entity.OutboxEvent;
+import com.ss.utopia.customer.repository.OutboxEventRepository;
+import feign.FeignException;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatches {@link OutboxEvent}s to the accounts service in batches, so requests only wait on
+ * the local transaction that records them.
+ *
+ * <p>Events for the same aggregate are dispatched in order, and an event waiting on a retry holds
+ * back the events recorded after it. Each event is leased before dispatch so several instances
+ * can relay concurrently. Delivery is at least once, an event is dispatched again if the lease
+ * expires before its dispatch is recorded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+  private static final int MAX_BACKOFF_SHIFT = 20;
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final AccountsClient accountsClient;
+  private final ServiceAuthenticationProvider serviceAuthenticationProvider;
+  private final OutboxConfiguration outboxConfiguration;
+
+  private ScheduledExecutorService relayExecutor;
+
+  @PostConstruct
+  public void start() {
+    if (!outboxConfiguration.isEnabled()) {
+      log.info("Outbox relay disabled.");
+      return;
+    }
+    relayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "outbox-relay");
+      thread.setDaemon(true);
+      return thread;
+    });
+    var interval = outboxConfiguration.getPollInterval().toMillis();
+    relayExecutor.scheduleWithFixedDelay(this::relayAll, interval, interval,
+                                         TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (relayExecutor != null) {
+      relayExecutor.shutdownNow();
+    }
+  }
+
+  private void relayAll() {
+    try {
+      while (relay() >= outboxConfiguration.getBatchSize()) {
+        log.debug("Outbox batch full, polling again.");
+      }
+    } catch (RuntimeException ex) {
+      // keep the schedule alive, the next poll will pick the events up again
+      log.error("Outbox relay failed.", ex);
+    }
+  }
+
+  /**
+   * Dispatches a single batch of due events.
+   *
+   * @return the number of events dispatched successfully.
+   */
+  public int relay() {
+    var now = Instant.now();
+    var leaseUntil = now.plus(outboxConfiguration.getLeaseTimeout());
+    var batch = outboxEventRepository.findByStatusAndNextAttemptAtLessThanEqualOrderById(
+        OutboxEvent.Status.PENDING, now, PageRequest.of(0, outboxConfiguration.getBatchSize()));
+
+    var dispatched = 0;
+    for (var event : batch) {
+      var heldBack = outboxEventRepository.existsByAggregateIdAndStatusAndIdLessThan(
+          event.getAggregateId(), OutboxEvent.Status.PENDING, event.getId());
+      if (heldBack || outboxEventRepository.claim(event.getId(), now, leaseUntil) == 0) {
+        continue;
+      }
+      if (dispatch(event)) {
+        dispatched++;
+      }
+    }
+    return dispatched;
+  }
+
+  private boolean dispatch(OutboxEvent event) {
+    try {
+      switch (event.getType()) {
+        case UPDATE_CUSTOMER_EMAIL:
+          updateCustomerEmail(event);
+          break;
+        default:
+          throw new IllegalStateException("Unknown outbox event type=" + event.getType());
+      }
+      return true;
+    } catch (RuntimeException ex) {
+      retryOrFail(event, ex);
+      return false;
+    }
+  }
+
+  private void updateCustomerEmail(OutboxEvent event) {
+    withAuthorization(header -> accountsClient.updateCustomerEmail(header,
+                                                                   event.getAggregateId(),
+                                                                   event.getPayload()));
+    outboxEventRepository.deleteById(event.getId());
+    log.info("Dispatched email update customerId={}", event.getAggregateId());
+  }
+
+  private <T> T withAuthorization(Function<String, T> call) {
+    try {
+      return call.apply(serviceAuthenticationProvider.getAuthorizationHeader());
+    } catch (FeignException.Forbidden ex) {
+      serviceAuthenticationProvider.refreshAuthorization();
+      return call.apply(serviceAuthenticationProvider.getAuthorizationHeader());
+    }
+  }
+
+  private void retryOrFail(OutboxEvent event, RuntimeException ex) {
+    var attempts = event.getAttempts() + 1;
+    var error = String.valueOf(ex.getMessage());
+    event.setAttempts(attempts);
+    event.setLastError(error.substring(0, Math.min(error.length(), OutboxEvent.MAX_ERROR_LENGTH)));
+
+    if (attempts >= outboxConfiguration.getMaxAttempts()
+        || !AccountsClientErrors.isRetryable(ex)) {
+      event.setStatus(OutboxEvent.Status.FAILED);
+      log.error("Outbox event failed id={} type={} attempts={}", event.getId(), event.getType(),
+                attempts, ex);
+    } else {
+      var backoff = outboxConfiguration.getRetryBackoff().toMillis()
+          << Math.min(attempts - 1, MAX_BACKOFF_SHIFT);
+      var delay = Math.min(backoff, outboxConfiguration.getMaxRetryBackoff().toMillis());
+      event.setNextAttemptAt(Instant.now().plusMillis(delay));
+      log.warn("Outbox event attempt failed id={} type={} attempts={} retryInMs={}",
+               event.getId(), event.getType(), attempts, delay);
+    }
+    outboxEventRepository.save(event);
+  }
+}
@@ -0,0 +1,43 @@
+package com.ss.utopia.customer.service;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "com.ss.utopia.customer.signup")
+public class SignupConfiguration {
+
+  /**
+   * Number of threads completing asynchronous signups.
+   */
+  @Getter @Setter
+  private int workerThreads = 4;
+
+  /**
+   * Maximum number of signups waiting for a worker before new signups are rejected.
+   */
+  @Getter @Setter
+  private int queueCapacity = 100;
+
+  /**
+   * Maximum number of attempts to create the user account.
+   */
+  @Getter @Setter
+  private int maxAttempts = 3;
+
+  /**
+   * Delay before the first retry, doubled for each following retry.
+   */
+  @Getter @Setter
+  private Duration retryBackoff = Duration.ofSeconds(1);
+
+  /**
+   * Time after which a signup still pending is considered failed, such as when the instance
+   * processing it stopped.
+   */
+  @Getter @Setter
+  private Duration pendingTimeout = Duration.ofMinutes(10);
+}
@@ -0,0 +1,12 @@
+package com.ss.utopia.customer.service;
+
+import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.SignupStatusDto;
+import java.util.UUID;
+
+public interface SignupService {
+
+  SignupStatusDto submitSignup(CreateCustomerDto customerDto, String idempotencyKey);
+
+  SignupStatusDto getSignup(UUID signupId);
+}
@@ -0,0 +1,280 @@
+package com.ss.utopia.customer.service;
+
+import com.ss.utopia.customer.client.AccountsClient;
+import com.ss.utopia.customer.controller.EndpointConstants;
+import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.CreateUserAccountDto;
+import com.ss.utopia.customer.dto.SignupStatusDto;
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.entity.PendingSignup;
+import com.ss.utopia.customer.exception.AccountsClientException;
+import com.ss.utopia.customer.exception.DuplicateEmailException;
+import com.ss.utopia.customer.exception.ExceptionControllerAdvisor;
+import com.ss.utopia.customer.exception.IdempotencyKeyMismatchException;
+import com.ss.utopia.customer.exception.NoSuchSignupException;
+import com.ss.utopia.customer.exception.SignupRejectedException;
+import com.ss.utopia.customer.mapper.CustomerDtoMapper;
+import com.ss.utopia.customer.repository.CustomerRepository;
+import com.ss.utopia.customer.repository.PendingSignupRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates customers asynchronously, so a signup does not hold a request thread for the duration
+ * of the call to the accounts service.
+ *
+ * <p>A signup is recorded as a {@link PendingSignup} and completed by the {@link SignupWorkerPool},
+ * retrying transient accounts service failures with exponential backoff. The password is only
+ * held in memory by the queued task and is never persisted, so a signup interrupted by the
+ * instance stopping is reported failed once it exceeds the configured pending timeout.
+ *
+ * <p>Once its account is created, a signup only retries creating the customer, as creating the
+ * account again would fail on the email.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SignupServiceImpl implements SignupService {
+
+  static final String TIMED_OUT_MESSAGE = "Signup timed out. Please try again.";
+
+  private final PendingSignupRepository pendingSignupRepository;
+  private final CustomerRepository customerRepository;
+  private final AccountsClient accountsClient;
+  private final SignupWorkerPool signupWorkerPool;
+  private final SignupConfiguration signupConfiguration;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Records a signup and queues it for completion.
+   *
+   * <p>The idempotency key is scoped to the email, and a repeat under the same key must send the
+   * same customer details. The password is not compared, a repeat completes with the first one.
+   *
+   * @param customerDto    a valid {@link CreateCustomerDto}.
+   * @param idempotencyKey client supplied key identifying the signup, or null.
+   * @return the status of the pending signup, or of the existing signup for the idempotency key.
+   * @throws DuplicateEmailException         if a customer or pending signup already exists with
+   *                                         the email.
+   * @throws IdempotencyKeyMismatchException if the idempotency key was used with other details.
+   * @throws SignupRejectedException         if the signup workers are saturated.
+   */
+  @Override
+  public SignupStatusDto submitSignup(CreateCustomerDto customerDto, String idempotencyKey) {
+    var email = customerDto.getEmail();
+    var normalizedEmail = Customer.normalizeEmail(email);
+    var scopedKey = idempotencyKey == null ? null : hash(normalizedEmail, idempotencyKey);
+    var fingerprint = fingerprint(customerDto);
+    if (scopedKey != null) {
+      var existing = pendingSignupRepository.findByIdempotencyKey(scopedKey);
+      if (existing.isPresent()) {
+        return repeated(existing.get(), fingerprint, idempotencyKey);
+      }
+    }
+
+    var pendingSince = Instant.now().minus(signupConfiguration.getPendingTimeout());
+    if (customerRepository.existsByNormalizedEmail(normalizedEmail)
+        || customerRepository.existsByEmailAndNormalizedEmailIsNull(email)
+        || pendingSignupRepository.existsByNormalizedEmailAndStatusAndCreatedAtAfter(
+            normalizedEmail, PendingSignup.Status.PENDING, pendingSince)) {
+      throw new DuplicateEmailException(email);
+    }
+
+    var now = Instant.now();
+    var key = scopedKey == null ? UUID.randomUUID().toString() : scopedKey;
+    PendingSignup signup;
+    try {
+      signup = pendingSignupRepository.save(
+          PendingSignup.builder()
+              .id(UUID.randomUUID())
+              .idempotencyKey(key)
+              .requestFingerprint(fingerprint)
+              .email(email)
+              .normalizedEmail(normalizedEmail)
+              .status(PendingSignup.Status.PENDING)
+              .createdAt(now)
+              .updatedAt(now)
+              .build());
+    } catch (DataIntegrityViolationException ex) {
+      // a concurrent request with the same key won the insert
+      if (scopedKey == null) {
+        throw ex;
+      }
+      var existing = pendingSignupRepository.findByIdempotencyKey(scopedKey)
+          .orElseThrow(() -> ex);
+      return repeated(existing, fingerprint, idempotencyKey);
+    }
+
+    var signupId = signup.getId();
+    try {
+      signupWorkerPool.submit(() -> process(signupId, customerDto));
+    } catch (RejectedExecutionException ex) {
+      pendingSignupRepository.deleteById(signupId);
+      throw new SignupRejectedException();
+    }
+    return status(signup);
+  }
+
+  /**
+   * Gets the status of a signup. A signup pending beyond the configured timeout is reported as
+   * failed, its record is left as it is.
+   *
+   * @param signupId the signup ID.
+   * @return the signup status.
+   * @throws NoSuchSignupException if no signup found with the given ID.
+   */
+  @Override
+  public SignupStatusDto getSignup(UUID signupId) {
+    return pendingSignupRepository.findById(signupId)
+        .map(this::status)
+        .orElseThrow(() -> new NoSuchSignupException(signupId));
+  }
+
+  /**
+   * Creates the user account and then the customer, retrying transient failures. A failure after
+   * the account is created only retries creating the customer.
+   */
+  void process(UUID signupId, CreateCustomerDto customerDto) {
+    var accountDto = CustomerDtoMapper.createUserAccountDto(customerDto);
+    var maxAttempts = signupConfiguration.getMaxAttempts();
+    UUID customerId = null;
+
+    for (var attempt = 1; ; attempt++) {
+      try {
+        if (customerId == null) {
+          customerId = createAccount(accountDto);
+        }
+        complete(signupId, customerDto, customerId, attempt);
+        log.info("Completed signup id={}", signupId);
+        return;
+      } catch (RuntimeException ex) {
+        var retryable = customerId == null
+                        ? AccountsClientErrors.isRetryable(ex)
+                        : !(ex instanceof DataIntegrityViolationException);
+        if (attempt >= maxAttempts || !retryable) {
+          if (customerId != null) {
+            log.error("Signup failed after creating its account id={} customerId={} attempts={},"
+                          + " the account must be removed", signupId, customerId, attempt, ex);
+          } else {
+            log.error("Signup failed id={} attempts={}", signupId, attempt, ex);
+          }
+          fail(signupId, customerId, attempt);
+          return;
+        }
+        log.warn("Signup attempt failed id={} attempt={}", signupId, attempt, ex);
+      }
+
+      try {
+        Thread.sleep(signupConfiguration.getRetryBackoff().toMillis() << (attempt - 1));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        fail(signupId, customerId, attempt);
+        return;
+      }
+    }
+  }
+
+  private SignupStatusDto repeated(PendingSignup signup, String fingerprint,
+                                   String idempotencyKey) {
+    if (!fingerprint.equals(signup.getRequestFingerprint())) {
+      throw new IdempotencyKeyMismatchException(idempotencyKey);
+    }
+    return status(signup);
+  }
+
+  private SignupStatusDto status(PendingSignup signup) {
+    var status = signup.getStatus();
+    var failureReason = signup.getFailureReason();
+    var pendingSince = Instant.now().minus(signupConfiguration.getPendingTimeout());
+    if (status == PendingSignup.Status.PENDING && signup.getCreatedAt().isBefore(pendingSince)) {
+      status = PendingSignup.Status.FAILED;
+      failureReason = TIMED_OUT_MESSAGE;
+    }
+    var location = status == PendingSignup.Status.COMPLETED
+                   ? EndpointConstants.API_V_0_1_CUSTOMERS + "/" + signup.getCustomerId()
+                   : null;
+    return SignupStatusDto.builder()
+        .id(signup.getId())
+        .status(status)
+        .failureReason(failureReason)
+        .location(location)
+        .build();
+  }
+
+  private static String fingerprint(CreateCustomerDto customerDto) {
+    return hash(Customer.normalizeEmail(customerDto.getEmail()),
+                customerDto.getFirstName(),
+                customerDto.getLastName(),
+                customerDto.getPhoneNumber(),
+                customerDto.getAddrLine1(),
+                customerDto.getAddrLine2(),
+                customerDto.getCity(),
+                customerDto.getState(),
+                customerDto.getZipcode(),
+                String.valueOf(customerDto.getTicketEmails()),
+                String.valueOf(customerDto.getFlightEmails()));
+  }
+
+  private static String hash(String... parts) {
+    try {
+      // separated so that adjacent parts cannot run into each other
+      var joined = Stream.of(parts).map(Objects::toString).collect(Collectors.joining("\0"));
+      var digest = MessageDigest.getInstance("SHA-256")
+          .digest(joined.getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private UUID createAccount(CreateUserAccountDto accountDto) {
+    var response = accountsClient.createNewAccount(accountDto);
+    if (response.getBody() == null) {
+      throw new AccountsClientException(response);
+    }
+    return response.getBody();
+  }
+
+  private void complete(UUID signupId, CreateCustomerDto customerDto, UUID customerId,
+                        int attempts) {
+    transactionTemplate.executeWithoutResult(status -> {
+      var customer = CustomerDtoMapper.map(customerDto);
+      customer.setId(customerId);
+      customerRepository.save(customer);
+
+      pendingSignupRepository.findById(signupId).ifPresent(signup -> {
+        signup.setStatus(PendingSignup.Status.COMPLETED);
+        signup.setCustomerId(customerId);
+        signup.setFailureReason(null);
+        signup.setAttempts(attempts);
+        signup.setUpdatedAt(Instant.now());
+        pendingSignupRepository.save(signup);
+      });
+    });
+  }
+
+  private void fail(UUID signupId, UUID customerId, int attempts) {
+    transactionTemplate.executeWithoutResult(
+        status -> pendingSignupRepository.findById(signupId).ifPresent(signup -> {
+          signup.setStatus(PendingSignup.Status.FAILED);
+          signup.setCustomerId(customerId);
+          signup.setFailureReason(ExceptionControllerAdvisor.CLIENT_EXCEPTION_MESSAGE);
+          signup.setAttempts(attempts);
+          signup.setUpdatedAt(Instant.now());
+          pendingSignupRepository.save(signup);
+        }));
+  }
+}
@@ -0,0 +1,55 @@
+package com.ss.utopia.customer.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed size worker pool with a bounded queue for completing asynchronous signups.
+ *
+ * <p>Pool and queue metrics are published to the {@link MeterRegistry} under the
+ * {@code executor.*} meters for the {@value #NAME} executor.
+ */
+@Component
+public class SignupWorkerPool {
+
+  public static final String NAME = "signup.workers";
+
+  private final ExecutorService executor;
+
+  public SignupWorkerPool(SignupConfiguration configuration, MeterRegistry meterRegistry) {
+    var threadCount = new AtomicInteger();
+    ThreadFactory threadFactory = runnable ->
+        new Thread(runnable, "signup-worker-" + threadCount.incrementAndGet());
+    var pool = new ThreadPoolExecutor(configuration.getWorkerThreads(),
+                                      configuration.getWorkerThreads(),
+                                      0L,
+                                      TimeUnit.MILLISECONDS,
+                                      new ArrayBlockingQueue<>(configuration.getQueueCapacity()),
+                                      threadFactory);
+    executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, NAME);
+  }
+
+  /**
+   * Queues a task for a worker.
+   *
+   * @param task the task.
+   * @throws RejectedExecutionException if the queue is full.
+   */
+  public void submit(Runnable task) {
+    executor.execute(task);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -1,16 +1,77 @@
 package com.ss.utopia.customer;
 
+import com.ss.utopia.customer.client.AccountsHttpClientConfiguration;
+import com.ss.utopia.customer.metrics.RepositoryMetricsListener;
+import com.ss.utopia.customer.service.CustomerService;
+import com.ss.utopia.customer.service.CustomerServiceImpl;
+import feign.Client;
+import feign.httpclient.ApacheHttpClient;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.test.web.servlet.MockMvc;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = {"com.ss.utopia.auth.jwt-header-name=Authorization",
+    "com.ss.utopia.auth.jwt-header-prefix=Bearer ",
+    "management.endpoints.web.exposure.include=prometheus"})
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
 class CustomerApplicationTests {
 
+  @Autowired
+  Client feignClient;
+  @Autowired
+  MeterRegistry meterRegistry;
+  @Autowired
+  CustomerService customerService;
+  @Autowired
+  MockMvc mvc;
+
   @Test
   void contextLoads() {
     assertTrue(true);
   }
 
+  @Test
+  void feignUsesPooledHttpClient() {
+    assertTrue(feignClient instanceof FeignBlockingLoadBalancerClient);
+    assertTrue(((FeignBlockingLoadBalancerClient) feignClient).getDelegate()
+                   instanceof ApacheHttpClient);
+    var maxConnections = meterRegistry.find("httpcomponents.httpclient.pool.total.max")
+        .tag("httpclient", AccountsHttpClientConfiguration.POOL_NAME)
+        .gauge();
+    assertNotNull(maxConnections);
+    // sized by feign.httpclient.max-connections
+    assertEquals(200, maxConnections.value());
+  }
+
+  @Test
+  void serviceAndRepositoryCallsAreTimed() {
+    customerService.getCustomerPage(null, 10);
+
+    assertNotNull(meterRegistry.find(CustomerServiceImpl.TIMER)
+                      .tag("method", "getCustomerPage")
+                      .timer());
+    assertNotNull(meterRegistry.find(RepositoryMetricsListener.TIMER)
+                      .tag("repository", "CustomerRepository")
+                      .tag("method", "findFirstPage")
+                      .tag("state", "SUCCESS")
+                      .timer());
+  }
+
+  @Test
+  void prometheusEndpointRequiresCredentialsOnApplicationPort() throws Exception {
+    mvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isForbidden());
+  }
 }
@@ -0,0 +1,60 @@
+package com.ss.utopia.customer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ss.utopia.customer.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {"com.ss.utopia.auth.jwt-header-name=Authorization",
+        "com.ss.utopia.auth.jwt-header-prefix=Bearer ",
+        "management.server.port=0",
+        "management.endpoints.web.exposure.include=health,prometheus"})
+@AutoConfigureMetrics
+class ManagementPortTests {
+
+  @LocalServerPort
+  int serverPort;
+  @LocalManagementPort
+  int managementPort;
+  @Autowired
+  CustomerService customerService;
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Test
+  void prometheusEndpointIsScrapedWithoutCredentialsOnManagementPort() {
+    customerService.getCustomerPage(null, 10);
+
+    var response = restTemplate.getForEntity(
+        "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertTrue(response.getBody().contains("customer_service_seconds_count"));
+  }
+
+  @Test
+  void otherEndpointsRequireCredentialsOnManagementPort() {
+    var response = restTemplate.getForEntity(
+        "http://localhost:" + managementPort + "/actuator/health", String.class);
+
+    assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+  }
+
+  @Test
+  void prometheusEndpointIsNotOpenOnApplicationPort() {
+    var response = restTemplate.getForEntity(
+        "http://localhost:" + serverPort + "/actuator/prometheus", String.class);
+
+    assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+  }
+}
@@ -0,0 +1,89 @@
+package com.ss.utopia.customer.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ss.utopia.customer.entity.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CustomerCacheTests {
+
+  Customer customer;
+  AtomicInteger loads;
+
+  @BeforeEach
+  void beforeEach() {
+    customer = Customer.builder()
+        .id(UUID.randomUUID())
+        .firstName("First")
+        .lastName("Last")
+        .email("customer@test.com")
+        .addresses(new HashSet<>())
+        .paymentMethods(new HashSet<>())
+        .build();
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  void test_getById_CachesRightAfterEvictionByDefault() {
+    var cache = cache(Duration.ZERO);
+    cache.getById(customer.getId(), this::load);
+
+    cache.evict(customer.getId());
+    cache.getById(customer.getId(), this::load);
+    cache.getById(customer.getId(), this::load);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void test_getById_DoesNotCacheRecentlyEvictedCustomer() {
+    var cache = cache(Duration.ofHours(1));
+    cache.getById(customer.getId(), this::load);
+    cache.getById(customer.getId(), this::load);
+    assertEquals(1, loads.get());
+
+    cache.evict(customer.getId());
+    cache.getById(customer.getId(), this::load);
+    cache.getById(customer.getId(), this::load);
+
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  void test_bulkAndEmailReads_DoNotCacheRecentlyEvictedCustomer() {
+    var cache = cache(Duration.ofHours(1));
+    cache.evict(customer.getId());
+
+    cache.getByEmail("Customer@Test.com", email -> load(customer.getId()));
+    cache.getAllById(Set.of(customer.getId()), ids -> loadAll());
+    cache.getAllByEmail(Set.of("customer@test.com"), emails -> loadAll());
+
+    assertEquals(Optional.empty(), cache.getIfPresent(customer.getId()));
+    assertEquals(3, loads.get());
+  }
+
+  private CustomerCache cache(Duration uncachedAfterEviction) {
+    var configuration = new CustomerCacheConfiguration();
+    configuration.setUncachedAfterEviction(uncachedAfterEviction);
+    return new CustomerCache(configuration, new SimpleMeterRegistry());
+  }
+
+  private Optional<Customer> load(UUID id) {
+    loads.incrementAndGet();
+    return Optional.of(customer);
+  }
+
+  private List<Customer> loadAll() {
+    loads.incrementAndGet();
+    return List.of(customer);
+  }
+}
@@ -0,0 +1,62 @@
+package com.ss.utopia.customer.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.Test;
+
+class GzipRequestInterceptorTests {
+
+  GzipRequestInterceptor interceptor = new GzipRequestInterceptor(100, List.of("application/json"));
+
+  @Test
+  void test_process_CompressesLargeBodyOfConfiguredType() throws Exception {
+    var body = "{\"email\":\"" + "a".repeat(200) + "@test.com\"}";
+    var request = post(new StringEntity(body, ContentType.APPLICATION_JSON));
+
+    interceptor.process(request, new BasicHttpContext());
+
+    assertEquals("gzip", request.getEntity().getContentEncoding().getValue());
+    var out = new ByteArrayOutputStream();
+    request.getEntity().writeTo(out);
+    var decompressed = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))
+        .readAllBytes();
+    assertEquals(body, new String(decompressed));
+  }
+
+  @Test
+  void test_process_LeavesSmallBody() {
+    var entity = new StringEntity("{}", ContentType.APPLICATION_JSON);
+    var request = post(entity);
+
+    interceptor.process(request, new BasicHttpContext());
+
+    assertSame(entity, request.getEntity());
+    assertNull(request.getEntity().getContentEncoding());
+  }
+
+  @Test
+  void test_process_LeavesOtherContentTypes() {
+    var entity = new StringEntity("a".repeat(200), ContentType.TEXT_PLAIN);
+    var request = post(entity);
+
+    interceptor.process(request, new BasicHttpContext());
+
+    assertSame(entity, request.getEntity());
+  }
+
+  private HttpPost post(StringEntity entity) {
+    var request = new HttpPost("http://localhost/api/v0.1/accounts");
+    request.setEntity(entity);
+    return request;
+  }
+}
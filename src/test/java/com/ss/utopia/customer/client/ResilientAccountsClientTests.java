@@ -0,0 +1,151 @@
+package com.ss.utopia.customer.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ss.utopia.customer.client.AccountsClientConfiguration.Operation;
+import com.ss.utopia.customer.client.authentication.AuthenticationRequest;
+import com.ss.utopia.customer.dto.CreateUserAccountDto;
+import com.ss.utopia.customer.exception.AccountsServiceUnavailableException;
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.ResponseEntity;
+
+class ResilientAccountsClientTests {
+
+  AccountsClient delegate = Mockito.mock(AccountsClient.class);
+  AccountsClientConfiguration configuration = new AccountsClientConfiguration();
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  AuthenticationRequest login = AuthenticationRequest.builder().email("a@test.com").build();
+  ResilientAccountsClient client;
+
+  @BeforeEach
+  void beforeEach() {
+    configuration.setRetryBackoff(Duration.ofMillis(1));
+    configuration.setSlidingWindowSize(4);
+    configuration.setMinimumNumberOfCalls(4);
+    configuration.setWaitDurationInOpenState(Duration.ofMinutes(1));
+    client = new ResilientAccountsClient(delegate, configuration, meterRegistry);
+  }
+
+  @Test
+  void test_call_RetriesServerErrorsAndReturnsRecoveredResponse() {
+    when(delegate.login(login))
+        .thenThrow(FeignException.ServiceUnavailable.class)
+        .thenReturn(ResponseEntity.ok("token"));
+
+    assertEquals("token", client.login(login).getBody());
+    verify(delegate, times(2)).login(login);
+  }
+
+  @Test
+  void test_call_DoesNotRetryOrRecordClientErrors() {
+    when(delegate.login(login)).thenThrow(FeignException.Forbidden.class);
+
+    for (var i = 0; i < 5; i++) {
+      assertThrows(FeignException.Forbidden.class, () -> client.login(login));
+    }
+
+    verify(delegate, times(5)).login(login);
+    assertEquals(CircuitBreaker.State.CLOSED,
+                 client.getCircuitBreaker(Operation.LOGIN).getState());
+  }
+
+  @Test
+  void test_completeCustomerDeletion_DoesNotRetryServerErrors() {
+    when(delegate.completeCustomerDeletion(any(), any()))
+        .thenThrow(FeignException.ServiceUnavailable.class);
+    var token = UUID.randomUUID();
+
+    // the first attempt may have consumed the token
+    assertThrows(FeignException.ServiceUnavailable.class,
+                 () -> client.completeCustomerDeletion("Bearer a", token));
+    verify(delegate, times(1)).completeCustomerDeletion("Bearer a", token);
+  }
+
+  @Test
+  void test_call_OpenCircuitFailsFastForThatOperationOnly() {
+    when(delegate.createNewAccount(any())).thenThrow(FeignException.InternalServerError.class);
+    var dto = CreateUserAccountDto.builder().email("a@test.com").build();
+
+    // account creation is not retried, each call is one failure
+    for (var i = 0; i < 4; i++) {
+      assertThrows(FeignException.InternalServerError.class, () -> client.createNewAccount(dto));
+    }
+    assertThrows(AccountsServiceUnavailableException.class, () -> client.createNewAccount(dto));
+
+    verify(delegate, times(4)).createNewAccount(dto);
+    assertEquals(CircuitBreaker.State.OPEN,
+                 client.getCircuitBreaker(Operation.CREATE_ACCOUNT).getState());
+    when(delegate.login(login)).thenReturn(ResponseEntity.ok("token"));
+    assertEquals("token", client.login(login).getBody());
+  }
+
+  @Test
+  void test_call_FullBulkheadFailsFast() throws Exception {
+    configuration.getOperations().get(Operation.COMPLETE_DELETION).setMaxConcurrentCalls(1);
+    client = new ResilientAccountsClient(delegate, configuration, meterRegistry);
+    var inCall = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    when(delegate.completeCustomerDeletion(any(), any())).thenAnswer(invocation -> {
+      inCall.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return ResponseEntity.ok(UUID.randomUUID());
+    });
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(() -> client.completeCustomerDeletion("Bearer a", UUID.randomUUID()));
+      assertEquals(true, inCall.await(5, TimeUnit.SECONDS));
+
+      assertThrows(AccountsServiceUnavailableException.class,
+                   () -> client.completeCustomerDeletion("Bearer a", UUID.randomUUID()));
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void test_constructor_PublishesStateByOperation() {
+    assertNotNull(meterRegistry.find("resilience4j.circuitbreaker.state")
+                      .tag("name", "accounts.create-account")
+                      .gauge());
+    assertNotNull(meterRegistry.find("resilience4j.bulkhead.available.concurrent.calls")
+                      .tag("name", "accounts.login")
+                      .gauge());
+  }
+
+  @Test
+  void test_configuration_BindsOperationLimitsByName() {
+    var source = new MapConfigurationPropertySource(Map.of(
+        "accounts.operations.create-account.max-concurrent-calls", "7",
+        "accounts.operations.create-account.max-attempts", "1"));
+
+    var bound = new Binder(source)
+        .bind("accounts", Bindable.ofInstance(new AccountsClientConfiguration()))
+        .get();
+
+    var limits = bound.getOperations().get(Operation.CREATE_ACCOUNT);
+    assertEquals(7, limits.getMaxConcurrentCalls());
+    assertEquals(1, limits.getMaxAttempts());
+    assertNotNull(bound.getOperations().get(Operation.LOGIN));
+  }
+}
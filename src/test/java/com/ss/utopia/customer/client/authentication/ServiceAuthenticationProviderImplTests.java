@@ -3,7 +3,9 @@ package com.ss.utopia.customer.client.authentication;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -11,6 +13,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ss.utopia.customer.client.AccountsClient;
 import com.ss.utopia.customer.exception.AuthenticationFailureException;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -36,8 +43,8 @@ public class ServiceAuthenticationProviderImplTests {
   @BeforeEach
   void beforeEach() throws Exception {
     Mockito.reset(accountsClient);
-    var res = objectMapper.writeValueAsString(mockAuthenticationResponse);
-    when(accountsClient.login(any())).thenReturn(ResponseEntity.ok(res));
+    when(accountsClient.login(any()))
+        .thenReturn(ResponseEntity.ok(mockAuthenticationResponseJson()));
 
     when(serviceAuthenticationConfiguration.getEmail()).thenReturn("test@test.com");
     when(serviceAuthenticationConfiguration.getPassword()).thenReturn("password");
@@ -48,6 +55,10 @@ public class ServiceAuthenticationProviderImplTests {
                                               serviceAuthenticationConfiguration);
   }
 
+  String mockAuthenticationResponseJson() throws Exception {
+    return objectMapper.writeValueAsString(mockAuthenticationResponse);
+  }
+
   @Test
   void test_getEmail_ShouldReturnEmail () {
     assertEquals("test@test.com", serviceAuthenticationConfiguration.getEmail());
@@ -115,4 +126,90 @@ public class ServiceAuthenticationProviderImplTests {
     when(serviceAuthenticationConfiguration.getPassword()).thenReturn("            ");
     assertThrows(AuthenticationFailureException.class, () -> serviceAuthenticationProvider.refreshAuthorization());
   }
+
+  @Test
+  void test_getAuthorizationHeader_ConcurrentCallersShareSingleLogin() throws Exception {
+    var loginStarted = new CountDownLatch(1);
+    var releaseLogin = new CountDownLatch(1);
+    var res = objectMapper.writeValueAsString(mockAuthenticationResponse);
+    when(accountsClient.login(any())).thenAnswer(invocation -> {
+      loginStarted.countDown();
+      releaseLogin.await(5, TimeUnit.SECONDS);
+      return ResponseEntity.ok(res);
+    });
+
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      var results = new ArrayList<Future<String>>();
+      for (var i = 0; i < 8; i++) {
+        results.add(executor.submit(serviceAuthenticationProvider::getAuthorizationHeader));
+      }
+      assertTrue(loginStarted.await(5, TimeUnit.SECONDS));
+      releaseLogin.countDown();
+
+      for (var result : results) {
+        assertEquals(mockAuthHeader, result.get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Mockito.verify(accountsClient, Mockito.times(1)).login(any());
+  }
+
+  @Test
+  void test_refresh_ReturnsTokenRefreshedSinceCallerObservedIt() throws Exception {
+    when(accountsClient.login(any()))
+        .thenReturn(ResponseEntity.ok(
+            objectMapper.writeValueAsString(
+                AuthenticationResponse.builder()
+                    .token("Bearer originalToken")
+                    .expiresAt(ZonedDateTime.now().plusMinutes(2).toInstant().toEpochMilli())
+                    .build())))
+        .thenReturn(ResponseEntity.ok(mockAuthenticationResponseJson()));
+    var provider = (ServiceAuthenticationProviderImpl) serviceAuthenticationProvider;
+    provider.getAuthorizationHeader();
+    var observed = provider.token;
+
+    // another caller refreshes the stale token before this one gets to
+    assertEquals(mockAuthHeader, provider.getAuthorizationHeader());
+    var refreshed = provider.refresh(observed).join();
+
+    assertSame(provider.token, refreshed);
+    Mockito.verify(accountsClient, Mockito.times(2)).login(any());
+  }
+
+  @Test
+  void test_getAuthorizationHeader_RenewsInBackgroundBeforeExpiration() throws Exception {
+    var renewAt = ZonedDateTime.now()
+        .plus(ServiceAuthenticationProviderImpl.RENEW_BEFORE)
+        // leave the first login time to complete before the renewal is due, even on slow machines
+        .plusNanos(TimeUnit.SECONDS.toNanos(2));
+    var renewalStarted = new CountDownLatch(1);
+    when(accountsClient.login(any()))
+        .thenReturn(ResponseEntity.ok(
+            objectMapper.writeValueAsString(
+                AuthenticationResponse.builder()
+                    .token("Bearer originalToken")
+                    .expiresAt(renewAt.toInstant().toEpochMilli())
+                    .build())))
+        .thenAnswer(invocation -> {
+          renewalStarted.countDown();
+          return ResponseEntity.ok(
+              objectMapper.writeValueAsString(
+                  AuthenticationResponse.builder()
+                      .token("Bearer renewedToken")
+                      .expiresAt(ZonedDateTime.now().plusHours(24).toInstant().toEpochMilli())
+                      .build()));
+        });
+
+    assertEquals("Bearer originalToken", serviceAuthenticationProvider.getAuthorizationHeader());
+
+    assertTrue(renewalStarted.await(30, TimeUnit.SECONDS));
+    // the renewal thread runs this once the renewal has stored its token
+    ((ServiceAuthenticationProviderImpl) serviceAuthenticationProvider).renewalExecutor
+        .submit(() -> { })
+        .get(30, TimeUnit.SECONDS);
+    assertEquals("Bearer renewedToken", serviceAuthenticationProvider.getAuthorizationHeader());
+    Mockito.verify(accountsClient, Mockito.times(2)).login(any());
+  }
 }
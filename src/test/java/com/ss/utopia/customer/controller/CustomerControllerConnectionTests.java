@@ -0,0 +1,81 @@
+package com.ss.utopia.customer.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ss.utopia.customer.client.ResilientAccountsClient;
+import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.repository.CustomerRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Connections held while requests are served, through the whole web stack.
+ */
+@SpringBootTest(properties = {"com.ss.utopia.auth.jwt-header-name=Authorization",
+    "com.ss.utopia.auth.jwt-header-prefix=Bearer ",
+    // no background work using connections meanwhile
+    "com.ss.utopia.customer.outbox.enabled=false",
+    "com.ss.utopia.customer.email-backfill.enabled=false"})
+@AutoConfigureMockMvc
+class CustomerControllerConnectionTests {
+
+  @MockBean
+  ResilientAccountsClient accountsClient;
+
+  @Autowired
+  HikariDataSource dataSource;
+
+  @Autowired
+  CustomerRepository customerRepository;
+
+  @Autowired
+  MockMvc mvc;
+
+  @AfterEach
+  void afterEach() {
+    customerRepository.deleteAll();
+  }
+
+  @Test
+  void test_createNewCustomer_HoldsNoConnectionDuringAccountsCall() throws Exception {
+    var activeDuringCall = new ArrayList<Integer>();
+    when(accountsClient.createNewAccount(any())).then(invocation -> {
+      activeDuringCall.add(dataSource.getHikariPoolMXBean().getActiveConnections());
+      return ResponseEntity.ok(UUID.randomUUID());
+    });
+
+    var customerDto = CreateCustomerDto.builder()
+        .firstName("First")
+        .lastName("Last")
+        .email("customer@test.com")
+        .password("abCD1234!@")
+        .phoneNumber("555-555-5555")
+        .addrLine1("123 Main St.")
+        .city("Las Vegas")
+        .state("NV")
+        .zipcode("12345")
+        .build();
+    mvc.perform(post(EndpointConstants.API_V_0_1_CUSTOMERS)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(new ObjectMapper().writeValueAsString(customerDto)))
+        .andExpect(status().isCreated());
+
+    assertEquals(List.of(0), activeDuringCall);
+  }
+}
@@ -11,7 +11,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ss.utopia.customer.dto.BulkLoyaltyUpdateDto;
 import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.CustomerLookupDto;
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import com.ss.utopia.customer.dto.CustomerPageDto;
 import com.ss.utopia.customer.dto.DeleteAccountDto;
 import com.ss.utopia.customer.dto.PaymentMethodDto;
 import com.ss.utopia.customer.dto.UpdateCustomerDto;
@@ -137,8 +141,8 @@ public class CustomerControllerSecurityTests {
     when(customerService.getCustomerById(mockCustomer.getId()))
         .thenReturn(mockCustomer);
 
-    when(customerService.getAllCustomers())
-        .thenReturn(List.of(mockCustomer));
+    when(customerService.getCustomerPage(null, 100))
+        .thenReturn(new CustomerPageDto(List.of(mockCustomer), null));
 
     when(customerService.getCustomerByEmail(mockCustomer.getEmail()))
         .thenReturn(mockCustomer);
@@ -149,7 +153,7 @@ public class CustomerControllerSecurityTests {
     when((customerService.createNewCustomer(mockCreateDto)))
         .thenReturn(mockCustomer);
 
-    when(customerService.updateCustomer(mockCustomer.getId(), mockUpdateDto))
+    when(customerService.updateCustomer(mockCustomer.getId(), mockUpdateDto, null))
         .thenReturn(mockCustomer);
 
     when(customerService.getPaymentMethod(mockCustomer.getId(), mockPaymentMethod.getId()))
@@ -327,6 +331,101 @@ public class CustomerControllerSecurityTests {
                 .content(content))
         .andExpect(status().isForbidden());
   }
+  @Test
+  void test_lookupCustomers_CanBePerformedByAuthedUsersOrCustomerForOwnRecordOnly()
+      throws Exception {
+    var ownContent = new ObjectMapper().writeValueAsString(
+        CustomerLookupDto.builder()
+            .ids(List.of(mockCustomer.getId()))
+            .emails(List.of(mockCustomer.getEmail()))
+            .build());
+    var otherContent = new ObjectMapper().writeValueAsString(
+        CustomerLookupDto.builder()
+            .ids(List.of(mockCustomer.getId(), UUID.randomUUID()))
+            .build());
+
+    for (var user : List.of(MockUser.ADMIN, MockUser.TRAVEL_AGENT, MockUser.EMPLOYEE)) {
+      for (var content : List.of(ownContent, otherContent)) {
+        mvc
+            .perform(
+                post(EndpointConstants.API_V_0_1_CUSTOMERS + "/lookup")
+                    .header("Authorization", getJwt(user))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(content))
+            .andExpect(status().isOk());
+      }
+    }
+
+    mvc
+        .perform(
+            post(EndpointConstants.API_V_0_1_CUSTOMERS + "/lookup")
+                .header("Authorization", getJwt(MockUser.MATCH_CUSTOMER))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ownContent))
+        .andExpect(status().isOk());
+
+    var unauthed = List.of(MockUser.DEFAULT, MockUser.UNMATCH_CUSTOMER, MockUser.MATCH_CUSTOMER);
+
+    for (var user : unauthed) {
+      mvc
+          .perform(
+              post(EndpointConstants.API_V_0_1_CUSTOMERS + "/lookup")
+                  .header("Authorization", getJwt(user))
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(otherContent))
+          .andExpect(status().isForbidden());
+    }
+
+    mvc
+        .perform(
+            post(EndpointConstants.API_V_0_1_CUSTOMERS + "/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ownContent))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void test_updateCustomerLoyaltyPointsBulk_CanBePerformedByAuthedUserWithRoles()
+      throws Exception {
+    var content = new ObjectMapper().writeValueAsString(
+        new BulkLoyaltyUpdateDto(List.of(CustomerLoyaltyDeltaDto.builder()
+                                             .customerId(mockCustomer.getId())
+                                             .pointsToChange(5)
+                                             .increment(true)
+                                             .build())));
+    var alwaysAuthed = List.of(MockUser.ADMIN,
+                               MockUser.TRAVEL_AGENT,
+                               MockUser.EMPLOYEE);
+    for (var user : alwaysAuthed) {
+      mvc
+          .perform(
+              put(EndpointConstants.API_V_0_1_CUSTOMERS + "/loyalty")
+                  .header("Authorization", getJwt(user))
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(content))
+          .andExpect(status().isOk());
+    }
+
+    var unauthed = List.of(MockUser.DEFAULT, MockUser.UNMATCH_CUSTOMER, MockUser.MATCH_CUSTOMER);
+
+    for (var user : unauthed) {
+      mvc
+          .perform(
+              put(EndpointConstants.API_V_0_1_CUSTOMERS + "/loyalty")
+                  .header("Authorization", getJwt(user))
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(content))
+          .andExpect(status().isForbidden());
+    }
+
+    mvc
+        .perform(
+            put(EndpointConstants.API_V_0_1_CUSTOMERS + "/loyalty")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(content))
+        .andExpect(status().isForbidden());
+  }
+
 
   /**
    * Should Allow:
@@ -7,31 +7,51 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ss.utopia.customer.dto.BulkLoyaltyUpdateDto;
 import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.CustomerLookupDto;
+import com.ss.utopia.customer.dto.CustomerLookupResultDto;
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import com.ss.utopia.customer.dto.CustomerPageDto;
+import com.ss.utopia.customer.dto.LoyaltyUpdateResultDto;
+import com.ss.utopia.customer.dto.SignupStatusDto;
 import com.ss.utopia.customer.dto.UpdateCustomerDto;
 import com.ss.utopia.customer.dto.PaymentMethodDto;
 import com.ss.utopia.customer.entity.Address;
 import com.ss.utopia.customer.entity.Customer;
 import com.ss.utopia.customer.entity.PaymentMethod;
+import com.ss.utopia.customer.entity.PendingSignup;
+import com.ss.utopia.customer.exception.CustomerVersionMismatchException;
 import com.ss.utopia.customer.exception.DuplicateEmailException;
 import com.ss.utopia.customer.exception.ExceptionControllerAdvisor;
+import com.ss.utopia.customer.exception.IdempotencyKeyMismatchException;
+import com.ss.utopia.customer.exception.InvalidCursorException;
 import com.ss.utopia.customer.exception.NoSuchCustomerException;
 import com.ss.utopia.customer.exception.NoSuchPaymentMethod;
+import com.ss.utopia.customer.exception.NoSuchSignupException;
+import com.ss.utopia.customer.exception.SignupRejectedException;
 import com.ss.utopia.customer.service.CustomerService;
 import com.ss.utopia.customer.service.DeleteAccountService;
+import com.ss.utopia.customer.service.SignupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,7 +60,9 @@ import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -57,10 +79,15 @@ class CustomerControllerTest {
 
   private final CustomerService customerService = Mockito.mock(CustomerService.class);
   private final DeleteAccountService deleteAccountService = Mockito.mock(DeleteAccountService.class);
-  private final CustomerController controller = new CustomerController(customerService, deleteAccountService);
+  private final SignupService signupService = Mockito.mock(SignupService.class);
   private final ObjectMapper jsonMapper = new ObjectMapper();
+  private final CustomerController controller = new CustomerController(customerService,
+                                                                       deleteAccountService,
+                                                                       signupService,
+                                                                       jsonMapper);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
   private final MockMvc mvc = MockMvcBuilders.standaloneSetup(controller)
-      .setControllerAdvice(new ExceptionControllerAdvisor())
+      .setControllerAdvice(new ExceptionControllerAdvisor(meterRegistry))
       .build();
 
   private Customer validCustomer;
@@ -145,7 +172,8 @@ class CustomerControllerTest {
 
   @Test
   void test_getAllCustomers_ReturnsListWith200StatusCode() throws Exception {
-    when(customerService.getAllCustomers()).thenReturn(List.of(validCustomer));
+    when(customerService.getCustomerPage(null, 100))
+        .thenReturn(new CustomerPageDto(List.of(validCustomer), null));
 
     var result = mvc
         .perform(get(CUSTOMER_ENDPOINT))
@@ -157,11 +185,40 @@ class CustomerControllerTest {
         .collect(Collectors.toList());
 
     assertEquals(List.of(validCustomer), response);
+    assertFalse(result.getResponse()
+                    .containsHeader(EndpointConstants.CONTINUATION_TOKEN_HEADER));
+  }
+
+  @Test
+  void test_getAllCustomers_ReturnsContinuationTokenWhenMoreRecordsFollow() throws Exception {
+    when(customerService.getCustomerPage("abc", 1))
+        .thenReturn(new CustomerPageDto(List.of(validCustomer), "def"));
+
+    mvc
+        .perform(
+            get(CUSTOMER_ENDPOINT)
+                .param("cursor", "abc")
+                .param("limit", "1"))
+        .andExpect(status().is(200))
+        .andExpect(header().string(EndpointConstants.CONTINUATION_TOKEN_HEADER, "def"));
+  }
+
+  @Test
+  void test_getAllCustomers_Returns400OnInvalidCursor() throws Exception {
+    when(customerService.getCustomerPage("abc", 100))
+        .thenThrow(new InvalidCursorException("abc"));
+
+    mvc
+        .perform(
+            get(CUSTOMER_ENDPOINT)
+                .param("cursor", "abc"))
+        .andExpect(status().is(400));
   }
 
   @Test
   void test_getAllCustomers_ReturnsEmptyListWith204StatusCodeIfNoCustomers() throws Exception {
-    when(customerService.getAllCustomers()).thenReturn(Collections.emptyList());
+    when(customerService.getCustomerPage(null, 100))
+        .thenReturn(new CustomerPageDto(Collections.emptyList(), null));
 
     mvc
         .perform(
@@ -169,6 +226,34 @@ class CustomerControllerTest {
         .andExpect(status().is(204));
   }
 
+  @Test
+  void test_streamAllCustomers_WritesOneJsonRecordPerLine() throws Exception {
+    Mockito.doAnswer(invocation -> {
+      Consumer<Customer> action = invocation.getArgument(0);
+      action.accept(validCustomer);
+      action.accept(validCustomer);
+      return null;
+    }).when(customerService).streamAllCustomers(any());
+
+    var asyncResult = mvc
+        .perform(
+            get(CUSTOMER_ENDPOINT)
+                .accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    var result = mvc
+        .perform(asyncDispatch(asyncResult))
+        .andExpect(status().is(200))
+        .andReturn();
+
+    var lines = result.getResponse().getContentAsString().split("\n");
+    assertEquals(2, lines.length);
+    for (var line : lines) {
+      assertEquals(validCustomer, jsonMapper.readValue(line, Customer.class));
+    }
+  }
+
   @Test
   void test_getCustomerById_ReturnsValidCustomerWith200StatusCode() throws Exception {
     when(customerService.getCustomerById(validCustomer.getId())).thenReturn(validCustomer);
@@ -185,6 +270,21 @@ class CustomerControllerTest {
     assertEquals(validCustomer, response);
   }
 
+  @Test
+  void test_getCustomerById_ReturnsVersionAsETag() throws Exception {
+    var versioned = Customer.builder().id(validCustomerId).version(2L).build();
+    when(customerService.getCustomerById(validCustomerId)).thenReturn(versioned);
+
+    var result = mvc
+        .perform(
+            get(CUSTOMER_ENDPOINT + "/" + validCustomerId))
+        .andExpect(status().is(200))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+        .andReturn();
+
+    assertFalse(result.getResponse().getContentAsString().contains("version"));
+  }
+
   @Test
   void test_getCustomerById_Returns404OnInvalidId() throws Exception {
     var randomId = UUID.randomUUID();
@@ -226,6 +326,109 @@ class CustomerControllerTest {
         .andExpect(status().is(404));
   }
 
+  @Test
+  void test_updateCustomerLoyaltyPointsBulk_ReturnsResultPerItem() throws Exception {
+    var updates = List.of(CustomerLoyaltyDeltaDto.builder()
+                              .customerId(validCustomerId)
+                              .pointsToChange(5)
+                              .increment(true)
+                              .build());
+    var results = List.of(LoyaltyUpdateResultDto.builder()
+                              .customerId(validCustomerId)
+                              .success(true)
+                              .build());
+    when(customerService.updateCustomerLoyaltyPoints(updates)).thenReturn(results);
+
+    var result = mvc
+        .perform(
+            put(CUSTOMER_ENDPOINT + "/loyalty")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(new BulkLoyaltyUpdateDto(updates))))
+        .andExpect(status().is(200))
+        .andReturn();
+
+    var response = jsonMapper.readValue(result.getResponse().getContentAsString(),
+                                        LoyaltyUpdateResultDto[].class);
+    assertEquals(results, List.of(response));
+  }
+
+  @Test
+  void test_updateCustomerLoyaltyPointsBulk_Returns400OnInvalidItem() throws Exception {
+    var updates = List.of(CustomerLoyaltyDeltaDto.builder()
+                              .customerId(validCustomerId)
+                              .pointsToChange(0)
+                              .increment(true)
+                              .build());
+
+    mvc
+        .perform(
+            put(CUSTOMER_ENDPOINT + "/loyalty")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(new BulkLoyaltyUpdateDto(updates))))
+        .andExpect(status().is(400));
+
+    mvc
+        .perform(
+            put(CUSTOMER_ENDPOINT + "/loyalty")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(new BulkLoyaltyUpdateDto(List.of()))))
+        .andExpect(status().is(400));
+  }
+
+  @Test
+  void test_lookupCustomers_ReturnsFoundAndMissingWith200StatusCode() throws Exception {
+    var missingId = UUID.randomUUID();
+    var lookup = CustomerLookupDto.builder()
+        .ids(List.of(validCustomerId, missingId))
+        .emails(List.of(validCustomer.getEmail()))
+        .build();
+    when(customerService.lookupCustomers(lookup.getIds(), lookup.getEmails()))
+        .thenReturn(CustomerLookupResultDto.builder()
+                        .customersById(Map.of(validCustomerId, validCustomer))
+                        .customersByEmail(Map.of(validCustomer.getEmail(), validCustomer))
+                        .missingIds(List.of(missingId))
+                        .missingEmails(List.of())
+                        .build());
+
+    var result = mvc
+        .perform(
+            post(CUSTOMER_ENDPOINT + "/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(lookup)))
+        .andExpect(status().is(200))
+        .andReturn();
+
+    var response = jsonMapper.readValue(result.getResponse().getContentAsString(),
+                                        CustomerLookupResultDto.class);
+    assertEquals(validCustomer, response.getCustomersById().get(validCustomerId));
+    assertEquals(validCustomer, response.getCustomersByEmail().get(validCustomer.getEmail()));
+    assertEquals(List.of(missingId), response.getMissingIds());
+  }
+
+  @Test
+  void test_lookupCustomers_Returns400OnEmptyOrOversizedLookup() throws Exception {
+    mvc
+        .perform(
+            post(CUSTOMER_ENDPOINT + "/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(new CustomerLookupDto())))
+        .andExpect(status().is(400));
+
+    var tooMany = new ArrayList<UUID>();
+    for (var i = 0; i <= CustomerLookupDto.MAX_LOOKUPS; i++) {
+      tooMany.add(UUID.randomUUID());
+    }
+    mvc
+        .perform(
+            post(CUSTOMER_ENDPOINT + "/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(
+                    CustomerLookupDto.builder().ids(tooMany).build())))
+        .andExpect(status().is(400));
+    Mockito.verifyNoInteractions(customerService);
+  }
+
   @Test
   void test_createNewCustomer_ReturnsCreatedIdAnd201StatusCodeOnValidDto() throws Exception {
     when(customerService.createNewCustomer(validCreateCustomerDto))
@@ -243,6 +446,88 @@ class CustomerControllerTest {
         .andExpect(header().string(headerName, headerVal));
   }
 
+  @Test
+  void test_createNewCustomerAsync_Returns202WithSignupLocation() throws Exception {
+    var signup = SignupStatusDto.builder()
+        .id(UUID.randomUUID())
+        .status(PendingSignup.Status.PENDING)
+        .build();
+    when(signupService.submitSignup(validCreateCustomerDto, "key-1")).thenReturn(signup);
+
+    mvc
+        .perform(
+            post(CUSTOMER_ENDPOINT)
+                .header("Prefer", "respond-async")
+                .header(EndpointConstants.IDEMPOTENCY_KEY_HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(validCreateCustomerDto)))
+        .andExpect(status().is(202))
+        .andExpect(header().string("Location", CUSTOMER_ENDPOINT + EndpointConstants.SIGNUPS
+            + "/" + signup.getId()));
+
+    Mockito.verifyNoInteractions(customerService);
+  }
+
+  @Test
+  void test_createNewCustomerAsync_Returns503WhenWorkersSaturated() throws Exception {
+    when(signupService.submitSignup(any(), any())).thenThrow(new SignupRejectedException());
+
+    mvc
+        .perform(
+            post(CUSTOMER_ENDPOINT)
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(validCreateCustomerDto)))
+        .andExpect(status().is(503));
+  }
+
+  @Test
+  void test_getSignup_ReturnsSignupStatus() throws Exception {
+    var signupId = UUID.randomUUID();
+    when(signupService.getSignup(signupId))
+        .thenReturn(SignupStatusDto.builder()
+                        .id(signupId)
+                        .status(PendingSignup.Status.COMPLETED)
+                        .location(CUSTOMER_ENDPOINT + "/" + validCustomerId)
+                        .build());
+
+    var result = mvc
+        .perform(
+            get(CUSTOMER_ENDPOINT + EndpointConstants.SIGNUPS + "/" + signupId)
+                .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().is(200))
+        .andReturn();
+
+    var body = result.getResponse().getContentAsString();
+    assertTrue(body.contains("COMPLETED"));
+    assertTrue(body.contains(CUSTOMER_ENDPOINT + "/" + validCustomerId));
+  }
+
+  @Test
+  void test_createNewCustomerAsync_Returns422OnIdempotencyKeyMismatch() throws Exception {
+    when(signupService.submitSignup(any(), any()))
+        .thenThrow(new IdempotencyKeyMismatchException("key-1"));
+
+    mvc
+        .perform(
+            post(CUSTOMER_ENDPOINT)
+                .header("Prefer", "respond-async")
+                .header(EndpointConstants.IDEMPOTENCY_KEY_HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(validCreateCustomerDto)))
+        .andExpect(status().is(422));
+  }
+
+  @Test
+  void test_getSignup_Returns404IfNotFound() throws Exception {
+    var signupId = UUID.randomUUID();
+    when(signupService.getSignup(signupId)).thenThrow(new NoSuchSignupException(signupId));
+
+    mvc
+        .perform(get(CUSTOMER_ENDPOINT + EndpointConstants.SIGNUPS + "/" + signupId))
+        .andExpect(status().is(404));
+  }
+
   //util
   boolean noValidationViolations(UpdateCustomerDto updateCustomerDto) {
     return Validation.buildDefaultValidatorFactory()
@@ -351,7 +636,7 @@ class CustomerControllerTest {
   @Test
   void test_updateExistingCustomer_Returns404OnNonExistentCustomer() throws Exception {
     var randomId = UUID.randomUUID();
-    when(customerService.updateCustomer(any(UUID.class), any(UpdateCustomerDto.class)))
+    when(customerService.updateCustomer(any(UUID.class), any(UpdateCustomerDto.class), any()))
         .thenThrow(new NoSuchCustomerException(randomId));
 
     mvc
@@ -364,7 +649,7 @@ class CustomerControllerTest {
 
   @Test
   void test_updateExistingCustomer_Returns409OnDuplicateEmail() throws Exception {
-    when(customerService.updateCustomer(validCustomer.getId(), validDto))
+    when(customerService.updateCustomer(validCustomer.getId(), validDto, null))
         .thenThrow(new DuplicateEmailException(validDto.getEmail()));
 
     mvc
@@ -373,12 +658,62 @@ class CustomerControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(jsonMapper.writeValueAsString(validDto)))
         .andExpect(status().is(409));
+    assertEquals(1, meterRegistry.get(ExceptionControllerAdvisor.EXCEPTIONS_COUNTER)
+        .tag("exception", DuplicateEmailException.class.getSimpleName())
+        .counter().count());
   }
 
 
+  @Test
+  void test_updateExistingCustomer_PassesIfMatchVersionAndReturnsNewETag() throws Exception {
+    var updated = Customer.builder().id(validCustomerId).version(4L).build();
+    when(customerService.updateCustomer(validCustomerId, validDto, 3L)).thenReturn(updated);
+
+    mvc
+        .perform(
+            put(CUSTOMER_ENDPOINT + "/" + validCustomerId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(validDto)))
+        .andExpect(status().is(204))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+  }
+
+  @Test
+  void test_updateExistingCustomer_Returns412OnStaleOrWeakIfMatch() throws Exception {
+    when(customerService.updateCustomer(validCustomerId, validDto, 3L))
+        .thenThrow(new CustomerVersionMismatchException(validCustomerId, 3L));
+    when(customerService.updateCustomer(validCustomerId, validDto, -1L))
+        .thenThrow(new CustomerVersionMismatchException(validCustomerId, -1L));
+
+    for (var ifMatch : List.of("\"3\"", "W/\"3\"")) {
+      mvc
+          .perform(
+              put(CUSTOMER_ENDPOINT + "/" + validCustomerId)
+                  .header(HttpHeaders.IF_MATCH, ifMatch)
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(jsonMapper.writeValueAsString(validDto)))
+          .andExpect(status().is(412));
+    }
+  }
+
+  @Test
+  void test_updateExistingCustomer_Returns409OnConcurrentUnconditionalUpdate() throws Exception {
+    when(customerService.updateCustomer(validCustomerId, validDto, null))
+        .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, validCustomerId));
+
+    mvc
+        .perform(
+            put(CUSTOMER_ENDPOINT + "/" + validCustomerId)
+                .header(HttpHeaders.IF_MATCH, "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(validDto)))
+        .andExpect(status().is(409));
+  }
+
   @Test
   void test_updateExistingCustomer_Returns200StatusCodeOnSuccess() throws Exception {
-    when(customerService.updateCustomer(any(UUID.class), any(UpdateCustomerDto.class))).thenReturn(validCustomer);
+    when(customerService.updateCustomer(any(UUID.class), any(UpdateCustomerDto.class), any())).thenReturn(validCustomer);
 
     mvc
         .perform(
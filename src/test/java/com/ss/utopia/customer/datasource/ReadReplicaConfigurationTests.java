@@ -0,0 +1,148 @@
+package com.ss.utopia.customer.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ss.utopia.customer.cache.SecondLevelCacheConfiguration;
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.exception.NoSuchCustomerException;
+import com.ss.utopia.customer.repository.CustomerRepository;
+import com.ss.utopia.customer.service.CustomerService;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and its replica. The replica only gets the
+ * schema, so whatever a read finds was read from the primary.
+ */
+@SpringBootTest(properties = {"com.ss.utopia.auth.jwt-header-name=Authorization",
+    "com.ss.utopia.auth.jwt-header-prefix=Bearer ",
+    // databases of their own, not shared with other test contexts
+    "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_ON_EXIT=FALSE",
+    "com.ss.utopia.customer.read-replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+    "com.ss.utopia.customer.read-replica.max-lag=2s",
+    "com.ss.utopia.customer.cache.maximum-size=0",
+    "com.ss.utopia.customer.email-backfill.enabled=false"})
+@ActiveProfiles({ReadReplicaConfiguration.PROFILE, SecondLevelCacheConfiguration.PROFILE})
+class ReadReplicaConfigurationTests {
+
+  @Autowired
+  CustomerService customerService;
+
+  @Autowired
+  CustomerRepository customerRepository;
+
+  @Autowired
+  HikariDataSource primaryDataSource;
+
+  @Autowired
+  HikariDataSource replicaDataSource;
+
+  @Autowired
+  DataSource dataSource;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  UUID id;
+
+  @BeforeEach
+  void beforeEach() {
+    var replica = new JdbcTemplate(replicaDataSource);
+    replica.execute("DROP ALL OBJECTS");
+    new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class)
+        .forEach(replica::execute);
+  }
+
+  @AfterEach
+  void afterEach() {
+    SecurityContextHolder.clearContext();
+    customerRepository.deleteAll();
+  }
+
+  @Test
+  void test_dataSource_RoutesBetweenNamedPools() {
+    assertTrue(dataSource instanceof LazyConnectionDataSourceProxy);
+    assertEquals(ReadReplicaConfiguration.PRIMARY_POOL, primaryDataSource.getPoolName());
+    assertEquals(ReadReplicaConfiguration.REPLICA_POOL, replicaDataSource.getPoolName());
+  }
+
+  @Test
+  void test_secondLevelCache_IsOffEvenWithItsProfile() {
+    var options = entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions();
+
+    assertFalse(options.isSecondLevelCacheEnabled());
+    assertFalse(options.isQueryCacheEnabled());
+  }
+
+  @Test
+  void test_readOnlyTransactionsOfUnauthenticatedCallers_ReadFromReplica() {
+    saveCustomer();
+
+    assertEquals(1, new JdbcTemplate(primaryDataSource)
+        .queryForObject("SELECT COUNT(*) FROM customer", Integer.class));
+    assertThrows(NoSuchCustomerException.class, () -> customerService.getCustomerById(id));
+    assertThrows(NoSuchCustomerException.class,
+                 () -> customerService.getCustomerLoyaltyPoints(id));
+  }
+
+  @Test
+  void test_repositoryReadsOutsideServiceTransactions_ReadFromPrimary() {
+    saveCustomer();
+
+    assertTrue(customerRepository.findById(id).isPresent());
+    assertTrue(customerRepository.existsById(id));
+    assertThrows(NoSuchCustomerException.class, () -> customerService.getCustomerById(id));
+  }
+
+  @Test
+  void test_callerThatWrote_ReadsFromPrimaryForMaxLag() throws InterruptedException {
+    authenticateAs("writer");
+    saveCustomer();
+
+    assertEquals(id, customerService.getCustomerById(id).getId());
+    assertEquals(10, customerService.getCustomerLoyaltyPoints(id));
+
+    authenticateAs("reader");
+    assertThrows(NoSuchCustomerException.class, () -> customerService.getCustomerById(id));
+
+    Thread.sleep(3_000);
+    authenticateAs("writer");
+    assertThrows(NoSuchCustomerException.class, () -> customerService.getCustomerById(id));
+  }
+
+  private void saveCustomer() {
+    id = customerRepository.save(Customer.builder()
+                                     .id(UUID.randomUUID())
+                                     .firstName("First")
+                                     .lastName("Last")
+                                     .email("customer@test.com")
+                                     .loyaltyPoints(10)
+                                     .addresses(new HashSet<>())
+                                     .paymentMethods(new HashSet<>())
+                                     .build())
+        .getId();
+  }
+
+  private static void authenticateAs(String name) {
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(name, null, List.of()));
+  }
+}
@@ -0,0 +1,107 @@
+package com.ss.utopia.customer.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.time.Duration;
+import javax.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class AccessLogFilterTests {
+
+  AccessLogConfiguration configuration = new AccessLogConfiguration();
+  AccessLogFilter filter = new AccessLogFilter(configuration);
+  Logger logger = (Logger) LoggerFactory.getLogger(AccessLogFilter.LOGGER);
+  ListAppender<ILoggingEvent> appender = new ListAppender<>();
+  MockHttpServletRequest request = new MockHttpServletRequest("GET",
+                                                              "/api/v0.1/customers/email/a@test.com");
+  MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @BeforeEach
+  void beforeEach() {
+    configuration.setSampleRate(0);
+    logger.setLevel(Level.INFO);
+    appender.start();
+    logger.addAppender(appender);
+  }
+
+  @AfterEach
+  void afterEach() {
+    logger.detachAppender(appender);
+    logger.setLevel(null);
+  }
+
+  @Test
+  void test_doFilter_SkipsUnsampledRequests() throws Exception {
+    filter.doFilter(request, response, new MockFilterChain());
+
+    assertTrue(appender.list.isEmpty());
+  }
+
+  @Test
+  void test_doFilter_LogsSampledRequestsByHandlerPattern() throws Exception {
+    configuration.setSampleRate(1);
+    request.setQueryString("email=a@test.com");
+
+    filter.doFilter(request, response, (req, res) -> req.setAttribute(
+        HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v0.1/customers/email/{email}"));
+
+    assertEquals(1, appender.list.size());
+    assertTrue(appender.list.get(0).getFormattedMessage()
+                   .startsWith("GET /api/v0.1/customers/email/{email} 200 "));
+  }
+
+  @Test
+  void test_doFilter_LogsUnmappedRequestsWithoutPath() throws Exception {
+    configuration.setSampleRate(1);
+
+    filter.doFilter(request, response, new MockFilterChain());
+
+    assertEquals(1, appender.list.size());
+    assertTrue(appender.list.get(0).getFormattedMessage()
+                   .startsWith("GET " + AccessLogFilter.UNMAPPED + " 200 "));
+  }
+
+  @Test
+  void test_doFilter_AlwaysLogsServerErrorsAndSlowRequests() throws Exception {
+    response.setStatus(503);
+    filter.doFilter(request, response, new MockFilterChain());
+
+    assertThrows(ServletException.class,
+                 () -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                   throw new ServletException("handler failed");
+                 }));
+
+    configuration.setSlowThreshold(Duration.ZERO);
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    assertEquals(3, appender.list.size());
+    assertTrue(appender.list.get(1).getFormattedMessage().contains(" 500 "));
+  }
+
+  @Test
+  void test_doFilter_LogsAsyncRequestsOnCompletion() throws Exception {
+    configuration.setSampleRate(1);
+    request.setAsyncSupported(true);
+
+    filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+    assertTrue(appender.list.isEmpty());
+    response.setStatus(201);
+    request.getAsyncContext().complete();
+    assertEquals(1, appender.list.size());
+    assertTrue(appender.list.get(0).getFormattedMessage().contains(" 201 "));
+  }
+}
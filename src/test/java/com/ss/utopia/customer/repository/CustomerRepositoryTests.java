@@ -0,0 +1,288 @@
+package com.ss.utopia.customer.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import com.ss.utopia.customer.entity.Address;
+import com.ss.utopia.customer.entity.Customer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+@DataJpaTest
+class CustomerRepositoryTests {
+
+  @Autowired
+  CustomerRepository repository;
+
+  @Autowired
+  TestEntityManager entityManager;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  List<Customer> customers;
+
+  @BeforeEach
+  void beforeEach() {
+    customers = new ArrayList<>();
+    for (var i = 0; i < 5; i++) {
+      customers.add(repository.save(Customer.builder()
+                                        .id(UUID.randomUUID())
+                                        .firstName("First" + i)
+                                        .lastName("Last" + i)
+                                        .email("customer" + i + "@test.com")
+                                        .phoneNumber("999-999-999" + i)
+                                        .loyaltyPoints(10)
+                                        .addresses(Set.of(Address.builder()
+                                                              .cardinality(1)
+                                                              .line1("123 Main St.")
+                                                              .city("Las Vegas")
+                                                              .state("NV")
+                                                              .zipcode("12345")
+                                                              .build()))
+                                        .paymentMethods(new HashSet<>())
+                                        .build()));
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void test_version_IncrementsOnChangesOnlyAndRejectsStaleWrites() {
+    var id = customers.get(0).getId();
+    var customer = repository.findWithFullProfileById(id).orElseThrow();
+    assertEquals(0L, customer.getVersion());
+
+    repository.flush();
+    assertEquals(0L, customer.getVersion());
+
+    customer.setFirstName("Changed");
+    repository.flush();
+    assertEquals(1L, customer.getVersion());
+
+    customer.getAddresses().iterator().next().setCity("Reno");
+    repository.incrementVersion(customer);
+    assertEquals(2L, customer.getVersion());
+
+    repository.flush();
+    entityManager.clear();
+    var stale = repository.findById(id).orElseThrow();
+    entityManager.detach(stale);
+    stale.setVersion(1L);
+    stale.setLastName("Stale");
+    assertThrows(ObjectOptimisticLockingFailureException.class,
+                 () -> repository.saveAndFlush(stale));
+  }
+
+  @Test
+  void test_save_DuplicateEmailIsIdentifiedByItsConstraint() {
+    var customer = repository.findById(customers.get(0).getId()).orElseThrow();
+    customer.setEmail(customers.get(1).getEmail());
+
+    var ex = assertThrows(DataIntegrityViolationException.class, () -> repository.flush());
+
+    assertTrue(ConstraintViolations.isDuplicateEmail(ex));
+  }
+
+  @Test
+  void test_save_EmailDifferingOnlyInCaseIsIdentifiedByItsConstraint() {
+    var customer = Customer.builder()
+        .id(UUID.randomUUID())
+        .email(" Customer1@Test.com")
+        .build();
+
+    var ex = assertThrows(DataIntegrityViolationException.class,
+                          () -> repository.saveAndFlush(customer));
+
+    assertEquals("customer1@test.com", customer.getNormalizedEmail());
+    assertTrue(ConstraintViolations.isDuplicateEmail(ex));
+  }
+
+  @Test
+  void test_findByNormalizedEmail_ReturnsFullProfile() {
+    var customer = repository.findByNormalizedEmail("customer3@test.com").orElseThrow();
+
+    assertEquals(customers.get(3).getId(), customer.getId());
+    assertTrue(Hibernate.isInitialized(customer.getAddresses()));
+    assertTrue(repository.findByNormalizedEmail("Customer3@Test.com").isEmpty());
+  }
+
+  @Test
+  void test_normalizedEmailBackfill_WalksUnnormalizedRecordsInBatches() {
+    jdbcTemplate.update("UPDATE customer SET normalized_email = NULL");
+    var ids = repository.findFirstPage(PageRequest.of(0, 5)).stream()
+        .map(Customer::getId)
+        .collect(Collectors.toList());
+
+    var first = repository.findEmailsToNormalize(null, 3);
+    assertEquals(ids.subList(0, 3), new ArrayList<>(first.keySet()));
+    assertEquals(repository.findById(ids.get(0)).orElseThrow().getEmail(), first.get(ids.get(0)));
+    assertEquals(ids.subList(3, 5),
+                 new ArrayList<>(repository.findEmailsToNormalize(ids.get(2), 3).keySet()));
+
+    repository.setNormalizedEmails(Map.of(ids.get(0), "normalized@test.com"));
+    assertEquals(4, repository.findEmailsToNormalize(null, 5).size());
+    assertEquals(ids.get(0),
+                 repository.findByNormalizedEmail("normalized@test.com").orElseThrow().getId());
+
+    // already normalized records are left as they are, taken normalized emails are rejected
+    repository.setNormalizedEmails(Map.of(ids.get(0), "other@test.com"));
+    assertTrue(repository.findByNormalizedEmail("other@test.com").isEmpty());
+    var taken = Map.of(ids.get(1), "normalized@test.com");
+    assertThrows(DataIntegrityViolationException.class,
+                 () -> repository.setNormalizedEmails(taken));
+  }
+
+  @Test
+  void test_findByEmailAndNormalizedEmailIsNull_FindsOnlyRecordsNotBackfilledYet() {
+    var customer = customers.get(3);
+    assertTrue(repository.findByEmailAndNormalizedEmailIsNull(customer.getEmail()).isEmpty());
+    assertFalse(repository.existsByEmailAndNormalizedEmailIsNull(customer.getEmail()));
+
+    jdbcTemplate.update("UPDATE customer SET normalized_email = NULL");
+
+    assertEquals(customer.getId(),
+                 repository.findByEmailAndNormalizedEmailIsNull(customer.getEmail())
+                     .orElseThrow()
+                     .getId());
+    assertTrue(repository.existsByEmailAndNormalizedEmailIsNull(customer.getEmail()));
+    var found = repository.findDistinctByEmailInAndNormalizedEmailIsNull(
+        List.of(customer.getEmail(), "nobody@test.com"));
+    assertEquals(1, found.size());
+    assertEquals(customer.getId(), found.get(0).getId());
+  }
+
+  @Test
+  void test_findPageAfter_WalksAllRecordsWithoutRepeats() {
+    var seen = new ArrayList<UUID>();
+    var page = repository.findFirstPage(PageRequest.of(0, 2));
+    while (!page.isEmpty()) {
+      page.forEach(c -> seen.add(c.getId()));
+      page = repository.findPageAfter(page.get(page.size() - 1).getId(), PageRequest.of(0, 2));
+    }
+
+    assertEquals(customers.size(), seen.size());
+    assertEquals(customers.stream().map(Customer::getId).collect(Collectors.toSet()),
+                 Set.copyOf(seen));
+  }
+
+  @Test
+  void test_findDistinctByIdInAndEmailIn_ReturnEachMatchOnceWithFullProfile() {
+    var ids = List.of(customers.get(0).getId(), customers.get(1).getId(), UUID.randomUUID());
+    var byId = repository.findDistinctByIdIn(ids);
+
+    assertEquals(2, byId.size());
+    assertTrue(byId.stream().allMatch(c -> Hibernate.isInitialized(c.getAddresses())));
+    assertEquals(Set.of(ids.get(0), ids.get(1)),
+                 byId.stream().map(Customer::getId).collect(Collectors.toSet()));
+
+    var byEmail = repository.findDistinctByNormalizedEmailIn(List.of("customer2@test.com",
+                                                                     "nobody@test.com"));
+    assertEquals(1, byEmail.size());
+    assertEquals(customers.get(2).getId(), byEmail.get(0).getId());
+  }
+
+  @Test
+  void test_changeLoyaltyPoints_AppliesDeltaOnlyWhenGuardHolds() {
+    var id = customers.get(0).getId();
+
+    assertEquals(1, repository.changeLoyaltyPoints(id, 5, 0));
+    assertEquals(15, repository.findLoyaltyPointsById(id).orElseThrow());
+
+    assertEquals(0, repository.changeLoyaltyPoints(id, -20, 20));
+    assertEquals(15, repository.findLoyaltyPointsById(id).orElseThrow());
+
+    assertEquals(1, repository.changeLoyaltyPoints(id, -15, 15));
+    assertEquals(0, repository.findLoyaltyPointsById(id).orElseThrow());
+  }
+
+  @Test
+  void test_changeLoyaltyPoints_UpdatesNothingForUnknownId() {
+    assertEquals(0, repository.changeLoyaltyPoints(UUID.randomUUID(), 5, 0));
+    assertTrue(repository.findLoyaltyPointsById(UUID.randomUUID()).isEmpty());
+  }
+
+  @Test
+  void test_batchChangeLoyaltyPoints_ReportsWhichUpdatesApplied() {
+    var first = customers.get(0).getId();
+    var second = customers.get(1).getId();
+
+    var applied = repository.batchChangeLoyaltyPoints(
+        List.of(new CustomerLoyaltyDeltaDto(first, 5, true),
+                new CustomerLoyaltyDeltaDto(second, 11, false),
+                new CustomerLoyaltyDeltaDto(UUID.randomUUID(), 5, true),
+                new CustomerLoyaltyDeltaDto(second, 10, false)));
+
+    assertArrayEquals(new boolean[] {true, false, false, true}, applied);
+    assertEquals(15, repository.findLoyaltyPointsById(first).orElseThrow());
+    assertEquals(0, repository.findLoyaltyPointsById(second).orElseThrow());
+  }
+
+  @Test
+  void test_writesWithoutTheEntity_VersionTheCustomer() {
+    var id = customers.get(0).getId();
+
+    repository.changeLoyaltyPoints(id, 5, 0);
+    assertEquals(1L, versionOf(id));
+
+    repository.changeLoyaltyPoints(id, -20, 20);
+    assertEquals(1L, versionOf(id));
+
+    repository.batchChangeLoyaltyPoints(List.of(new CustomerLoyaltyDeltaDto(id, 5, true),
+                                                new CustomerLoyaltyDeltaDto(id, 50, false)));
+    assertEquals(2L, versionOf(id));
+
+    assertEquals(1, repository.incrementVersionById(id));
+    assertEquals(3L, versionOf(id));
+    assertEquals(0, repository.incrementVersionById(UUID.randomUUID()));
+  }
+
+  @Test
+  void test_narrowReads_ResolveSingleColumns() {
+    var customer = customers.get(2);
+
+    assertTrue(repository.existsByNormalizedEmail(customer.getEmail()));
+    assertFalse(repository.existsByNormalizedEmail("nobody@test.com"));
+    assertEquals(10, repository.findLoyaltyPointsById(customer.getId()).orElseThrow());
+  }
+
+  @Test
+  void test_entityGraphs_FetchOnlyDeclaredCollections() {
+    var id = customers.get(0).getId();
+
+    var full = repository.findWithFullProfileById(id).orElseThrow();
+    assertTrue(Hibernate.isInitialized(full.getAddresses()));
+    // batch loaded rather than joined with the addresses
+    assertFalse(Hibernate.isInitialized(full.getPaymentMethods()));
+    entityManager.clear();
+
+    var summary = repository.findFirstPage(PageRequest.of(0, 1)).get(0);
+    assertFalse(Hibernate.isInitialized(summary.getAddresses()));
+    assertFalse(Hibernate.isInitialized(summary.getPaymentMethods()));
+  }
+
+  private Long versionOf(UUID id) {
+    return jdbcTemplate.queryForObject("SELECT version FROM customer WHERE id = ?",
+                                       Long.class,
+                                       (Object) UuidBytes.toBytes(id));
+  }
+}
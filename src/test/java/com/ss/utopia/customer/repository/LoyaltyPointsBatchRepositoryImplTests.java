@@ -0,0 +1,63 @@
+package com.ss.utopia.customer.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+class LoyaltyPointsBatchRepositoryImplTests {
+
+  JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+  EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+  LoyaltyPointsBatchRepositoryImpl repository =
+      new LoyaltyPointsBatchRepositoryImpl(jdbcTemplate, entityManagerFactory);
+
+  UUID id = UUID.randomUUID();
+
+  @BeforeEach
+  void beforeEach() {
+    var cache = Mockito.mock(javax.persistence.Cache.class);
+    when(entityManagerFactory.getCache()).thenReturn(cache);
+    when(cache.unwrap(Cache.class)).thenReturn(Mockito.mock(Cache.class));
+  }
+
+  @Test
+  void test_batchChangeLoyaltyPoints_RejectsOverdraftsWhenDriverReportsNoCounts()
+      throws Exception {
+    Mockito.doAnswer(invocation -> {
+      var resultSet = Mockito.mock(ResultSet.class);
+      when(resultSet.getBytes("id")).thenReturn(UuidBytes.toBytes(id));
+      when(resultSet.getInt("loyalty_points")).thenReturn(3);
+      invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+      return null;
+    }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), (Object) any());
+    var batch = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+    when(jdbcTemplate.batchUpdate(anyString(), batch.capture()))
+        .thenReturn(new int[] {Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+
+    var applied = repository.batchChangeLoyaltyPoints(
+        List.of(new CustomerLoyaltyDeltaDto(id, 5, false),
+                new CustomerLoyaltyDeltaDto(id, 2, true),
+                new CustomerLoyaltyDeltaDto(id, 5, false)));
+
+    // 3 - 5 is an overdraft, 3 + 2 - 5 is not
+    assertArrayEquals(new boolean[] {false, true, true}, applied);
+    assertEquals(2, batch.getValue().getBatchSize());
+  }
+}
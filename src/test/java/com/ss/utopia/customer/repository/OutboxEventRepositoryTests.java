@@ -0,0 +1,67 @@
+package com.ss.utopia.customer.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ss.utopia.customer.entity.OutboxEvent;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+@DataJpaTest
+class OutboxEventRepositoryTests {
+
+  @Autowired
+  OutboxEventRepository repository;
+
+  @Autowired
+  TestEntityManager entityManager;
+
+  UUID customerId = UUID.randomUUID();
+  OutboxEvent first;
+  OutboxEvent second;
+
+  @BeforeEach
+  void beforeEach() {
+    first = repository.save(
+        OutboxEvent.pending(OutboxEvent.Type.UPDATE_CUSTOMER_EMAIL, customerId, "a@test.com"));
+    second = repository.save(
+        OutboxEvent.pending(OutboxEvent.Type.UPDATE_CUSTOMER_EMAIL, customerId, "b@test.com"));
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void test_findDue_ReturnsPendingEventsInOrder() {
+    var due = repository.findByStatusAndNextAttemptAtLessThanEqualOrderById(
+        OutboxEvent.Status.PENDING, Instant.now(), PageRequest.of(0, 10));
+
+    assertEquals(2, due.size());
+    assertEquals("a@test.com", due.get(0).getPayload());
+    assertTrue(repository.existsByAggregateIdAndStatusAndIdLessThan(
+        customerId, OutboxEvent.Status.PENDING, second.getId()));
+    assertFalse(repository.existsByAggregateIdAndStatusAndIdLessThan(
+        customerId, OutboxEvent.Status.PENDING, first.getId()));
+  }
+
+  @Test
+  void test_claim_LeasesEventOnlyOnce() {
+    var now = Instant.now();
+    var leaseUntil = now.plusSeconds(60);
+
+    assertEquals(1, repository.claim(first.getId(), now, leaseUntil));
+    assertEquals(0, repository.claim(first.getId(), now, leaseUntil));
+
+    entityManager.clear();
+    var due = repository.findByStatusAndNextAttemptAtLessThanEqualOrderById(
+        OutboxEvent.Status.PENDING, now, PageRequest.of(0, 10));
+    assertEquals(1, due.size());
+    assertEquals(second.getId(), due.get(0).getId());
+  }
+}
@@ -0,0 +1,105 @@
+package com.ss.utopia.customer.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.entity.PaymentMethod;
+import java.util.HashSet;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+@DataJpaTest
+class PaymentMethodRepositoryTests {
+
+  @Autowired
+  PaymentMethodRepository repository;
+
+  @Autowired
+  CustomerRepository customerRepository;
+
+  @Autowired
+  TestEntityManager entityManager;
+
+  UUID ownerId;
+  UUID otherId;
+  Long paymentId;
+
+  @BeforeEach
+  void beforeEach() {
+    ownerId = saveCustomer("owner@test.com").getId();
+    otherId = saveCustomer("other@test.com").getId();
+    paymentId = repository.save(PaymentMethod.builder()
+                                    .ownerId(ownerId)
+                                    .accountNum("123456789")
+                                    .notes("primary")
+                                    .build()).getId();
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void test_insertForOwner_InsertsAndReturnsGeneratedId() {
+    var id = repository.insertForOwner(ownerId, "987654321", null).orElseThrow();
+
+    var inserted = repository.findById(id).orElseThrow();
+    assertEquals(ownerId, inserted.getOwnerId());
+    assertEquals("987654321", inserted.getAccountNum());
+
+    var customer = customerRepository.findWithFullProfileById(ownerId).orElseThrow();
+    assertEquals(2, customer.getPaymentMethods().size());
+  }
+
+  @Test
+  void test_insertForOwner_ReturnsEmptyForUnknownOwner() {
+    assertTrue(repository.insertForOwner(UUID.randomUUID(), "987654321", null).isEmpty());
+    assertEquals(1, repository.count());
+  }
+
+  @Test
+  void test_ownerScopedQueries_IgnoreOtherOwners() {
+    assertTrue(repository.findByIdAndOwnerId(paymentId, ownerId).isPresent());
+    assertTrue(repository.findByIdAndOwnerId(paymentId, otherId).isEmpty());
+
+    assertEquals(0, repository.updateByIdAndOwnerId(paymentId, otherId, "000", null));
+    assertEquals(0, repository.deleteByIdAndOwnerId(paymentId, otherId));
+    assertEquals("123456789", repository.findById(paymentId).orElseThrow().getAccountNum());
+  }
+
+  @Test
+  void test_updateAndDeleteByIdAndOwnerId() {
+    assertEquals(1, repository.updateByIdAndOwnerId(paymentId, ownerId, "000", "changed"));
+    entityManager.clear();
+    var updated = repository.findById(paymentId).orElseThrow();
+    assertEquals("000", updated.getAccountNum());
+    assertEquals("changed", updated.getNotes());
+
+    assertEquals(1, repository.deleteByIdAndOwnerId(paymentId, ownerId));
+    entityManager.clear();
+    assertTrue(repository.findById(paymentId).isEmpty());
+  }
+
+  @Test
+  void test_deletingCustomer_CascadesToPaymentMethods() {
+    customerRepository.delete(customerRepository.findWithFullProfileById(ownerId).orElseThrow());
+    entityManager.flush();
+
+    assertTrue(repository.findById(paymentId).isEmpty());
+  }
+
+  private Customer saveCustomer(String email) {
+    return customerRepository.save(Customer.builder()
+                                       .id(UUID.randomUUID())
+                                       .firstName("First")
+                                       .lastName("Last")
+                                       .email(email)
+                                       .phoneNumber("999-999-9999")
+                                       .addresses(new HashSet<>())
+                                       .paymentMethods(new HashSet<>())
+                                       .build());
+  }
+}
@@ -0,0 +1,200 @@
+package com.ss.utopia.customer.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ss.utopia.customer.cache.SecondLevelCacheConfiguration;
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import com.ss.utopia.customer.entity.Address;
+import com.ss.utopia.customer.entity.Customer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@ActiveProfiles(SecondLevelCacheConfiguration.PROFILE)
+@Import(SecondLevelCacheConfiguration.class)
+// every read and write commits, as the cache is only populated and invalidated on completion
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTests {
+
+  @Autowired
+  CustomerRepository customerRepository;
+
+  @Autowired
+  PaymentMethodRepository paymentMethodRepository;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  TestEntityManager entityManager;
+
+  TransactionTemplate transactionTemplate;
+  Statistics statistics;
+  UUID id;
+
+  @BeforeEach
+  void beforeEach() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    id = customerRepository.save(Customer.builder()
+                                     .id(UUID.randomUUID())
+                                     .firstName("First")
+                                     .lastName("Last")
+                                     .email("customer@test.com")
+                                     .loyaltyPoints(10)
+                                     .addresses(Set.of(Address.builder()
+                                                           .cardinality(1)
+                                                           .line1("123 Main St.")
+                                                           .build()))
+                                     .paymentMethods(new HashSet<>())
+                                     .build())
+        .getId();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void afterEach() {
+    paymentMethodRepository.deleteAllInBatch();
+    customerRepository.deleteAll();
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void test_findWithFullProfileById_IsServedFromCacheAfterFirstRead() {
+    load(() -> customerRepository.findWithFullProfileById(id));
+    var statements = statistics.getPrepareStatementCount();
+
+    var customer = load(() -> customerRepository.findWithFullProfileById(id));
+
+    assertEquals(statements, statistics.getPrepareStatementCount());
+    assertEquals(1, customer.getAddresses().size());
+    assertTrue(statistics.getQueryCacheHitCount() > 0);
+    assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+  }
+
+  @Test
+  void test_findByNormalizedEmail_IsServedFromCacheAfterFirstRead() {
+    load(() -> customerRepository.findByNormalizedEmail("customer@test.com"));
+    var statements = statistics.getPrepareStatementCount();
+
+    var customer = load(() -> customerRepository.findByNormalizedEmail("customer@test.com"));
+
+    assertEquals(statements, statistics.getPrepareStatementCount());
+    assertEquals(id, customer.getId());
+  }
+
+  @Test
+  void test_plainSqlWrites_EvictWhatTheyChange() {
+    load(() -> customerRepository.findWithFullProfileById(id));
+
+    customerRepository.batchChangeLoyaltyPoints(List.of(new CustomerLoyaltyDeltaDto(id, 5, true)));
+    assertEquals(15, load(() -> customerRepository.findWithFullProfileById(id)).getLoyaltyPoints());
+
+    paymentMethodRepository.insertForOwner(id, "1234", null);
+    assertEquals(1, load(() -> customerRepository.findWithFullProfileById(id))
+        .getPaymentMethods().size());
+  }
+
+  @Test
+  void test_setNormalizedEmails_EvictsLookupsCachedAsNotFound() {
+    jdbcTemplate.update("UPDATE customer SET normalized_email = NULL");
+    entityManagerFactory.getCache().evictAll();
+    assertTrue(customerRepository.findByNormalizedEmail("customer@test.com").isEmpty());
+
+    customerRepository.setNormalizedEmails(Map.of(id, "customer@test.com"));
+
+    assertEquals(id, load(() -> customerRepository.findByNormalizedEmail("customer@test.com"))
+        .getId());
+  }
+
+  @Test
+  void test_incrementVersion_IsNotServedStale() {
+    var version = load(() -> customerRepository.findWithFullProfileById(id)).getVersion();
+
+    transactionTemplate.executeWithoutResult(status -> customerRepository.incrementVersion(
+        customerRepository.findWithFullProfileById(id).orElseThrow()));
+
+    assertEquals(version + 1,
+                 load(() -> customerRepository.findWithFullProfileById(id)).getVersion());
+  }
+
+  @Test
+  void test_findUncachedWithFullProfileById_ReadsPastCacheBehindDatabase() {
+    var version = load(() -> customerRepository.findWithFullProfileById(id)).getVersion();
+
+    // updated through another instance, whose writes do not evict this cache
+    jdbcTemplate.update("UPDATE customer SET version = version + 1, loyalty_points = 20"
+                            + " WHERE email = 'customer@test.com'");
+    jdbcTemplate.update("INSERT INTO payment_method (owner_id, account_num)"
+                            + " SELECT id, '123456789' FROM customer"
+                            + " WHERE email = 'customer@test.com'");
+    assertEquals(version, load(() -> customerRepository.findWithFullProfileById(id)).getVersion());
+
+    var customer = load(() -> customerRepository.findUncachedWithFullProfileById(id));
+
+    assertEquals(version + 1, customer.getVersion());
+    assertEquals(20, customer.getLoyaltyPoints());
+    assertEquals(1, customer.getPaymentMethods().size());
+    var refreshed = load(() -> customerRepository.findWithFullProfileById(id));
+    assertEquals(version + 1, refreshed.getVersion());
+    assertEquals(1, refreshed.getPaymentMethods().size());
+  }
+
+  @Test
+  void test_findUncachedWithFullProfileById_KeepsManagedInstanceAndSessionCacheMode() {
+    transactionTemplate.executeWithoutResult(status -> {
+      var managed = customerRepository.findWithFullProfileById(id).orElseThrow();
+      managed.setFirstName("Pending");
+
+      assertSame(managed, customerRepository.findUncachedWithFullProfileById(id).orElseThrow());
+      assertEquals("Pending", managed.getFirstName());
+      assertEquals(CacheMode.NORMAL, entityManager.getEntityManager()
+          .unwrap(Session.class)
+          .getCacheMode());
+    });
+
+    assertEquals("Pending",
+                 load(() -> customerRepository.findWithFullProfileById(id)).getFirstName());
+  }
+
+  private Customer load(Supplier<Optional<Customer>> finder) {
+    return transactionTemplate.execute(status -> {
+      var customer = finder.get().orElseThrow();
+      Hibernate.initialize(customer.getAddresses());
+      Hibernate.initialize(customer.getPaymentMethods());
+      return customer;
+    });
+  }
+}
@@ -0,0 +1,124 @@
+package com.ss.utopia.customer.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class JwtAuthenticationVerificationFilterTests {
+
+  final UUID userId = UUID.randomUUID();
+  final SecurityConstants securityConstants = Mockito.mock(SecurityConstants.class);
+  final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  final JwtAuthenticationCache cache =
+      new JwtAuthenticationCache(new JwtAuthenticationCacheConfiguration(), meterRegistry);
+  final JwtAuthenticationVerificationFilter filter =
+      new JwtAuthenticationVerificationFilter(Mockito.mock(AuthenticationManager.class),
+                                              securityConstants,
+                                              cache,
+                                              meterRegistry);
+
+  @BeforeEach
+  void beforeEach() {
+    when(securityConstants.getJwtSecret()).thenReturn("superSecret");
+    when(securityConstants.getUserIdClaimKey()).thenReturn("userId");
+    when(securityConstants.getAuthorityClaimKey()).thenReturn("Authorities");
+    when(securityConstants.getJwtHeaderName()).thenReturn("Authorization");
+    when(securityConstants.getJwtHeaderPrefix()).thenReturn("Bearer ");
+  }
+
+  @AfterEach
+  void afterEach() {
+    SecurityContextHolder.clearContext();
+  }
+
+  String getJwt(Instant expiresAt, String secret) {
+    return "Bearer " + JWT.create()
+        .withSubject("test@test.com")
+        .withClaim("userId", userId.toString())
+        .withClaim("Authorities", List.of("ROLE_ADMIN"))
+        .withExpiresAt(Date.from(expiresAt))
+        .sign(Algorithm.HMAC512(secret));
+  }
+
+  MockHttpServletResponse filter(String jwt) throws Exception {
+    SecurityContextHolder.clearContext();
+    var request = new MockHttpServletRequest();
+    request.addHeader("Authorization", jwt);
+    var response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+
+  double gets(String result) {
+    return meterRegistry.get("cache.gets")
+        .tag("cache", JwtAuthenticationCache.NAME)
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  @Test
+  void test_repeatedToken_IsVerifiedOnce() throws Exception {
+    var jwt = getJwt(Instant.now().plusSeconds(60), "superSecret");
+
+    filter(jwt);
+    var first = SecurityContextHolder.getContext().getAuthentication();
+    filter(jwt);
+    var second = SecurityContextHolder.getContext().getAuthentication();
+
+    assertEquals(userId, ((JwtPrincipal) second.getPrincipal()).getUserId());
+    assertEquals("ROLE_ADMIN", second.getAuthorities().iterator().next().getAuthority());
+    assertEquals(first, second);
+    // authentications are mutable, so never shared between requests
+    assertNotSame(first, second);
+    assertEquals(1, gets("miss"));
+    assertEquals(1, gets("hit"));
+    assertEquals(2, meterRegistry.get(JwtAuthenticationVerificationFilter.AUTHENTICATION_TIMER)
+        .timer().count());
+    assertEquals(1, meterRegistry.get(JwtAuthenticationVerificationFilter.VERIFICATION_TIMER)
+        .timer().count());
+  }
+
+  @Test
+  void test_expiredToken_IsRejectedAndNotCached() throws Exception {
+    var jwt = getJwt(Instant.now().minusSeconds(60), "superSecret");
+
+    assertEquals(401, filter(jwt).getStatus());
+    assertEquals(401, filter(jwt).getStatus());
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+    assertEquals(2, gets("miss"));
+  }
+
+  @Test
+  void test_changedSecret_DiscardsCachedTokens() throws Exception {
+    var jwt = getJwt(Instant.now().plusSeconds(60), "superSecret");
+    filter(jwt);
+
+    when(securityConstants.getJwtSecret()).thenReturn("anotherSecret");
+    var rotated = getJwt(Instant.now().plusSeconds(60), "anotherSecret");
+    filter(rotated);
+
+    assertEquals(userId, ((JwtPrincipal) SecurityContextHolder.getContext()
+        .getAuthentication()
+        .getPrincipal()).getUserId());
+    assertEquals(0, gets("hit"));
+  }
+}
@@ -0,0 +1,103 @@
+package com.ss.utopia.customer.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.access.AccessDecisionVoter.ACCESS_ABSTAIN;
+import static org.springframework.security.access.AccessDecisionVoter.ACCESS_DENIED;
+import static org.springframework.security.access.AccessDecisionVoter.ACCESS_GRANTED;
+
+import com.ss.utopia.customer.controller.CustomerController;
+import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.security.permissions.Permission;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+class PermissionVoterTests {
+
+  final UUID customerId = UUID.randomUUID();
+  final PermissionMetadataSource metadataSource = new PermissionMetadataSource();
+  final PermissionVoter voter = new PermissionVoter();
+
+  Authentication user(UserRole role, UUID userId) {
+    return new UsernamePasswordAuthenticationToken(
+        new JwtPrincipal(userId, "user@test.com"), null,
+        List.of(new SimpleGrantedAuthority(role.getRole())));
+  }
+
+  Authentication anonymous() {
+    return new AnonymousAuthenticationToken("key", "anonymousUser",
+                                            AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+  }
+
+  int vote(Authentication authentication, String methodName, Class<?>[] types, Object... args)
+      throws Exception {
+    var method = CustomerController.class.getMethod(methodName, types);
+    var attributes = metadataSource.getAttributes(method, CustomerController.class);
+    return voter.vote(authentication, new SimpleMethodInvocation(null, method, args), attributes);
+  }
+
+  @Test
+  void test_vote_GrantsRolesOrOwningCustomerForCustomerIdRule() throws Exception {
+    Class<?>[] types = {UUID.class};
+
+    assertEquals(ACCESS_GRANTED, vote(user(UserRole.EMPLOYEE, UUID.randomUUID()),
+                                      "getCustomerById", types, customerId));
+    assertEquals(ACCESS_GRANTED, vote(user(UserRole.CUSTOMER, customerId),
+                                      "getCustomerById", types, customerId));
+    assertEquals(ACCESS_DENIED, vote(user(UserRole.CUSTOMER, UUID.randomUUID()),
+                                     "getCustomerById", types, customerId));
+    assertEquals(ACCESS_DENIED, vote(anonymous(), "getCustomerById", types, customerId));
+  }
+
+  @Test
+  void test_vote_GrantsAnonymousOnlyWhereAllowed() throws Exception {
+    Class<?>[] types = {CreateCustomerDto.class};
+    var dto = new CreateCustomerDto();
+
+    assertEquals(ACCESS_GRANTED, vote(anonymous(), "createNewCustomer", types, dto));
+    assertEquals(ACCESS_GRANTED, vote(user(UserRole.TRAVEL_AGENT, UUID.randomUUID()),
+                                      "createNewCustomer", types, dto));
+    assertEquals(ACCESS_DENIED, vote(user(UserRole.CUSTOMER, UUID.randomUUID()),
+                                     "createNewCustomer", types, dto));
+  }
+
+  @Test
+  void test_vote_AbstainsForMethodsWithoutPermission() throws Exception {
+    var method = CustomerController.class.getMethod("getSignup", UUID.class);
+
+    assertTrue(metadataSource.getAttributes(method, CustomerController.class).isEmpty());
+    assertEquals(ACCESS_ABSTAIN,
+                 voter.vote(anonymous(), new SimpleMethodInvocation(null, method, customerId),
+                            List.of()));
+  }
+
+  @Test
+  void test_getAttributes_FailsForOwnerWithoutMatchingParameter() throws Exception {
+    var method = MisconfiguredEndpoint.class.getMethod("get", UUID.class);
+
+    assertThrows(IllegalStateException.class,
+                 () -> metadataSource.getAttributes(method, MisconfiguredEndpoint.class));
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @Permission(roles = UserRole.ADMIN, owner = Permission.Owner.CUSTOMER_ID)
+  @interface MisconfiguredPermission {
+  }
+
+  static class MisconfiguredEndpoint {
+
+    @MisconfiguredPermission
+    public void get(UUID id) {
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package com.ss.utopia.customer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ss.utopia.customer.cache.CustomerCache;
+import com.ss.utopia.customer.cache.CustomerCacheConfiguration;
+import com.ss.utopia.customer.client.AccountsClient;
+import com.ss.utopia.customer.entity.Address;
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.entity.PaymentMethod;
+import com.ss.utopia.customer.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({CustomerServiceImpl.class, CustomerCache.class, CustomerCacheConfiguration.class,
+    SimpleMeterRegistry.class})
+// committed, so the records are loaded from the database rather than the test's session
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerServiceImplStreamingTests {
+
+  static final int CUSTOMERS = CustomerServiceImpl.STREAM_CHUNK_SIZE * 2 + 1;
+
+  @MockBean
+  AccountsClient accountsClient;
+
+  @Autowired
+  CustomerService customerService;
+
+  @Autowired
+  CustomerRepository customerRepository;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @AfterEach
+  void afterEach() {
+    customerRepository.deleteAll();
+  }
+
+  @Test
+  void test_streamAllCustomers_BatchLoadsCollectionsPerChunk() {
+    for (var i = 0; i < CUSTOMERS; i++) {
+      var id = UUID.randomUUID();
+      customerRepository.save(Customer.builder()
+                                  .id(id)
+                                  .firstName("First")
+                                  .lastName("Last")
+                                  .email("customer" + i + "@test.com")
+                                  .loyaltyPoints(0)
+                                  .addresses(Set.of(Address.builder()
+                                                        .cardinality(1)
+                                                        .line1("123 Main St.")
+                                                        .build()))
+                                  .paymentMethods(new HashSet<>(Set.of(
+                                      PaymentMethod.builder()
+                                          .ownerId(id)
+                                          .accountNum("1234")
+                                          .build())))
+                                  .build());
+    }
+    var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    var streamed = new ArrayList<Customer>();
+    customerService.streamAllCustomers(customer -> {
+      assertTrue(Hibernate.isInitialized(customer.getAddresses()));
+      assertTrue(Hibernate.isInitialized(customer.getPaymentMethods()));
+      streamed.add(customer);
+    });
+
+    assertEquals(CUSTOMERS, streamed.size());
+    // the customers, then addresses and payment methods once per chunk
+    assertEquals(1 + 2 * 3, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void test_removeCustomerById_DeletesTheCustomerItLoaded() {
+    var id = UUID.randomUUID();
+    customerRepository.save(Customer.builder()
+                                .id(id)
+                                .firstName("First")
+                                .lastName("Last")
+                                .email("customer@test.com")
+                                .loyaltyPoints(0)
+                                .addresses(Set.of(Address.builder()
+                                                      .cardinality(1)
+                                                      .line1("123 Main St.")
+                                                      .build()))
+                                .paymentMethods(new HashSet<>())
+                                .build());
+    var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    customerService.removeCustomerById(id);
+
+    assertTrue(customerRepository.findById(id).isEmpty());
+    assertEquals(1, statistics.getEntityStatistics(Customer.class.getName()).getLoadCount());
+  }
+}
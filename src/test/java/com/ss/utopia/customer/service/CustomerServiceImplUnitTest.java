@@ -1,41 +1,59 @@
 package com.ss.utopia.customer.service;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
+import com.ss.utopia.customer.cache.CustomerCache;
+import com.ss.utopia.customer.cache.CustomerCacheConfiguration;
 import com.ss.utopia.customer.client.AccountsClient;
-import com.ss.utopia.customer.client.authentication.ServiceAuthenticationProvider;
 import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.dto.CustomerLoyaltyDeltaDto;
+import com.ss.utopia.customer.dto.LoyaltyUpdateResultDto;
 import com.ss.utopia.customer.dto.PaymentMethodDto;
 import com.ss.utopia.customer.dto.UpdateCustomerDto;
 import com.ss.utopia.customer.dto.UpdateCustomerLoyaltyDto;
 import com.ss.utopia.customer.entity.Address;
 import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.entity.OutboxEvent;
 import com.ss.utopia.customer.entity.PaymentMethod;
 import com.ss.utopia.customer.exception.AccountsClientException;
+import com.ss.utopia.customer.exception.CustomerVersionMismatchException;
 import com.ss.utopia.customer.exception.DuplicateEmailException;
+import com.ss.utopia.customer.exception.IllegalPointChangeException;
+import com.ss.utopia.customer.exception.InvalidCursorException;
 import com.ss.utopia.customer.exception.NoSuchCustomerException;
 import com.ss.utopia.customer.exception.NoSuchPaymentMethod;
 import com.ss.utopia.customer.repository.CustomerRepository;
-import java.util.Collections;
+import com.ss.utopia.customer.repository.OutboxEventRepository;
+import com.ss.utopia.customer.repository.PaymentMethodRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 class CustomerServiceImplUnitTest {
 
@@ -48,12 +66,18 @@ class CustomerServiceImplUnitTest {
   private static UpdateCustomerDto dtoSecondCustomer;
 
   private final CustomerRepository repository = Mockito.mock(CustomerRepository.class);
+  private final PaymentMethodRepository paymentMethodRepository = Mockito.mock(
+      PaymentMethodRepository.class);
   private final AccountsClient accountsClient = Mockito.mock(AccountsClient.class);
-  private final ServiceAuthenticationProvider serviceAuthenticationProvider = Mockito.mock(
-      ServiceAuthenticationProvider.class);
+  private final OutboxEventRepository outboxEventRepository = Mockito.mock(
+      OutboxEventRepository.class);
+  private final CustomerCache customerCache = new CustomerCache(new CustomerCacheConfiguration(),
+                                                                new SimpleMeterRegistry());
   private final CustomerService service = new CustomerServiceImpl(repository,
+                                                                  paymentMethodRepository,
                                                                   accountsClient,
-                                                                  serviceAuthenticationProvider);
+                                                                  outboxEventRepository,
+                                                                  customerCache);
 
   @BeforeAll
   static void beforeAll() {
@@ -137,33 +161,159 @@ class CustomerServiceImplUnitTest {
   void beforeEach() {
     Mockito.reset(repository);
     Mockito.reset(accountsClient);
-    Mockito.reset(serviceAuthenticationProvider);
-
-    when(serviceAuthenticationProvider.getAuthorizationHeader())
-        .thenReturn("Bearer abc.def.xyz");
+    Mockito.reset(outboxEventRepository);
   }
 
   @Test
-  void test_getAllCustomers_ReturnsListOfTestItems() {
-    when(repository.findAll()).thenReturn(List.of(firstCustomer, secondCustomer));
+  void test_getCustomerPage_ReturnsListOfTestItemsWithoutCursorOnLastPage() {
+    when(repository.findFirstPage(any())).thenReturn(List.of(firstCustomer, secondCustomer));
 
     var expected = List.of(firstCustomer, secondCustomer);
-    var actual = service.getAllCustomers();
+    var actual = service.getCustomerPage(null, 10);
+
+    assertEquals(expected, actual.getCustomers());
+    assertTrue(actual.getNextCursor().isEmpty());
+  }
+
+  @Test
+  void test_getCustomerPage_ReturnsCursorResolvingToLastIdOfPage() {
+    when(repository.findFirstPage(PageRequest.of(0, 2)))
+        .thenReturn(List.of(firstCustomer, secondCustomer));
+    when(repository.findPageAfter(firstCustomerId, PageRequest.of(0, 2)))
+        .thenReturn(List.of(secondCustomer));
+
+    var firstPage = service.getCustomerPage(null, 1);
+
+    assertEquals(List.of(firstCustomer), firstPage.getCustomers());
+    assertTrue(firstPage.getNextCursor().isPresent());
 
-    assertEquals(expected, actual);
+    var secondPage = service.getCustomerPage(firstPage.getNextCursor().get(), 1);
+
+    assertEquals(List.of(secondCustomer), secondPage.getCustomers());
+    assertTrue(secondPage.getNextCursor().isEmpty());
+  }
+
+  @Test
+  void test_getCustomerPage_ClampsLimit() {
+    service.getCustomerPage(null, -5);
+    Mockito.verify(repository).findFirstPage(PageRequest.of(0, 2));
+
+    service.getCustomerPage(null, Integer.MAX_VALUE);
+    Mockito.verify(repository)
+        .findFirstPage(PageRequest.of(0, CustomerServiceImpl.MAX_PAGE_SIZE + 1));
+  }
+
+  @Test
+  void test_getCustomerPage_ThrowsInvalidCursorExceptionOnMalformedCursor() {
+    assertThrows(InvalidCursorException.class,
+                 () -> service.getCustomerPage("not a cursor!", 10));
+    assertThrows(InvalidCursorException.class,
+                 () -> service.getCustomerPage("AAAA", 10));
   }
 
   @Test
   void test_getCustomerById_ReturnsExpectedResult() {
-    when(repository.findById(firstCustomer.getId())).thenReturn(Optional.of(firstCustomer));
+    when(repository.findWithFullProfileById(firstCustomer.getId()))
+        .thenReturn(Optional.of(firstCustomer));
     var result = service.getCustomerById(firstCustomer.getId());
     assertEquals(firstCustomer, result);
 
-    when(repository.findById(secondCustomer.getId())).thenReturn(Optional.of(secondCustomer));
+    when(repository.findWithFullProfileById(secondCustomer.getId()))
+        .thenReturn(Optional.of(secondCustomer));
     result = service.getCustomerById(secondCustomer.getId());
     assertEquals(secondCustomer, result);
   }
 
+  @Test
+  void test_getCustomerById_ServesRepeatReadsFromCache() {
+    when(repository.findWithFullProfileById(firstCustomerId))
+        .thenReturn(Optional.of(firstCustomer));
+
+    assertEquals(firstCustomer, service.getCustomerById(firstCustomerId));
+    assertEquals(firstCustomer, service.getCustomerById(firstCustomerId));
+    assertEquals(firstCustomer, service.getCustomerByEmail(firstCustomer.getEmail()));
+
+    Mockito.verify(repository, times(1)).findWithFullProfileById(firstCustomerId);
+    Mockito.verify(repository, times(0)).findByNormalizedEmail(any());
+  }
+
+  @Test
+  void test_getCustomerByEmail_ServesRepeatReadsFromCache() {
+    when(repository.findByNormalizedEmail(firstCustomer.getEmail()))
+        .thenReturn(Optional.of(firstCustomer));
+
+    service.getCustomerByEmail(firstCustomer.getEmail());
+    service.getCustomerByEmail(firstCustomer.getEmail());
+    service.getCustomerById(firstCustomerId);
+
+    Mockito.verify(repository, times(1)).findByNormalizedEmail(firstCustomer.getEmail());
+    Mockito.verify(repository, times(0)).findWithFullProfileById(any());
+  }
+
+  @Test
+  void test_getCustomerByEmail_FindsRecordNotBackfilledYetByExactEmail() {
+    when(repository.findByEmailAndNormalizedEmailIsNull(firstCustomer.getEmail()))
+        .thenReturn(Optional.of(firstCustomer));
+
+    assertEquals(firstCustomer, service.getCustomerByEmail(firstCustomer.getEmail()));
+    Mockito.verify(repository).findByNormalizedEmail(firstCustomer.getEmail());
+  }
+
+  @Test
+  void test_lookupCustomers_FindsRecordsNotBackfilledYetByExactEmail() {
+    when(repository.findDistinctByNormalizedEmailIn(any())).thenReturn(List.of(secondCustomer));
+    when(repository.findDistinctByEmailInAndNormalizedEmailIsNull(
+        List.of(firstCustomer.getEmail()))).thenReturn(List.of(firstCustomer));
+
+    var result = service.lookupCustomers(
+        List.of(), List.of(firstCustomer.getEmail(), secondCustomer.getEmail()));
+
+    assertEquals(firstCustomer, result.getCustomersByEmail().get(firstCustomer.getEmail()));
+    assertEquals(secondCustomer, result.getCustomersByEmail().get(secondCustomer.getEmail()));
+    assertTrue(result.getMissingEmails().isEmpty());
+  }
+
+  @Test
+  void test_getCustomerByEmail_IgnoresCaseAndWhitespace() {
+    when(repository.findByNormalizedEmail(firstCustomer.getEmail()))
+        .thenReturn(Optional.of(firstCustomer));
+
+    assertEquals(firstCustomer, service.getCustomerByEmail(" John_Smith@Test.com "));
+    assertEquals(firstCustomer, service.getCustomerByEmail(firstCustomer.getEmail()));
+
+    Mockito.verify(repository, times(1)).findByNormalizedEmail(any());
+  }
+
+  @Test
+  void test_getCustomerById_DoesNotCacheMissingRecord() {
+    when(repository.findWithFullProfileById(firstCustomerId)).thenReturn(Optional.empty());
+
+    assertThrows(NoSuchCustomerException.class, () -> service.getCustomerById(firstCustomerId));
+
+    when(repository.findWithFullProfileById(firstCustomerId))
+        .thenReturn(Optional.of(firstCustomer));
+
+    assertEquals(firstCustomer, service.getCustomerById(firstCustomerId));
+  }
+
+  @Test
+  void test_updateCustomerLoyaltyPoints_EvictsCachedRecord() {
+    when(repository.findWithFullProfileById(secondCustomerId))
+        .thenReturn(Optional.of(secondCustomer));
+    when(repository.changeLoyaltyPoints(secondCustomerId, 1, 0)).thenReturn(1);
+    when(repository.findLoyaltyPointsById(secondCustomerId)).thenReturn(Optional.of(5));
+
+    service.getCustomerById(secondCustomerId);
+    service.updateCustomerLoyaltyPoints(secondCustomerId, UpdateCustomerLoyaltyDto.builder()
+        .increment(true)
+        .pointsToChange(1)
+        .build());
+    service.getCustomerById(secondCustomerId);
+
+    // once to populate, once to repopulate after eviction
+    Mockito.verify(repository, times(2)).findWithFullProfileById(secondCustomerId);
+  }
+
   @Test
   void test_getCustomerById_ThrowsIllegalArgumentExceptionOnInvalidId() {
     assertThrows(IllegalArgumentException.class,
@@ -187,7 +337,8 @@ class CustomerServiceImplUnitTest {
 
   @Test
   void test_getCustomerByEmail_ReturnsExpectedResult() {
-    when(repository.findByEmail(firstCustomer.getEmail())).thenReturn(Optional.of(firstCustomer));
+    when(repository.findByNormalizedEmail(firstCustomer.getEmail()))
+        .thenReturn(Optional.of(firstCustomer));
 
     var customer = service.getCustomerByEmail(firstCustomer.getEmail());
     assertEquals(firstCustomer, customer);
@@ -200,15 +351,39 @@ class CustomerServiceImplUnitTest {
 
   @Test
   void test_getCustomerLoyaltyPointsById_ReturnsCustomerWithExpectedValuesOnSuccess() {
-    when(repository.findById(firstCustomer.getId())).thenReturn(Optional.of(firstCustomer));
+    when(repository.findLoyaltyPointsById(firstCustomer.getId()))
+        .thenReturn(Optional.of(firstCustomer.getLoyaltyPoints()));
     var result = service.getCustomerLoyaltyPoints(firstCustomer.getId());
     assertEquals(firstCustomer.getLoyaltyPoints(), result);
 
-    when(repository.findById(secondCustomer.getId())).thenReturn(Optional.of(secondCustomer));
+    when(repository.findLoyaltyPointsById(secondCustomer.getId()))
+        .thenReturn(Optional.of(secondCustomer.getLoyaltyPoints()));
     result = service.getCustomerLoyaltyPoints(secondCustomer.getId());
     assertEquals(secondCustomer.getLoyaltyPoints(), result);
+
+    Mockito.verify(repository, times(0)).findWithFullProfileById(any());
+  }
+
+  @Test
+  void test_getCustomerLoyaltyPointsById_UsesCachedRecordIfPresent() {
+    when(repository.findWithFullProfileById(firstCustomerId))
+        .thenReturn(Optional.of(firstCustomer));
+    service.getCustomerById(firstCustomerId);
+
+    assertEquals(firstCustomer.getLoyaltyPoints(),
+                 service.getCustomerLoyaltyPoints(firstCustomerId));
+    Mockito.verify(repository, times(0)).findLoyaltyPointsById(any());
   }
 
+  @Test
+  void test_getCustomerLoyaltyPointsById_ThrowsNoSuchCustomerExceptionIfNotFound() {
+    when(repository.findLoyaltyPointsById(firstCustomerId)).thenReturn(Optional.empty());
+
+    assertThrows(NoSuchCustomerException.class,
+                 () -> service.getCustomerLoyaltyPoints(firstCustomerId));
+  }
+
+
   @Test
   void test_getCustomerLoyaltyPointsById_ThrowsIllegalArgumentExceptionOnInvalidId() {
     assertThrows(IllegalArgumentException.class,
@@ -231,25 +406,140 @@ class CustomerServiceImplUnitTest {
         .increment(false)
         .pointsToChange(1000)
         .build();
-    when(repository.findById(firstCustomerId)).thenReturn(Optional.of(firstCustomer));
+    when(repository.changeLoyaltyPoints(firstCustomerId, -1000, 1000)).thenReturn(0);
+    when(repository.findLoyaltyPointsById(firstCustomerId))
+        .thenReturn(Optional.of(firstCustomer.getLoyaltyPoints()));
+
+    var ex = assertThrows(IllegalPointChangeException.class,
+                          () -> service.updateCustomerLoyaltyPoints(firstCustomerId,
+                                                                    mockUpdateDto));
+    assertEquals(firstCustomer.getLoyaltyPoints(), ex.getCurrentPoints());
+  }
+
+  @Test
+  void test_updateCustomerLoyaltyPoints_ReturnsNewBalanceOnDecrement() {
+    var mockUpdateDto = UpdateCustomerLoyaltyDto.builder()
+        .increment(false)
+        .pointsToChange(5)
+        .build();
+    when(repository.changeLoyaltyPoints(firstCustomerId, -5, 5)).thenReturn(1);
+    when(repository.findLoyaltyPointsById(firstCustomerId)).thenReturn(Optional.of(2));
+
+    assertEquals(2, service.updateCustomerLoyaltyPoints(firstCustomerId, mockUpdateDto));
+    Mockito.verify(repository, times(0)).save(any());
+  }
+
+  @Test
+  void test_updateCustomerLoyaltyPoints_ThrowsNoSuchCustomerExceptionIfNotFound() {
+    var mockUpdateDto = UpdateCustomerLoyaltyDto.builder()
+        .increment(true)
+        .pointsToChange(5)
+        .build();
+    when(repository.changeLoyaltyPoints(firstCustomerId, 5, 0)).thenReturn(0);
+    when(repository.findLoyaltyPointsById(firstCustomerId)).thenReturn(Optional.empty());
 
-    assertThrows(IllegalStateException.class,
+    assertThrows(NoSuchCustomerException.class,
                  () -> service.updateCustomerLoyaltyPoints(firstCustomerId, mockUpdateDto));
   }
 
+  @Test
+  void test_updateCustomerLoyaltyPointsBulk_ReportsOutcomePerItemAcrossChunks() {
+    var deltas = new ArrayList<CustomerLoyaltyDeltaDto>();
+    for (var i = 0; i < CustomerServiceImpl.LOYALTY_BATCH_SIZE; i++) {
+      deltas.add(new CustomerLoyaltyDeltaDto(firstCustomerId, 1, true));
+    }
+    deltas.add(new CustomerLoyaltyDeltaDto(secondCustomerId, 1000, false));
+    deltas.add(new CustomerLoyaltyDeltaDto(UUID.randomUUID(), 1, true));
+
+    var allApplied = new boolean[CustomerServiceImpl.LOYALTY_BATCH_SIZE];
+    Arrays.fill(allApplied, true);
+    when(repository.batchChangeLoyaltyPoints(any()))
+        .thenReturn(allApplied)
+        .thenReturn(new boolean[] {false, false});
+    when(repository.findLoyaltyPointsById(secondCustomerId))
+        .thenReturn(Optional.of(secondCustomer.getLoyaltyPoints()));
+
+    var results = service.updateCustomerLoyaltyPoints(deltas);
+
+    Mockito.verify(repository, times(2)).batchChangeLoyaltyPoints(any());
+    assertEquals(deltas.size(), results.size());
+    assertTrue(results.subList(0, CustomerServiceImpl.LOYALTY_BATCH_SIZE)
+                   .stream()
+                   .allMatch(LoyaltyUpdateResultDto::getSuccess));
+
+    var insufficient = results.get(CustomerServiceImpl.LOYALTY_BATCH_SIZE);
+    assertFalse(insufficient.getSuccess());
+    assertTrue(insufficient.getError().startsWith("Couldn't change points"));
+
+    var missing = results.get(CustomerServiceImpl.LOYALTY_BATCH_SIZE + 1);
+    assertFalse(missing.getSuccess());
+    assertTrue(missing.getError().startsWith("No customer record found"));
+  }
+
   @Test
   void test_createNewCustomer_ReturnsCustomerWithExpectedValuesOnSuccess() {
     when(repository.save(any(Customer.class))).thenReturn(firstCustomer);
-    when(repository.findByEmail(anyString())).thenReturn(Optional.empty());
+    when(repository.existsByNormalizedEmail(anyString())).thenReturn(false);
     when(accountsClient.createNewAccount(any())).thenReturn(ResponseEntity.ok(UUID.randomUUID()));
 
     var result = service.createNewCustomer(dtoFirstCustomer);
     assertEquals(firstCustomer, result);
   }
 
+  @Test
+  void test_lookupCustomers_ReturnsFoundAndMissingInRequestOrder() {
+    var missingId = UUID.randomUUID();
+    when(repository.findDistinctByIdIn(any())).thenReturn(List.of(secondCustomer, firstCustomer));
+    when(repository.findDistinctByNormalizedEmailIn(any())).thenReturn(List.of(secondCustomer));
+
+    var result = service.lookupCustomers(
+        List.of(firstCustomerId, missingId, secondCustomerId, firstCustomerId),
+        List.of("nobody@test.com", secondCustomer.getEmail()));
+
+    assertEquals(List.of(firstCustomerId, secondCustomerId),
+                 new ArrayList<>(result.getCustomersById().keySet()));
+    assertEquals(firstCustomer, result.getCustomersById().get(firstCustomerId));
+    assertEquals(List.of(missingId), result.getMissingIds());
+    assertEquals(secondCustomer, result.getCustomersByEmail().get(secondCustomer.getEmail()));
+    assertEquals(List.of("nobody@test.com"), result.getMissingEmails());
+  }
+
+  @Test
+  void test_lookupCustomers_MatchesEmailsRegardlessOfCase() {
+    when(repository.findDistinctByNormalizedEmailIn(List.of(secondCustomer.getEmail())))
+        .thenReturn(List.of(secondCustomer));
+
+    var result = service.lookupCustomers(List.of(), List.of("Jane_Doe@Test.com"));
+
+    assertEquals(secondCustomer, result.getCustomersByEmail().get("Jane_Doe@Test.com"));
+    assertTrue(result.getMissingEmails().isEmpty());
+  }
+
+  @Test
+  void test_lookupCustomers_QueriesInChunksAndServesCachedRecords() {
+    when(repository.findWithFullProfileById(firstCustomerId))
+        .thenReturn(Optional.of(firstCustomer));
+    service.getCustomerById(firstCustomerId);
+
+    var ids = new ArrayList<UUID>();
+    ids.add(firstCustomerId);
+    for (var i = 0; i < CustomerServiceImpl.LOOKUP_CHUNK_SIZE + 1; i++) {
+      ids.add(UUID.randomUUID());
+    }
+    when(repository.findDistinctByIdIn(any())).thenReturn(List.of());
+
+    var result = service.lookupCustomers(ids, List.of(firstCustomer.getEmail()));
+
+    Mockito.verify(repository, times(2)).findDistinctByIdIn(any());
+    Mockito.verify(repository, Mockito.never()).findDistinctByNormalizedEmailIn(any());
+    assertEquals(firstCustomer, result.getCustomersById().get(firstCustomerId));
+    assertEquals(firstCustomer, result.getCustomersByEmail().get(firstCustomer.getEmail()));
+    assertEquals(CustomerServiceImpl.LOOKUP_CHUNK_SIZE + 1, result.getMissingIds().size());
+  }
+
   @Test
   void test_createNewCustomer_ThrowsDuplicateEmailExceptionOnDuplicateEmailRecord() {
-    when(repository.findByEmail(firstCustomer.getEmail())).thenReturn(Optional.of(firstCustomer));
+    when(repository.existsByNormalizedEmail(firstCustomer.getEmail())).thenReturn(true);
 
     assertThrows(DuplicateEmailException.class,
                  () -> service.createNewCustomer(CreateCustomerDto.builder()
@@ -258,44 +548,215 @@ class CustomerServiceImplUnitTest {
   }
 
   @Test
-  void test_updateCustomer_ThrowsDuplicateEmailExceptionOnDuplicateEmailRecord() {
-    when(repository.findByEmail(firstCustomer.getEmail())).thenReturn(Optional.of(firstCustomer));
-    when(repository.findByEmail(secondCustomer.getEmail())).thenReturn(Optional.of(secondCustomer));
+  void test_createNewCustomer_ThrowsDuplicateEmailExceptionOnEmailDifferingOnlyInCase() {
+    when(repository.existsByNormalizedEmail(firstCustomer.getEmail())).thenReturn(true);
 
-    var dtoForUpdate = UpdateCustomerDto.builder()
-        .firstName(secondCustomer.getFirstName())
-        .lastName(secondCustomer.getLastName())
-        .email(firstCustomer.getEmail())    //trying to use firstCustomer's email!
-        .addrLine1("456 Strawberry Ln")
-        .addrLine2(null)
-        .city("Las Vegas")
-        .state("NV")
-        .zipcode("98765")
-        .build();
+    assertThrows(DuplicateEmailException.class,
+                 () -> service.createNewCustomer(CreateCustomerDto.builder()
+                                                     .email("John_Smith@Test.com")
+                                                     .build()));
+    Mockito.verify(accountsClient, Mockito.never()).createNewAccount(any());
+  }
+
+  @Test
+  void test_createNewCustomer_ThrowsDuplicateEmailExceptionOnRecordNotBackfilledYet() {
+    when(repository.existsByEmailAndNormalizedEmailIsNull(firstCustomer.getEmail()))
+        .thenReturn(true);
 
     assertThrows(DuplicateEmailException.class,
-                 () -> service.updateCustomer(secondCustomer.getId(), dtoForUpdate));
+                 () -> service.createNewCustomer(CreateCustomerDto.builder()
+                                                     .email(firstCustomer.getEmail())
+                                                     .build()));
+    Mockito.verify(accountsClient, Mockito.never()).createNewAccount(any());
   }
 
   @Test
-  void test_updateCustomer_CallsAccountsClientUpdate() {
-    when(repository.findById(firstCustomerId))
-        .thenReturn(Optional.of(firstCustomer));
+  void test_createNewCustomer_TranslatesConcurrentDuplicateEmailInsert() {
+    when(accountsClient.createNewAccount(any())).thenReturn(ResponseEntity.ok(UUID.randomUUID()));
+    when(repository.save(any(Customer.class)))
+        .thenThrow(duplicateEmailViolation("UK_CUSTOMER_EMAIL_INDEX_5"));
+
+    assertThrows(DuplicateEmailException.class, () -> service.createNewCustomer(dtoFirstCustomer));
+  }
+
+  @Test
+  void test_updateCustomer_ThrowsDuplicateEmailExceptionOnEmailConstraintViolation() {
+    var customer = customerToUpdate();
+    when(repository.findUncachedWithFullProfileById(customer.getId())).thenReturn(Optional.of(customer));
+    Mockito.doThrow(duplicateEmailViolation("UK_CUSTOMER_EMAIL_INDEX_5")).when(repository).flush();
+
+    assertThrows(DuplicateEmailException.class,
+                 () -> service.updateCustomer(customer.getId(),
+                                              updateDtoFor(customer)
+                                                  .email(secondCustomer.getEmail())
+                                                  .build(),
+                                              null));
+  }
+
+  @Test
+  void test_updateCustomer_ThrowsDuplicateEmailExceptionOnLegacyEmailConstraintViolation() {
+    var customer = customerToUpdate();
+    when(repository.findUncachedWithFullProfileById(customer.getId())).thenReturn(Optional.of(customer));
+    // as reported by MySQL for a database created before the constraint was named
+    Mockito.doThrow(duplicateEmailViolation("UK_dwk6cx0afu8bs9o4t536v1j5v"))
+        .when(repository).flush();
+
+    assertThrows(DuplicateEmailException.class,
+                 () -> service.updateCustomer(customer.getId(),
+                                              updateDtoFor(customer)
+                                                  .email(secondCustomer.getEmail())
+                                                  .build(),
+                                              null));
+  }
+
+  @Test
+  void test_updateCustomer_ThrowsDuplicateEmailExceptionOnEmailDifferingOnlyInCase() {
+    var customer = customerToUpdate();
+    when(repository.findUncachedWithFullProfileById(customer.getId())).thenReturn(Optional.of(customer));
+    Mockito.doThrow(duplicateEmailViolation("UK_CUSTOMER_NORMALIZED_EMAIL_INDEX_5"))
+        .when(repository).flush();
+
+    assertThrows(DuplicateEmailException.class,
+                 () -> service.updateCustomer(customer.getId(),
+                                              updateDtoFor(customer)
+                                                  .email("Jane_Doe@Test.com")
+                                                  .build(),
+                                              null));
+  }
+
+  @Test
+  void test_updateCustomer_SetsNormalizedEmail() {
+    var customer = customerToUpdate();
+    when(repository.findUncachedWithFullProfileById(customer.getId())).thenReturn(Optional.of(customer));
+
+    var updated = service.updateCustomer(customer.getId(),
+                                         updateDtoFor(customer).email(" John@Test.com").build(),
+                                         null);
+
+    assertEquals(" John@Test.com", updated.getEmail());
+    assertEquals("john@test.com", updated.getNormalizedEmail());
+  }
+
+  @Test
+  void test_updateCustomer_LeavesOtherConstraintViolations() {
+    var customer = customerToUpdate();
+    when(repository.findUncachedWithFullProfileById(customer.getId())).thenReturn(Optional.of(customer));
+    Mockito.doThrow(new DataIntegrityViolationException("not null")).when(repository).flush();
+
+    assertThrows(DataIntegrityViolationException.class,
+                 () -> service.updateCustomer(customer.getId(),
+                                              updateDtoFor(customer).firstName("J").build(),
+                                              null));
+  }
+
+  @Test
+  void test_updateCustomer_RecordsEmailUpdateForAccountsService() {
+    var customer = customerToUpdate();
+    when(repository.findUncachedWithFullProfileById(customer.getId())).thenReturn(Optional.of(customer));
 
-    var oldEmail = firstCustomer.getEmail();
     var newEmail = "some_new_email@test.com";
 
-    dtoFirstCustomer.setEmail("some_new_email@test.com");
+    service.updateCustomer(customer.getId(), updateDtoFor(customer).email(newEmail).build(), null);
+
+    var captor = ArgumentCaptor.forClass(OutboxEvent.class);
+    Mockito.verify(outboxEventRepository, times(1)).save(captor.capture());
+    assertEquals(OutboxEvent.Type.UPDATE_CUSTOMER_EMAIL, captor.getValue().getType());
+    assertEquals(customer.getId(), captor.getValue().getAggregateId());
+    assertEquals(newEmail, captor.getValue().getPayload());
+    Mockito.verifyNoInteractions(accountsClient);
+  }
+
+  @Test
+  void test_updateCustomer_UpdatesInPlaceKeepingLoyaltyPointsAndPaymentMethods() {
+    var customer = customerToUpdate();
+    var address = customer.getAddresses().iterator().next();
+    var paymentMethods = customer.getPaymentMethods();
+    when(repository.findUncachedWithFullProfileById(customer.getId())).thenReturn(Optional.of(customer));
+
+    var result = service.updateCustomer(customer.getId(),
+                                        updateDtoFor(customer).firstName("Johnny").build(),
+                                        3L);
+
+    assertSame(customer, result);
+    assertEquals("Johnny", result.getFirstName());
+    assertEquals(7, result.getLoyaltyPoints());
+    assertSame(paymentMethods, result.getPaymentMethods());
+    assertSame(address, result.getAddresses().iterator().next());
+    Mockito.verify(repository, never()).save(any());
+    Mockito.verify(repository, never()).incrementVersion(any());
+    Mockito.verify(repository).flush();
+  }
+
+  @Test
+  void test_updateCustomer_IncrementsVersionWhenOnlyAddressChanges() {
+    var customer = customerToUpdate();
+    when(repository.findUncachedWithFullProfileById(customer.getId())).thenReturn(Optional.of(customer));
 
-    var result = service.updateCustomer(firstCustomer.getId(),
-                                        UpdateCustomerDto.builder().email(newEmail).build());
+    service.updateCustomer(customer.getId(), updateDtoFor(customer).city("Macon").build(), null);
 
-    Mockito.verify(accountsClient, times(1))
-        .updateCustomerEmail(serviceAuthenticationProvider.getAuthorizationHeader(),
-                             firstCustomer.getId(),
-                             newEmail);
+    assertEquals("Macon", customer.getAddresses().iterator().next().getCity());
+    Mockito.verify(repository).incrementVersion(customer);
+  }
+
+  @Test
+  void test_updateCustomer_ThrowsVersionMismatchOnStaleOrConcurrentlyChangedVersion() {
+    var customer = customerToUpdate();
+    var dto = updateDtoFor(customer).firstName("Johnny").build();
+    when(repository.findUncachedWithFullProfileById(customer.getId())).thenReturn(Optional.of(customer));
+
+    assertThrows(CustomerVersionMismatchException.class,
+                 () -> service.updateCustomer(customer.getId(), dto, 2L));
+    assertEquals("John", customer.getFirstName());
+
+    Mockito.doThrow(new ObjectOptimisticLockingFailureException(Customer.class, customer.getId()))
+        .when(repository).flush();
+    assertThrows(CustomerVersionMismatchException.class,
+                 () -> service.updateCustomer(customer.getId(), dto, 3L));
+    assertThrows(ObjectOptimisticLockingFailureException.class,
+                 () -> service.updateCustomer(customer.getId(), dto, null));
+  }
+
+  private static DataIntegrityViolationException duplicateEmailViolation(String constraintName) {
+    var cause = new ConstraintViolationException("duplicate",
+                                                 new SQLException("duplicate"),
+                                                 constraintName);
+    return new DataIntegrityViolationException("duplicate", cause);
+  }
+
+  private static Customer customerToUpdate() {
+    return Customer.builder()
+        .id(UUID.randomUUID())
+        .version(3L)
+        .firstName("John")
+        .lastName("Smith")
+        .email("john_smith@test.com")
+        .loyaltyPoints(7)
+        .addresses(Set.of(Address.builder()
+                              .id(1L)
+                              .cardinality(1)
+                              .line1("123 Main St")
+                              .city("Atlanta")
+                              .state("GA")
+                              .zipcode("12345")
+                              .build()))
+        .paymentMethods(Set.of(PaymentMethod.builder().id(1L).accountNum("123").build()))
+        .build();
+  }
 
-    firstCustomer.setEmail(oldEmail);
+  private static UpdateCustomerDto.UpdateCustomerDtoBuilder updateDtoFor(Customer customer) {
+    var address = customer.getAddresses().iterator().next();
+    return UpdateCustomerDto.builder()
+        .firstName(customer.getFirstName())
+        .lastName(customer.getLastName())
+        .email(customer.getEmail())
+        .phoneNumber(customer.getPhoneNumber())
+        .addrLine1(address.getLine1())
+        .addrLine2(address.getLine2())
+        .city(address.getCity())
+        .state(address.getState())
+        .zipcode(address.getZipcode())
+        .ticketEmails(customer.getTicketEmails())
+        .flightEmails(customer.getFlightEmails());
   }
 
   @Test
@@ -314,11 +775,11 @@ class CustomerServiceImplUnitTest {
 
   @Test
   void test_removeCustomerById_CallsRepositoryDeleteMethodWhenResultFound() {
-    when(repository.findById(any())).thenReturn(Optional.of(firstCustomer));
+    when(repository.findWithFullProfileById(any())).thenReturn(Optional.of(firstCustomer));
 
     service.removeCustomerById(firstCustomerId);
 
-    Mockito.verify(repository).findById(firstCustomerId);
+    Mockito.verify(repository).findWithFullProfileById(firstCustomerId);
 
     Mockito.verify(repository).delete(firstCustomer);
   }
@@ -335,16 +796,20 @@ class CustomerServiceImplUnitTest {
 
   @Test
   void test_getPaymentMethod_ReturnsExpectedPaymentMethod() {
-    when(repository.findById(firstCustomerId)).thenReturn(Optional.of(firstCustomer));
+    when(paymentMethodRepository.findByIdAndOwnerId(paymentMethodFirstCustomer.getId(),
+                                                    firstCustomerId))
+        .thenReturn(Optional.of(paymentMethodFirstCustomer));
 
     var result = service.getPaymentMethod(firstCustomerId, paymentMethodFirstCustomer.getId());
 
     assertEquals(paymentMethodFirstCustomer, result);
+    Mockito.verifyNoInteractions(repository);
   }
 
   @Test
   void test_getPaymentMethod_ThrowNoSuchPaymentMethodIfNotFound() {
-    when(repository.findById(firstCustomerId)).thenReturn(Optional.of(firstCustomer));
+    when(paymentMethodRepository.findByIdAndOwnerId(any(), any())).thenReturn(Optional.empty());
+    when(repository.existsById(firstCustomerId)).thenReturn(true);
 
     assertThrows(NoSuchPaymentMethod.class,
                  () -> service.getPaymentMethod(firstCustomerId, -1L));
@@ -352,7 +817,8 @@ class CustomerServiceImplUnitTest {
 
   @Test
   void test_getPaymentMethod_ThrowsNoSuchCustomerExceptionIfNotFound() {
-    when(repository.findById(any())).thenReturn(Optional.empty());
+    when(paymentMethodRepository.findByIdAndOwnerId(any(), any())).thenReturn(Optional.empty());
+    when(repository.existsById(any())).thenReturn(false);
 
     assertThrows(NoSuchCustomerException.class,
                  () -> service.getPaymentMethod(firstCustomerId,
@@ -361,31 +827,10 @@ class CustomerServiceImplUnitTest {
 
   @Test
   void test_addPaymentMethod_ReturnsCreatedPaymentId() {
-    firstCustomer.getPaymentMethods().clear();
-
-    var paymentMethodSet = new HashSet<PaymentMethod>();
-    paymentMethodSet.add(paymentMethodFirstCustomer);
-
-    when(repository.findById(firstCustomerId))
-        .thenReturn(Optional.of(firstCustomer));
-
-    when(repository.save(any())).thenReturn(Customer.builder()
-                                                .id(firstCustomerId)
-                                                .firstName("John")
-                                                .lastName("Smith")
-                                                .email("john_smith@test.com")
-                                                .loyaltyPoints(7)
-                                                .addresses(Set.of(
-                                                    Address.builder()
-                                                        .id(1L)
-                                                        .cardinality(1)
-                                                        .line1("123 Main St")
-                                                        .line2("Apt #5")
-                                                        .city("Atlanta")
-                                                        .state("GA")
-                                                        .zipcode("12345-6789").build()))
-                                                .paymentMethods(paymentMethodSet)
-                                                .build());
+    when(paymentMethodRepository.insertForOwner(firstCustomerId,
+                                                paymentMethodFirstCustomer.getAccountNum(),
+                                                paymentMethodFirstCustomer.getNotes()))
+        .thenReturn(Optional.of(paymentMethodFirstCustomer.getId()));
 
     var result = service.addPaymentMethod(firstCustomerId, PaymentMethodDto.builder()
         .accountNum(paymentMethodFirstCustomer.getAccountNum())
@@ -393,45 +838,33 @@ class CustomerServiceImplUnitTest {
         .build());
 
     assertEquals(paymentMethodFirstCustomer.getId(), result);
-
-    firstCustomer.setPaymentMethods(paymentMethodSet);
+    Mockito.verify(repository).incrementVersionById(firstCustomerId);
   }
 
   @Test
-  void test_addPaymentMethod_ThrowsNoSuchElementIfProblemSavingPaymentMethod() {
-    firstCustomer.getPaymentMethods().clear();
+  void test_addPaymentMethod_ThrowsNoSuchCustomerExceptionIfOwnerNotFound() {
+    when(paymentMethodRepository.insertForOwner(any(), any(), any())).thenReturn(Optional.empty());
 
-    var paymentMethodSet = new HashSet<PaymentMethod>();
-    paymentMethodSet.add(paymentMethodFirstCustomer);
-
-    when(repository.findById(firstCustomerId))
-        .thenReturn(Optional.of(firstCustomer));
-
-    when(repository.save(any())).thenReturn(Customer.builder()
-                                                .id(firstCustomerId)
-                                                .firstName("John")
-                                                .lastName("Smith")
-                                                .email("john_smith@test.com")
-                                                .loyaltyPoints(7)
-                                                .addresses(Set.of(
-                                                    Address.builder()
-                                                        .id(1L)
-                                                        .cardinality(1)
-                                                        .line1("123 Main St")
-                                                        .line2("Apt #5")
-                                                        .city("Atlanta")
-                                                        .state("GA")
-                                                        .zipcode("12345-6789").build()))
-                                                .paymentMethods(Collections.emptySet())
-                                                .build());
-
-    assertThrows(NoSuchElementException.class,
+    assertThrows(NoSuchCustomerException.class,
                  () -> service.addPaymentMethod(firstCustomerId, PaymentMethodDto.builder()
                      .accountNum(paymentMethodFirstCustomer.getAccountNum())
                      .notes(paymentMethodFirstCustomer.getNotes())
                      .build()));
+  }
 
-    firstCustomer.setPaymentMethods(paymentMethodSet);
+  @Test
+  void test_addPaymentMethod_EvictsCachedCustomer() {
+    when(repository.findWithFullProfileById(firstCustomerId))
+        .thenReturn(Optional.of(firstCustomer));
+    when(paymentMethodRepository.insertForOwner(any(), any(), any())).thenReturn(Optional.of(3L));
+
+    service.getCustomerById(firstCustomerId);
+    service.addPaymentMethod(firstCustomerId, PaymentMethodDto.builder()
+        .accountNum("111111111")
+        .build());
+    service.getCustomerById(firstCustomerId);
+
+    Mockito.verify(repository, times(2)).findWithFullProfileById(firstCustomerId);
   }
 
   @Test
@@ -450,28 +883,30 @@ class CustomerServiceImplUnitTest {
 
   @Test
   void test_updatePaymentMethod_ThrowsNoSuchPaymentMethodOnNotFound() {
-    var reset = firstCustomer.getPaymentMethods();
-    firstCustomer.setPaymentMethods(Collections.emptySet());
-
-    when(repository.findById(any()))
-        .thenReturn(Optional.of(firstCustomer));
+    when(paymentMethodRepository.updateByIdAndOwnerId(any(), any(), any(), any())).thenReturn(0);
+    when(repository.existsById(firstCustomerId)).thenReturn(true);
 
     assertThrows(NoSuchPaymentMethod.class,
                  () -> service.updatePaymentMethod(firstCustomerId,
                                                    paymentMethodFirstCustomer.getId(),
                                                    PaymentMethodDto.builder().build()));
-
-    firstCustomer.setPaymentMethods(reset);
+    Mockito.verify(repository, never()).incrementVersionById(any());
   }
 
   @Test
-  void test_updatePaymentMethod_PerformsUpdate() {
-    when(repository.findById(any()))
-        .thenReturn(Optional.of(firstCustomer));
+  void test_updatePaymentMethod_ThrowsNoSuchCustomerExceptionOnNotFound() {
+    when(paymentMethodRepository.updateByIdAndOwnerId(any(), any(), any(), any())).thenReturn(0);
+    when(repository.existsById(any())).thenReturn(false);
 
-    var oldSet = new HashSet<>(firstCustomer.getPaymentMethods());
+    assertThrows(NoSuchCustomerException.class,
+                 () -> service.updatePaymentMethod(firstCustomerId,
+                                                   paymentMethodFirstCustomer.getId(),
+                                                   PaymentMethodDto.builder().build()));
+  }
 
-    assertTrue(oldSet.contains(paymentMethodFirstCustomer));
+  @Test
+  void test_updatePaymentMethod_PerformsUpdate() {
+    when(paymentMethodRepository.updateByIdAndOwnerId(any(), any(), any(), any())).thenReturn(1);
 
     service.updatePaymentMethod(firstCustomerId,
                                 paymentMethodFirstCustomer.getId(),
@@ -480,31 +915,12 @@ class CustomerServiceImplUnitTest {
                                     .notes("something new")
                                     .build());
 
-    Mockito.verify(repository).save(any());
-
-    var expected = PaymentMethod.builder()
-        .id(paymentMethodFirstCustomer.getId())
-        .ownerId(firstCustomerId)
-        .accountNum("something new")
-        .notes("something new")
-        .build();
-
-    assertNotEquals(oldSet, firstCustomer.getPaymentMethods());
-
-    assertFalse(oldSet.contains(expected));
-
-    var result = firstCustomer.getPaymentMethods()
-        .stream()
-        .filter(p -> p.getId().equals(paymentMethodFirstCustomer.getId()))
-        .findFirst()
-        .orElseThrow();
-
-    assertEquals(expected, result);
-
-
-    var replace = new HashSet<PaymentMethod>();
-    replace.add(paymentMethodFirstCustomer);
-    firstCustomer.setPaymentMethods(replace);
+    Mockito.verify(paymentMethodRepository)
+        .updateByIdAndOwnerId(paymentMethodFirstCustomer.getId(),
+                              firstCustomerId,
+                              "something new",
+                              "something new");
+    Mockito.verify(repository).incrementVersionById(firstCustomerId);
   }
 
   @Test
@@ -519,41 +935,30 @@ class CustomerServiceImplUnitTest {
 
   @Test
   void test_removePaymentMethod_RemovesPaymentMethod() {
-    when(repository.findById(any()))
-        .thenReturn(Optional.ofNullable(firstCustomer));
-
-    var methodSet = firstCustomer.getPaymentMethods();
-
-    assertTrue(methodSet.contains(paymentMethodFirstCustomer));
+    when(paymentMethodRepository.deleteByIdAndOwnerId(any(), any())).thenReturn(1);
 
     service.removePaymentMethod(firstCustomerId, paymentMethodFirstCustomer.getId());
 
-    Mockito.verify(repository).save(firstCustomer);
-
-    assertFalse(methodSet.contains(paymentMethodFirstCustomer));
-
-    var replaceSet = new HashSet<PaymentMethod>();
-    replaceSet.add(paymentMethodFirstCustomer);
-    firstCustomer.setPaymentMethods(replaceSet);
+    Mockito.verify(paymentMethodRepository)
+        .deleteByIdAndOwnerId(paymentMethodFirstCustomer.getId(), firstCustomerId);
+    Mockito.verify(repository).incrementVersionById(firstCustomerId);
   }
 
   @Test
-  void test_removePaymentMethod_DoesNotRemoveIfNotFound() {
-    when(repository.findById(any()))
-        .thenReturn(Optional.ofNullable(firstCustomer));
+  void test_removePaymentMethod_DoesNotThrowIfPaymentMethodNotFound() {
+    when(paymentMethodRepository.deleteByIdAndOwnerId(any(), any())).thenReturn(0);
+    when(repository.existsById(firstCustomerId)).thenReturn(true);
 
-    var expected = firstCustomer.getPaymentMethods().size();
-
-    assertTrue(expected > 0);
-
-    service.removePaymentMethod(firstCustomerId, -1L);
-
-    var result = firstCustomer.getPaymentMethods().size();
+    assertDoesNotThrow(() -> service.removePaymentMethod(firstCustomerId, -1L));
+    Mockito.verify(repository, never()).incrementVersionById(any());
+  }
 
-    assertEquals(expected, result);
+  @Test
+  void test_removePaymentMethod_ThrowsNoSuchCustomerExceptionIfNotFound() {
+    when(paymentMethodRepository.deleteByIdAndOwnerId(any(), any())).thenReturn(0);
+    when(repository.existsById(any())).thenReturn(false);
 
-    var replaceSet = new HashSet<PaymentMethod>();
-    replaceSet.add(paymentMethodFirstCustomer);
-    firstCustomer.setPaymentMethods(replaceSet);
+    assertThrows(NoSuchCustomerException.class,
+                 () -> service.removePaymentMethod(firstCustomerId, -1L));
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.ss.utopia.customer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+import com.ss.utopia.customer.repository.CustomerRepository;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class NormalizedEmailBackfillTests {
+
+  CustomerRepository customerRepository = Mockito.mock(CustomerRepository.class);
+  EmailBackfillConfiguration configuration = new EmailBackfillConfiguration();
+  NormalizedEmailBackfill backfill;
+
+  UUID firstId = UUID.randomUUID();
+  UUID secondId = UUID.randomUUID();
+  UUID thirdId = UUID.randomUUID();
+
+  @BeforeEach
+  void beforeEach() {
+    configuration.setBatchSize(2);
+    configuration.setPause(Duration.ZERO);
+    backfill = new NormalizedEmailBackfill(customerRepository, configuration);
+  }
+
+  @Test
+  void test_backfill_NormalizesAllBatchesInIdOrder() throws InterruptedException {
+    when(customerRepository.findEmailsToNormalize(isNull(), anyInt()))
+        .thenReturn(emails(firstId, " First@Test.com", secondId, "SECOND@test.com"));
+    when(customerRepository.findEmailsToNormalize(eq(secondId), anyInt()))
+        .thenReturn(emails(thirdId, "third@test.com"));
+
+    assertEquals(3, backfill.backfill());
+
+    Mockito.verify(customerRepository).setNormalizedEmails(
+        Map.of(firstId, "first@test.com", secondId, "second@test.com"));
+    Mockito.verify(customerRepository).setNormalizedEmails(Map.of(thirdId, "third@test.com"));
+    Mockito.verify(customerRepository, Mockito.never()).findEmailsToNormalize(eq(thirdId),
+                                                                              anyInt());
+  }
+
+  @Test
+  void test_backfill_SkipsRecordsWithTakenNormalizedEmail() throws InterruptedException {
+    when(customerRepository.findEmailsToNormalize(isNull(), anyInt()))
+        .thenReturn(emails(firstId, "First@Test.com", secondId, "second@test.com"));
+    when(customerRepository.findEmailsToNormalize(eq(secondId), anyInt()))
+        .thenReturn(Map.of());
+    var conflict = new DataIntegrityViolationException("duplicate");
+    Mockito.doThrow(conflict).when(customerRepository).setNormalizedEmails(
+        Map.of(firstId, "first@test.com", secondId, "second@test.com"));
+    Mockito.doThrow(conflict).when(customerRepository).setNormalizedEmails(
+        Map.of(firstId, "first@test.com"));
+
+    assertEquals(1, backfill.backfill());
+
+    Mockito.verify(customerRepository).setNormalizedEmails(Map.of(secondId, "second@test.com"));
+    Mockito.verify(customerRepository, times(3)).setNormalizedEmails(any());
+  }
+
+  private static Map<UUID, String> emails(Object... idsAndEmails) {
+    var emails = new LinkedHashMap<UUID, String>();
+    for (var i = 0; i < idsAndEmails.length; i += 2) {
+      emails.put((UUID) idsAndEmails[i], (String) idsAndEmails[i + 1]);
+    }
+    return emails;
+  }
+}
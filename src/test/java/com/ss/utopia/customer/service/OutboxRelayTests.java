@@ -0,0 +1,136 @@
+package com.ss.utopia.customer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+import com.ss.utopia.customer.client.AccountsClient;
+import com.ss.utopia.customer.client.authentication.ServiceAuthenticationProvider;
+import com.ss.utopia.customer.entity.OutboxEvent;
+import com.ss.utopia.customer.repository.OutboxEventRepository;
+import feign.FeignException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+
+class OutboxRelayTests {
+
+  OutboxEventRepository outboxEventRepository = Mockito.mock(OutboxEventRepository.class);
+  AccountsClient accountsClient = Mockito.mock(AccountsClient.class);
+  ServiceAuthenticationProvider serviceAuthenticationProvider =
+      Mockito.mock(ServiceAuthenticationProvider.class);
+  OutboxConfiguration outboxConfiguration = new OutboxConfiguration();
+  OutboxRelay relay;
+
+  OutboxEvent emailEvent;
+  OutboxEvent otherEmailEvent;
+
+  @BeforeEach
+  void beforeEach() {
+    relay = new OutboxRelay(outboxEventRepository,
+                            accountsClient,
+                            serviceAuthenticationProvider,
+                            outboxConfiguration);
+
+    emailEvent = OutboxEvent.pending(OutboxEvent.Type.UPDATE_CUSTOMER_EMAIL,
+                                     UUID.randomUUID(),
+                                     "new_email@test.com");
+    emailEvent.setId(1L);
+    otherEmailEvent = OutboxEvent.pending(OutboxEvent.Type.UPDATE_CUSTOMER_EMAIL,
+                                          UUID.randomUUID(),
+                                          "other_email@test.com");
+    otherEmailEvent.setId(2L);
+
+    when(serviceAuthenticationProvider.getAuthorizationHeader())
+        .thenReturn("Bearer abc.def.xyz");
+    when(outboxEventRepository.findByStatusAndNextAttemptAtLessThanEqualOrderById(
+        eq(OutboxEvent.Status.PENDING), any(), any()))
+        .thenReturn(List.of(emailEvent, otherEmailEvent));
+    when(outboxEventRepository.claim(anyLong(), any(), any())).thenReturn(1);
+  }
+
+  @Test
+  void test_relay_DispatchesEventsAndRemovesThem() {
+    assertEquals(2, relay.relay());
+
+    Mockito.verify(accountsClient).updateCustomerEmail("Bearer abc.def.xyz",
+                                                       emailEvent.getAggregateId(),
+                                                       "new_email@test.com");
+    Mockito.verify(accountsClient).updateCustomerEmail("Bearer abc.def.xyz",
+                                                       otherEmailEvent.getAggregateId(),
+                                                       "other_email@test.com");
+    Mockito.verify(outboxEventRepository).deleteById(1L);
+    Mockito.verify(outboxEventRepository).deleteById(2L);
+  }
+
+  @Test
+  void test_relay_SkipsEventsClaimedElsewhereOrHeldBackByEarlierEvents() {
+    when(outboxEventRepository.existsByAggregateIdAndStatusAndIdLessThan(
+        emailEvent.getAggregateId(), OutboxEvent.Status.PENDING, 1L)).thenReturn(true);
+    when(outboxEventRepository.claim(eq(2L), any(), any())).thenReturn(0);
+
+    assertEquals(0, relay.relay());
+    Mockito.verifyNoInteractions(accountsClient);
+  }
+
+  @Test
+  void test_relay_ShouldRefreshAuthorizationAndRetryOnFirstForbiddenFailure() {
+    when(accountsClient.updateCustomerEmail(any(), any(), any()))
+        .thenThrow(FeignException.Forbidden.class)
+        .thenReturn(ResponseEntity.noContent().build());
+
+    assertEquals(2, relay.relay());
+    Mockito.verify(serviceAuthenticationProvider, times(1)).refreshAuthorization();
+    Mockito.verify(accountsClient, times(3)).updateCustomerEmail(any(), any(), any());
+  }
+
+  @Test
+  void test_relay_ReschedulesRetryableFailuresWithBackoff() {
+    when(accountsClient.updateCustomerEmail(any(), eq(emailEvent.getAggregateId()), any()))
+        .thenThrow(FeignException.ServiceUnavailable.class);
+    var before = Instant.now();
+
+    assertEquals(1, relay.relay());
+
+    Mockito.verify(outboxEventRepository).save(emailEvent);
+    Mockito.verify(outboxEventRepository, never()).deleteById(1L);
+    assertEquals(OutboxEvent.Status.PENDING, emailEvent.getStatus());
+    assertEquals(1, emailEvent.getAttempts());
+    assertTrue(emailEvent.getNextAttemptAt()
+                   .isAfter(before.plus(outboxConfiguration.getRetryBackoff()).minusMillis(1)));
+  }
+
+  @Test
+  void test_relay_FailsEventsOnClientErrors() {
+    when(accountsClient.updateCustomerEmail(any(), any(), any()))
+        .thenThrow(FeignException.Conflict.class);
+
+    assertEquals(0, relay.relay());
+
+    assertEquals(OutboxEvent.Status.FAILED, emailEvent.getStatus());
+    assertEquals(OutboxEvent.Status.FAILED, otherEmailEvent.getStatus());
+    Mockito.verify(outboxEventRepository, never()).deleteById(any());
+  }
+
+  @Test
+  void test_relay_FailsEventsAfterMaxAttempts() {
+    outboxConfiguration.setMaxAttempts(2);
+    emailEvent.setAttempts(1);
+    when(accountsClient.updateCustomerEmail(any(), any(), any()))
+        .thenThrow(FeignException.ServiceUnavailable.class);
+
+    relay.relay();
+
+    assertEquals(OutboxEvent.Status.FAILED, emailEvent.getStatus());
+    assertEquals(2, emailEvent.getAttempts());
+  }
+}
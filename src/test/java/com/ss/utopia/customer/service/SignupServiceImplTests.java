@@ -0,0 +1,286 @@
+package com.ss.utopia.customer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+import com.ss.utopia.customer.client.AccountsClient;
+import com.ss.utopia.customer.controller.EndpointConstants;
+import com.ss.utopia.customer.dto.CreateCustomerDto;
+import com.ss.utopia.customer.entity.Customer;
+import com.ss.utopia.customer.entity.PendingSignup;
+import com.ss.utopia.customer.exception.DuplicateEmailException;
+import com.ss.utopia.customer.exception.IdempotencyKeyMismatchException;
+import com.ss.utopia.customer.exception.SignupRejectedException;
+import com.ss.utopia.customer.repository.CustomerRepository;
+import com.ss.utopia.customer.repository.PendingSignupRepository;
+import feign.FeignException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class SignupServiceImplTests {
+
+  PendingSignupRepository pendingSignupRepository = Mockito.mock(PendingSignupRepository.class);
+  CustomerRepository customerRepository = Mockito.mock(CustomerRepository.class);
+  AccountsClient accountsClient = Mockito.mock(AccountsClient.class);
+  SignupWorkerPool signupWorkerPool = Mockito.mock(SignupWorkerPool.class);
+  SignupConfiguration signupConfiguration = new SignupConfiguration();
+  SignupService service;
+
+  CreateCustomerDto dto = CreateCustomerDto.builder()
+      .firstName("Eddy")
+      .lastName("Grant")
+      .email("eddy_grant@test.com")
+      .password("abCD1234!@")
+      .phoneNumber("420-420-6969")
+      .addrLine1("2 Electric Ave.")
+      .city("Las Vegas")
+      .state("NV")
+      .zipcode("69420")
+      .build();
+
+  PendingSignup stored;
+
+  @BeforeEach
+  void beforeEach() {
+    signupConfiguration.setRetryBackoff(Duration.ofMillis(1));
+    service = new SignupServiceImpl(pendingSignupRepository,
+                                    customerRepository,
+                                    accountsClient,
+                                    signupWorkerPool,
+                                    signupConfiguration,
+                                    new TransactionTemplate(
+                                        Mockito.mock(PlatformTransactionManager.class)));
+
+    // run queued work inline and keep the latest saved signup
+    doAnswer(invocation -> {
+      invocation.getArgument(0, Runnable.class).run();
+      return null;
+    }).when(signupWorkerPool).submit(any());
+    when(pendingSignupRepository.save(any())).thenAnswer(invocation -> {
+      stored = invocation.getArgument(0);
+      return stored;
+    });
+    when(pendingSignupRepository.findById(any()))
+        .thenAnswer(invocation -> Optional.ofNullable(stored));
+  }
+
+  @Test
+  void test_submitSignup_ReturnsExistingSignupForIdempotencyKeyAndSameRequest() {
+    doAnswer(invocation -> null).when(signupWorkerPool).submit(any());
+    var first = service.submitSignup(dto, "key-1");
+    var existing = stored;
+    when(pendingSignupRepository.findByIdempotencyKey(existing.getIdempotencyKey()))
+        .thenReturn(Optional.of(existing));
+
+    dto.setPassword("efGH5678#$");
+    var repeat = service.submitSignup(dto, "key-1");
+
+    assertEquals(first.getId(), repeat.getId());
+    assertEquals(PendingSignup.Status.PENDING, repeat.getStatus());
+    Mockito.verify(signupWorkerPool, times(1)).submit(any());
+    Mockito.verify(pendingSignupRepository, times(1)).save(any());
+  }
+
+  @Test
+  void test_submitSignup_RejectsIdempotencyKeyRepeatedWithOtherDetails() {
+    doAnswer(invocation -> null).when(signupWorkerPool).submit(any());
+    service.submitSignup(dto, "key-1");
+    var existing = stored;
+    when(pendingSignupRepository.findByIdempotencyKey(existing.getIdempotencyKey()))
+        .thenReturn(Optional.of(existing));
+
+    dto.setLastName("Other");
+    assertThrows(IdempotencyKeyMismatchException.class, () -> service.submitSignup(dto, "key-1"));
+  }
+
+  @Test
+  void test_submitSignup_ScopesIdempotencyKeyToEmail() {
+    doAnswer(invocation -> null).when(signupWorkerPool).submit(any());
+    service.submitSignup(dto, "key-1");
+    var first = stored;
+    when(pendingSignupRepository.findByIdempotencyKey(first.getIdempotencyKey()))
+        .thenReturn(Optional.of(first));
+
+    dto.setEmail("other@test.com");
+    var other = service.submitSignup(dto, "key-1");
+
+    assertNotEquals(first.getId(), other.getId());
+    assertNotEquals(first.getIdempotencyKey(), stored.getIdempotencyKey());
+    Mockito.verify(signupWorkerPool, times(2)).submit(any());
+  }
+
+  @Test
+  void test_submitSignup_ThrowsDuplicateEmailIfCustomerOrSignupExists() {
+    when(customerRepository.existsByNormalizedEmail(dto.getEmail())).thenReturn(true);
+    assertThrows(DuplicateEmailException.class, () -> service.submitSignup(dto, null));
+
+    when(customerRepository.existsByNormalizedEmail(dto.getEmail())).thenReturn(false);
+    when(customerRepository.existsByEmailAndNormalizedEmailIsNull(dto.getEmail()))
+        .thenReturn(true);
+    assertThrows(DuplicateEmailException.class, () -> service.submitSignup(dto, null));
+
+    when(customerRepository.existsByEmailAndNormalizedEmailIsNull(dto.getEmail()))
+        .thenReturn(false);
+    when(pendingSignupRepository.existsByNormalizedEmailAndStatusAndCreatedAtAfter(
+        eq(dto.getEmail()), eq(PendingSignup.Status.PENDING), any())).thenReturn(true);
+    assertThrows(DuplicateEmailException.class, () -> service.submitSignup(dto, null));
+
+    // pending under the same email in another case
+    var otherCase = CreateCustomerDto.builder().email(" Eddy_Grant@Test.com").build();
+    assertThrows(DuplicateEmailException.class, () -> service.submitSignup(otherCase, null));
+
+    Mockito.verify(signupWorkerPool, never()).submit(any());
+  }
+
+  @Test
+  void test_submitSignup_CreatesAccountAndCustomer() {
+    var customerId = UUID.randomUUID();
+    when(accountsClient.createNewAccount(any())).thenReturn(ResponseEntity.ok(customerId));
+
+    service.submitSignup(dto, "key-1");
+
+    assertNotEquals("key-1", stored.getIdempotencyKey());
+    assertEquals(Customer.normalizeEmail(dto.getEmail()), stored.getNormalizedEmail());
+    assertEquals(PendingSignup.Status.COMPLETED, stored.getStatus());
+    assertEquals(customerId, stored.getCustomerId());
+    assertEquals(1, stored.getAttempts());
+
+    var captor = ArgumentCaptor.forClass(Customer.class);
+    Mockito.verify(customerRepository).save(captor.capture());
+    assertEquals(customerId, captor.getValue().getId());
+    assertEquals(dto.getEmail(), captor.getValue().getEmail());
+  }
+
+  @Test
+  void test_submitSignup_RetriesServerErrors() {
+    var customerId = UUID.randomUUID();
+    when(accountsClient.createNewAccount(any()))
+        .thenThrow(FeignException.ServiceUnavailable.class)
+        .thenThrow(FeignException.InternalServerError.class)
+        .thenReturn(ResponseEntity.ok(customerId));
+
+    service.submitSignup(dto, null);
+
+    assertEquals(PendingSignup.Status.COMPLETED, stored.getStatus());
+    assertEquals(3, stored.getAttempts());
+  }
+
+  @Test
+  void test_submitSignup_RetriesCustomerCreationWithoutCreatingAccountAgain() {
+    var customerId = UUID.randomUUID();
+    when(accountsClient.createNewAccount(any())).thenReturn(ResponseEntity.ok(customerId));
+    when(customerRepository.save(any()))
+        .thenThrow(new TransientDataAccessResourceException("Database unavailable"))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    service.submitSignup(dto, null);
+
+    assertEquals(PendingSignup.Status.COMPLETED, stored.getStatus());
+    assertEquals(customerId, stored.getCustomerId());
+    Mockito.verify(accountsClient, times(1)).createNewAccount(any());
+    Mockito.verify(customerRepository, times(2)).save(any());
+  }
+
+  @Test
+  void test_submitSignup_KeepsAccountIdWhenCustomerCannotBeCreated() {
+    var customerId = UUID.randomUUID();
+    when(accountsClient.createNewAccount(any())).thenReturn(ResponseEntity.ok(customerId));
+    when(customerRepository.save(any()))
+        .thenThrow(new DataIntegrityViolationException("Duplicate email"));
+
+    service.submitSignup(dto, null);
+
+    assertEquals(PendingSignup.Status.FAILED, stored.getStatus());
+    assertEquals(customerId, stored.getCustomerId());
+    Mockito.verify(customerRepository, times(1)).save(any());
+  }
+
+  @Test
+  void test_submitSignup_FailsAfterMaxAttempts() {
+    when(accountsClient.createNewAccount(any()))
+        .thenThrow(FeignException.ServiceUnavailable.class);
+
+    service.submitSignup(dto, null);
+
+    assertEquals(PendingSignup.Status.FAILED, stored.getStatus());
+    Mockito.verify(accountsClient, times(signupConfiguration.getMaxAttempts()))
+        .createNewAccount(any());
+    Mockito.verify(customerRepository, never()).save(any());
+  }
+
+  @Test
+  void test_submitSignup_DoesNotRetryClientErrors() {
+    when(accountsClient.createNewAccount(any())).thenThrow(FeignException.Conflict.class);
+
+    service.submitSignup(dto, null);
+
+    assertEquals(PendingSignup.Status.FAILED, stored.getStatus());
+    assertEquals(1, stored.getAttempts());
+    Mockito.verify(accountsClient, times(1)).createNewAccount(any());
+  }
+
+  @Test
+  void test_submitSignup_RejectsWhenWorkersSaturated() {
+    doThrow(RejectedExecutionException.class).when(signupWorkerPool).submit(any());
+
+    assertThrows(SignupRejectedException.class, () -> service.submitSignup(dto, null));
+    Mockito.verify(pendingSignupRepository).deleteById(stored.getId());
+    Mockito.verifyNoInteractions(accountsClient);
+  }
+
+  @Test
+  void test_getSignup_ReportsSignupPendingBeyondTimeoutAsFailedWithoutWriting() {
+    stored = PendingSignup.builder()
+        .id(UUID.randomUUID())
+        .status(PendingSignup.Status.PENDING)
+        .createdAt(Instant.now().minus(signupConfiguration.getPendingTimeout()).minusSeconds(1))
+        .build();
+
+    var status = service.getSignup(stored.getId());
+
+    assertEquals(PendingSignup.Status.FAILED, status.getStatus());
+    assertEquals(SignupServiceImpl.TIMED_OUT_MESSAGE, status.getFailureReason());
+    assertEquals(PendingSignup.Status.PENDING, stored.getStatus());
+    Mockito.verify(pendingSignupRepository, never()).save(any());
+  }
+
+  @Test
+  void test_getSignup_LocatesCompletedCustomerOnly() {
+    var customerId = UUID.randomUUID();
+    stored = PendingSignup.builder()
+        .id(UUID.randomUUID())
+        .email(dto.getEmail())
+        .status(PendingSignup.Status.COMPLETED)
+        .customerId(customerId)
+        .createdAt(Instant.now())
+        .build();
+
+    var status = service.getSignup(stored.getId());
+
+    assertEquals(EndpointConstants.API_V_0_1_CUSTOMERS + "/" + customerId, status.getLocation());
+
+    stored.setStatus(PendingSignup.Status.FAILED);
+    assertNull(service.getSignup(stored.getId()).getLocation());
+  }
+}